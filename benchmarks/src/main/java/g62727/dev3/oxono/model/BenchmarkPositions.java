@@ -0,0 +1,110 @@
+package g62727.dev3.oxono.model;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Builds the fixed corpus of positions every benchmark runs on, the same for every run of a given size of board
+ * The positions are reached by random turns from the start with a fixed seed, the turns winning the game being
+ * skipped so every position is still being played. They are spread over the game, from the opening to the end
+ */
+final class BenchmarkPositions {
+    /**
+     * Attributes of the BenchmarkPositions class
+     */
+    static final int POSITIONS = 16;
+    static final int GAME_TURNS = 30;
+    private static final long SEED = 0x0B0E_2024L;
+    private static final int INITIAL_BUFFER_SIZE = 256;
+
+    /**
+     * Private constructor, the corpus is only built through its static methods
+     */
+    private BenchmarkPositions() {
+    }
+
+    /**
+     * Method building the positions of the corpus for a size of board
+     *
+     * @param size - the size of the board
+     * @return the positions, every one with the player to play set
+     */
+    static Oxono[] positions(int size) {
+        Oxono[] positions = new Oxono[POSITIONS];
+        for (int i = 0; i < POSITIONS; i++) {
+            Oxono oxono = new Oxono(size);
+            int[] turns = game(size, i * GAME_TURNS / POSITIONS, SEED + i);
+            for (int turn : turns) {
+                oxono.makeMove(turn);
+            }
+            positions[i] = oxono;
+        }
+        return positions;
+    }
+
+    /**
+     * Method building the game of the corpus for a size of board : GAME_TURNS random turns, none of them winning
+     *
+     * @param size - the size of the board
+     * @return the turns of the game encoded as PackedMove, in the order they are played
+     */
+    static int[] game(int size) {
+        return game(size, GAME_TURNS, SEED);
+    }
+
+    /**
+     * Method building a game of random turns, none of them winning, from the start
+     * The game is shorter than asked when every turn left wins or when the players have no token left
+     *
+     * @param size  - the size of the board
+     * @param turns - the number of turns to play
+     * @param seed  - the seed of the random turns
+     * @return the turns of the game encoded as PackedMove, in the order they are played
+     */
+    static int[] game(int size, int turns, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Oxono oxono = new Oxono(size);
+        int[] played = new int[turns];
+        int[] moves = new int[INITIAL_BUFFER_SIZE];
+        for (int turn = 0; turn < turns; turn++) {
+            Color color = oxono.getToPlay().getColor();
+            int count = oxono.generateMoves(color, moves);
+            if (count > moves.length) {
+                moves = new int[count];
+                count = oxono.generateMoves(color, moves);
+            }
+            int move = randomQuietMove(oxono, moves, count, random);
+            if (move == PackedMove.NONE) {
+                return Arrays.copyOf(played, turn);
+            }
+            oxono.makeMove(move);
+            played[turn] = move;
+        }
+        return played;
+    }
+
+    /**
+     * Private helper method picking a random turn that doesn't win the game, starting from a random index
+     * @param oxono - the game
+     * @param moves - the legal turns
+     * @param count - the number of legal turns
+     * @param random - the source of randomness
+     * @return the turn encoded as PackedMove, PackedMove.NONE if every turn wins or there's none
+     */
+    private static int randomQuietMove(Oxono oxono, int[] moves, int count, SplittableRandom random) {
+        if (count == 0) {
+            return PackedMove.NONE;
+        }
+        int start = random.nextInt(count);
+        for (int i = 0; i < count; i++) {
+            int move = moves[(start + i) % count];
+            oxono.makeMove(move);
+            boolean wins = oxono.lastMoveWins();
+            oxono.unmakeMove();
+            if (!wins) {
+                return move;
+            }
+        }
+        return PackedMove.NONE;
+    }
+}
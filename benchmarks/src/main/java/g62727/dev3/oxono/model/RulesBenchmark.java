@@ -0,0 +1,127 @@
+package g62727.dev3.oxono.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the rules of the game on the positions of the corpus (BenchmarkPositions) : the moves of the totems,
+ * the inserts of the tokens, the detection of a winner and the count of the free cells
+ * Every operation runs once on every position of the corpus
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RulesBenchmark {
+    /**
+     * Attributes of the RulesBenchmark class
+     */
+    @Param({"6", "8", "10", "16"})
+    int size;
+    private Oxono[] positions;
+    private Token[] tokens;
+    private Position[] cells;
+
+    /**
+     * Builds the corpus of positions, the token every position has to insert and every cell of the board
+     */
+    @Setup
+    public void setUp() {
+        this.positions = BenchmarkPositions.positions(this.size);
+        this.tokens = new Token[this.positions.length];
+        for (int i = 0; i < this.positions.length; i++) {
+            this.tokens[i] = new Token(Symbol.O, this.positions[i].getToPlay().getColor());
+        }
+        this.cells = new Position[this.size * this.size];
+        for (int row = 0; row < this.size; row++) {
+            for (int col = 0; col < this.size; col++) {
+                this.cells[row * this.size + col] = new Position(row, col);
+            }
+        }
+    }
+
+    /**
+     * Benchmarks Oxono.getValidMoves(Totem) for both totems
+     * @param blackhole - consumes the moves
+     */
+    @Benchmark
+    public void validMoves(Blackhole blackhole) {
+        for (Oxono oxono : this.positions) {
+            blackhole.consume(oxono.getValidMoves(oxono.findTotem(Symbol.O)));
+            blackhole.consume(oxono.getValidMoves(oxono.findTotem(Symbol.X)));
+        }
+    }
+
+    /**
+     * Benchmarks Oxono.getValidInsert around both totems
+     * @param blackhole - consumes the inserts
+     */
+    @Benchmark
+    public void validInserts(Blackhole blackhole) {
+        for (Oxono oxono : this.positions) {
+            Position totemO = oxono.totem_O_Pos();
+            Position totemX = oxono.totem_X_Pos();
+            blackhole.consume(oxono.getValidInsert(totemO.getRow(), totemO.getCol()));
+            blackhole.consume(oxono.getValidInsert(totemX.getRow(), totemX.getCol()));
+        }
+    }
+
+    /**
+     * Benchmarks Oxono.isValidInsert on every cell of the board
+     * @return the number of valid inserts
+     */
+    @Benchmark
+    public int isValidInsert() {
+        int valid = 0;
+        for (int i = 0; i < this.positions.length; i++) {
+            for (Position cell : this.cells) {
+                if (this.positions[i].isValidInsert(this.tokens[i], cell)) {
+                    valid++;
+                }
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Benchmarks Oxono.checkForWinner
+     * @return the number of positions with a winner
+     */
+    @Benchmark
+    public int checkForWinner() {
+        int winners = 0;
+        for (Oxono oxono : this.positions) {
+            if (oxono.checkForWinner()) {
+                winners++;
+            }
+        }
+        return winners;
+    }
+
+    /**
+     * Benchmarks Board.freeCasesLeft
+     * @return the total number of free cells
+     */
+    @Benchmark
+    public int freeCasesLeft() {
+        int free = 0;
+        for (Oxono oxono : this.positions) {
+            free += oxono.freeCasesLeft();
+        }
+        return free;
+    }
+}
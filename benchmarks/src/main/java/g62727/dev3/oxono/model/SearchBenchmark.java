@@ -0,0 +1,74 @@
+package g62727.dev3.oxono.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the search of the minimax strategy to a fixed depth on the positions of the corpus
+ * (BenchmarkPositions), taken one after the other. Every position has its own strategy and transposition table,
+ * the table being emptied before every search so no search reuses the work of the previous one
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 4)
+@Fork(1)
+public class SearchBenchmark {
+    /**
+     * Attributes of the SearchBenchmark class
+     */
+    private static final int TABLE_MEGABYTES = 4;
+    @Param({"6", "8", "10", "16"})
+    int size;
+    @Param({"3", "6"})
+    int depth;
+    private Oxono[] positions;
+    private TranspositionTable[] tables;
+    private MiniMaxStrategy[] strategies;
+    private int next;
+
+    /**
+     * Builds the corpus of positions and a strategy searching every one of them
+     */
+    @Setup
+    public void setUp() {
+        this.positions = BenchmarkPositions.positions(this.size);
+        this.tables = new TranspositionTable[this.positions.length];
+        this.strategies = new MiniMaxStrategy[this.positions.length];
+        for (int i = 0; i < this.positions.length; i++) {
+            this.tables[i] = new TranspositionTable(TABLE_MEGABYTES);
+            this.strategies[i] = new MiniMaxStrategy(SearchLimits.depth(this.depth), this.positions[i], this.tables[i]);
+        }
+    }
+
+    /**
+     * Takes the next position of the corpus and empties the table of its strategy, outside of the measured time
+     */
+    @Setup(Level.Invocation)
+    public void nextPosition() {
+        this.next = (this.next + 1) % this.positions.length;
+        this.tables[this.next].clear();
+    }
+
+    /**
+     * Benchmarks one search of the position
+     * @return the chosen turn encoded as PackedMove
+     */
+    @Benchmark
+    public int search() {
+        return this.strategies[this.next].findBestMove(this.positions[this.next].getToPlay().getColor());
+    }
+}
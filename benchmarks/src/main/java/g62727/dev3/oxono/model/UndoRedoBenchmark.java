@@ -0,0 +1,67 @@
+package g62727.dev3.oxono.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the undo and redo of the commands (CommandManager) through the game : the game of the corpus
+ * (BenchmarkPositions), 30 turns so 60 commands, is undone command by command to its start then redone to its end
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UndoRedoBenchmark {
+    /**
+     * Attributes of the UndoRedoBenchmark class
+     */
+    @Param({"6", "8", "10", "16"})
+    int size;
+    private Game game;
+
+    /**
+     * Plays the game of the corpus through the game, as the players would
+     */
+    @Setup
+    public void setUp() {
+        this.game = new Game(this.size);
+        BoardGeometry geometry = BoardGeometry.of(this.size);
+        for (int move : BenchmarkPositions.game(this.size)) {
+            Symbol symbol = PackedMove.getSymbol(move);
+            int destination = PackedMove.getDestination(move);
+            int insert = PackedMove.getInsert(move);
+            this.game.selectTotem(symbol);
+            this.game.moveTotem(this.game.findTotem(symbol), geometry.rowOf(destination), geometry.colOf(destination));
+            this.game.insertToken(geometry.rowOf(insert), geometry.colOf(insert));
+        }
+    }
+
+    /**
+     * Benchmarks undoing every command of the game then redoing them
+     * @return the number of undone and redone commands
+     */
+    @Benchmark
+    public int undoRedoGame() {
+        int commands = 0;
+        while (this.game.undoToken()) {
+            commands++;
+        }
+        while (this.game.redoTotem()) {
+            commands++;
+        }
+        return commands;
+    }
+}
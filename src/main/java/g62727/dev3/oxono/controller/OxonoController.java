@@ -111,7 +111,8 @@ public class OxonoController implements Observer {
         dialog.getDialogPane().getButtonTypes().addAll(playButtonType, ButtonType.CANCEL);
         TextField boardSize = new TextField("6");
         ComboBox<String> aiLevel = new ComboBox<>();
-        aiLevel.getItems().addAll("Facile", "Moyen", "Difficile");
+        aiLevel.getItems().addAll("Facile", "Moyen", "Difficile", "Expert (100 ms)", "Expert (1 s)", "Expert (5 s)",
+                "Expert multicœur (1 s)", "Monte Carlo (1 s)");
         aiLevel.setValue("Facile");
         GridPane grid = createConfigGrid(boardSize, aiLevel);
         dialog.getDialogPane().setContent(grid);
@@ -143,6 +144,7 @@ public class OxonoController implements Observer {
     private void setupNewGame(Pair<String, String> pair) {
         int size = Integer.parseInt(pair.getKey());
         String level = pair.getValue();
+        this.game.closeComputer();
         this.game = new Game(size);
         this.game.setComputerStrategy(getStrategyForLevel(level));
         this.game.register(this);
@@ -163,7 +165,12 @@ public class OxonoController implements Observer {
         return switch (level) {
             case "Facile" -> this.game.createRandomStrategy();
             case "Moyen" -> this.game.createWinPossibleStrategy();
-            case "Diffcile" -> this.game.createMiniMaxStrategyDepth6();
+            case "Difficile" -> this.game.createMiniMaxStrategyDepth6();
+            case "Expert (100 ms)" -> this.game.createMiniMaxStrategy100ms();
+            case "Expert (1 s)" -> this.game.createMiniMaxStrategy1s();
+            case "Expert (5 s)" -> this.game.createMiniMaxStrategy5s();
+            case "Expert multicœur (1 s)" -> this.game.createMiniMaxStrategyLazySmp1s();
+            case "Monte Carlo (1 s)" -> this.game.createMctsStrategy1s();
             default -> new RandomStrategy();
         };
     }
@@ -184,9 +191,13 @@ public class OxonoController implements Observer {
 
     /**
      * Handles cell clicks on the game board, managing totem selection, movement, and token insertion.
+     * Clicks are ignored while the computer plays its turn.
      * @param e The MouseEvent triggered by clicking a cell
      */
     private void handleCellClick(MouseEvent e) {
+        if (game.isComputerPlaying()) {
+            return;
+        }
         CellViewFx cellView = (CellViewFx) e.getSource();
         int row = GridPane.getRowIndex(cellView), col = GridPane.getColumnIndex(cellView);
         if (game.getToInsert() == null) {
@@ -207,7 +218,7 @@ public class OxonoController implements Observer {
         Pawn pawn = game.getPawnAt(new Position(row, col));
         if (pawn instanceof Totem) {
             Symbol symbol = pawn.getSymbol();
-            if (game.enoughToMoveTotem(symbol)) {
+            if (game.selectTotem(symbol)) {
                 highlightValidMoves((Totem) pawn);
                 this.view.updateMessage("Le totem " + symbol + " a été choisi");
             } else {
@@ -1,30 +1,60 @@
 package g62727.dev3.oxono.model;
 
+import java.util.Arrays;
+
 /**
  * Represents the board of the game which the action takes place in
  * Knows the current position of each totem and can return it
  * Knows basic operations like moving or inserting a pawn
  * Knows other basic operations : is the board full, is a cell empty, return the pawn of a precise cell
+ * The content of the board is stored as bitmasks (one bit per cell, cell = row * size + col) :
+ * one mask per color, one mask per symbol and one occupancy mask also containing both totems
+ * Boards larger than 8x8 simply use several 64 bits words per mask
+ * The pawns returned by getPawnAt are only a facade over those masks
  */
 public class Board {
     /**
      * Attributes of the Board class
      */
-    private Pawn[][] board;
-    private Position totemX;
-    private Position totemO;
-    static int BOARD_SIZE;
+    private long[][] colorMasks;
+    private long[][] symbolMasks;
+    private long[] occupied;
+    private Pawn[] pawns;
+    private Totem totemX;
+    private Totem totemO;
+    private int totemXCell;
+    private int totemOCell;
+    private final BoardGeometry geometry;
+    private final Zobrist zobrist;
+    private long zobristKey;
 
     /**
      * Constructor to instantiate a new board of empty cases
+     * @param size - the length/width of the board
      */
     Board(int size) {
-        BOARD_SIZE = size;
-        this.board = new Pawn[BOARD_SIZE][BOARD_SIZE];
-        this.board[(BOARD_SIZE - 1) / 2][(BOARD_SIZE - 1) / 2] = new Totem(Symbol.O);
-        this.board[((BOARD_SIZE - 1) / 2) + 1][((BOARD_SIZE - 1) / 2) + 1] = new Totem(Symbol.X);
-        this.setTotemO(new Position((BOARD_SIZE - 1) / 2, (BOARD_SIZE - 1) / 2));
-        this.setTotemX(new Position(((BOARD_SIZE - 1) / 2) + 1, ((BOARD_SIZE - 1) / 2) + 1));
+        this(BoardGeometry.of(size));
+    }
+
+    /**
+     * Constructor to instantiate a new board of empty cases with the given geometry
+     * @param geometry - the immutable geometry of the board
+     */
+    Board(BoardGeometry geometry) {
+        this.geometry = geometry;
+        int words = geometry.getWords();
+        this.colorMasks = new long[Color.values().length][words];
+        this.symbolMasks = new long[Symbol.values().length][words];
+        this.occupied = new long[words];
+        this.pawns = new Pawn[geometry.getCells()];
+        this.totemO = new Totem(Symbol.O);
+        this.totemX = new Totem(Symbol.X);
+        this.totemOCell = geometry.initialTotemCell(Symbol.O);
+        this.totemXCell = geometry.initialTotemCell(Symbol.X);
+        setBit(this.occupied, this.totemOCell);
+        setBit(this.occupied, this.totemXCell);
+        this.zobrist = geometry.getZobrist();
+        this.zobristKey = this.zobrist.totem(Symbol.O, this.totemOCell) ^ this.zobrist.totem(Symbol.X, this.totemXCell);
     }
 
     /**
@@ -32,34 +62,33 @@ public class Board {
      * @return the value of the length/width of the board
      */
     int getBoardSize() {
-        return BOARD_SIZE;
+        return this.geometry.getSize();
     }
 
     /**
-     * Setter modifying the size of the board
-     * ONLY used by the Game facade when choosing the size of the board
-     * @param boardSize - the new size of the board
+     * Getter returning the immutable geometry of the board
+     * @return the geometry of the board
      */
-    void setBoardSize(int boardSize) {
-        BOARD_SIZE = boardSize;
+    BoardGeometry getGeometry() {
+        return this.geometry;
     }
 
     /**
-     * Getter giving access to the X totem's coordinates
-     *
-     * @return the X totem's coordinates
+     * Getter returning the Zobrist key of the content of the board (tokens and totems)
+     * Kept up to date in constant time by every modification of the board
+     * @return the key of the board
      */
-    Position getTotemX() {
-        return this.totemX;
+    long getZobristKey() {
+        return this.zobristKey;
     }
 
     /**
-     * Setter modifying the position of the X totem
+     * Getter giving access to the X totem's coordinates
      *
-     * @param totemX - the new position of the X totem
+     * @return the X totem's coordinates
      */
-    private void setTotemX(Position totemX) {
-        this.totemX = totemX;
+    Position getTotemX() {
+        return new Position(rowOf(this.totemXCell), colOf(this.totemXCell));
     }
 
     /**
@@ -68,16 +97,17 @@ public class Board {
      * @return the O totem's coordinates
      */
     Position getTotemO() {
-        return this.totemO;
+        return new Position(rowOf(this.totemOCell), colOf(this.totemOCell));
     }
 
     /**
-     * Setter modifying the position of the O totem
+     * Getter giving access to the cell currently holding the totem of the given symbol
      *
-     * @param totemO - the new position of the O totem
+     * @param symbol - the symbol of the totem
+     * @return the index of the cell of the totem
      */
-    private void setTotemO(Position totemO) {
-        this.totemO = totemO;
+    int getTotemCell(Symbol symbol) {
+        return (symbol == Symbol.O) ? this.totemOCell : this.totemXCell;
     }
 
     /**
@@ -88,10 +118,10 @@ public class Board {
      * @throws IllegalArgumentException if the row or/and the column is/are out of bounds
      */
     private void checkRowCol(int row, int col) {
-        if (row < 0 || row >= BOARD_SIZE) {
+        if (row < 0 || row >= getBoardSize()) {
             throw new IllegalArgumentException("Invalid row : " + row);
         }
-        if (col < 0 || col >= BOARD_SIZE) {
+        if (col < 0 || col >= getBoardSize()) {
             throw new IllegalArgumentException("Invalid col : " + col);
         }
     }
@@ -104,11 +134,43 @@ public class Board {
      * @return true if the position is valid, false otherwise
      */
     boolean isValidPosition(int row, int col) {
-        return row >= 0 && row < BOARD_SIZE && col >= 0 && col < BOARD_SIZE;
+        return this.geometry.isValidPosition(row, col);
+    }
+
+    /**
+     * Method converting coordinates to the index of their cell in the masks
+     *
+     * @param row - the row of the cell
+     * @param col - the col of the cell
+     * @return the index of the cell
+     */
+    int cellOf(int row, int col) {
+        return this.geometry.cellOf(row, col);
+    }
+
+    /**
+     * Method returning the row of a cell index
+     *
+     * @param cell - the index of the cell
+     * @return the row of the cell
+     */
+    int rowOf(int cell) {
+        return this.geometry.rowOf(cell);
+    }
+
+    /**
+     * Method returning the col of a cell index
+     *
+     * @param cell - the index of the cell
+     * @return the col of the cell
+     */
+    int colOf(int cell) {
+        return this.geometry.colOf(cell);
     }
 
     /**
      * Method returning the pawn at a given position
+     * The tokens only inserted through the masks are materialized (once) on demand
      *
      * @param position - the position to retrieve a pawn from
      * @return the pawn at the given position
@@ -117,10 +179,20 @@ public class Board {
         int row = position.getRow();
         int col = position.getCol();
         checkRowCol(row, col);
-        if (this.board[row][col] != null) {
-            return this.board[row][col];
+        int cell = cellOf(row, col);
+        if (cell == this.totemOCell) {
+            return this.totemO;
+        }
+        if (cell == this.totemXCell) {
+            return this.totemX;
+        }
+        if (!isTokenCell(cell)) {
+            return null;
         }
-        return null;
+        if (this.pawns[cell] == null) {
+            this.pawns[cell] = new Token(getSymbolAt(cell), getColorAt(cell));
+        }
+        return this.pawns[cell];
     }
 
     /**
@@ -130,13 +202,11 @@ public class Board {
      * @return the found Totem
      */
     Totem findTotem(Symbol symbol) {
-        for (int row = 0; row < Board.BOARD_SIZE; row++) {
-            for (int col = 0; col < Board.BOARD_SIZE; col++) {
-                Pawn pawn = this.getPawnAt(new Position(row, col));
-                if (pawn instanceof Totem && pawn.getSymbol() == symbol) {
-                    return (Totem) pawn;
-                }
-            }
+        if (symbol == Symbol.O) {
+            return this.totemO;
+        }
+        if (symbol == Symbol.X) {
+            return this.totemX;
         }
         throw new IllegalStateException("Totem not found on the board");
     }
@@ -147,7 +217,26 @@ public class Board {
      * @param position - the position from which to remove the pawn
      */
     void removePawn(Position position) {
-        this.board[position.getRow()][position.getCol()] = null;
+        removeToken(cellOf(position.getRow(), position.getCol()));
+    }
+
+    /**
+     * Method removing the token of the given cell directly from the masks
+     *
+     * @param cell - the index of the cell to clear
+     */
+    void removeToken(int cell) {
+        if (isTokenCell(cell)) {
+            clearBit(this.occupied, cell);
+            this.zobristKey ^= this.zobrist.token(getColorAt(cell), getSymbolAt(cell), cell);
+        }
+        for (long[] mask : this.colorMasks) {
+            clearBit(mask, cell);
+        }
+        for (long[] mask : this.symbolMasks) {
+            clearBit(mask, cell);
+        }
+        this.pawns[cell] = null;
     }
 
     /**
@@ -160,7 +249,71 @@ public class Board {
         int row = pos.getRow();
         int col = pos.getCol();
         checkRowCol(row, col);
-        return this.board[row][col] == null;
+        return isEmptyCell(cellOf(row, col));
+    }
+
+    /**
+     * Helper method checking if a given cell holds neither a token nor a totem
+     *
+     * @param cell - the index of the cell to check
+     * @return true if the cell is empty, false otherwise
+     */
+    boolean isEmptyCell(int cell) {
+        return !hasBit(this.occupied, cell);
+    }
+
+    /**
+     * Helper method checking if a given cell holds a token
+     *
+     * @param cell - the index of the cell to check
+     * @return true if there's a token on the cell, false otherwise
+     */
+    boolean isTokenCell(int cell) {
+        return hasBit(this.colorMasks[0], cell) || hasBit(this.colorMasks[1], cell);
+    }
+
+    /**
+     * Method returning the color of the token on a given cell
+     * Only meaningful if the cell holds a token
+     *
+     * @param cell - the index of the cell
+     * @return the color of the token
+     */
+    Color getColorAt(int cell) {
+        return hasBit(this.colorMasks[Color.PINK.ordinal()], cell) ? Color.PINK : Color.BLACK;
+    }
+
+    /**
+     * Method returning the symbol of the token on a given cell
+     * Only meaningful if the cell holds a token
+     *
+     * @param cell - the index of the cell
+     * @return the symbol of the token
+     */
+    Symbol getSymbolAt(int cell) {
+        return hasBit(this.symbolMasks[Symbol.O.ordinal()], cell) ? Symbol.O : Symbol.X;
+    }
+
+    /**
+     * Helper method checking if a token of the given color lies on a cell
+     *
+     * @param cell  - the index of the cell
+     * @param color - the color to look for
+     * @return true if it's the case, false otherwise
+     */
+    boolean hasColor(int cell, Color color) {
+        return hasBit(this.colorMasks[color.ordinal()], cell);
+    }
+
+    /**
+     * Helper method checking if a token of the given symbol lies on a cell
+     *
+     * @param cell   - the index of the cell
+     * @param symbol - the symbol to look for
+     * @return true if it's the case, false otherwise
+     */
+    boolean hasSymbol(int cell, Symbol symbol) {
+        return hasBit(this.symbolMasks[symbol.ordinal()], cell);
     }
 
     /**
@@ -169,14 +322,7 @@ public class Board {
      * @return true if the board is full, false otherwise
      */
     boolean isFull() {
-        for (int row = 0; row < BOARD_SIZE; row++) {
-            for (int col = 0; col < BOARD_SIZE; col++) {
-                if (this.isEmpty(new Position(row, col))) {
-                    return false;
-                }
-            }
-        }
-        return true;
+        return freeCasesLeft() == 0;
     }
 
     /**
@@ -185,15 +331,11 @@ public class Board {
      * @return the number of free cases left on the board
      */
     int freeCasesLeft() {
-        int cpt = 0;
-        for (int row = 0; row < BOARD_SIZE; row++) {
-            for (int col = 0; col < BOARD_SIZE; col++) {
-                if (this.isEmpty(new Position(row, col))) {
-                    cpt++;
-                }
-            }
+        int taken = 0;
+        for (long word : this.occupied) {
+            taken += Long.bitCount(word);
         }
-        return cpt;
+        return this.geometry.getCells() - taken;
     }
 
     /**
@@ -205,44 +347,26 @@ public class Board {
      */
     boolean move(Totem totem, Position position) {
         checkRowCol(position.getRow(), position.getCol());
-        Symbol symbol = totem.getSymbol();
-        return moveTotemO(position, symbol, totem) || moveTotemX(position, symbol, totem);
+        moveTotem(totem.getSymbol(), cellOf(position.getRow(), position.getCol()));
+        return true;
     }
 
     /**
-     * Helper method moving the totem if its symbol is O
-     * @param position - the position to move to
-     * @param symbol - the symbol to verify
-     * @param totem - the totem to move
-     * @return true if the move was successful, false otherwise
+     * Method moving the totem of the given symbol to a new cell directly in the masks
+     *
+     * @param symbol - the symbol of the totem to move
+     * @param cell   - the index of the destination cell
      */
-    private boolean moveTotemO(Position position, Symbol symbol, Totem totem) {
+    void moveTotem(Symbol symbol, int cell) {
+        int from = getTotemCell(symbol);
+        clearBit(this.occupied, from);
+        setBit(this.occupied, cell);
+        this.zobristKey ^= this.zobrist.totem(symbol, from) ^ this.zobrist.totem(symbol, cell);
         if (symbol == Symbol.O) {
-            this.board[this.totemO.getRow()][this.totemO.getCol()] = null;
-            this.totemO.setRow(position.getRow());
-            this.totemO.setCol(position.getCol());
-            this.board[this.totemO.getRow()][this.totemO.getCol()] = totem;
-            return true;
-        }
-        return false;
-    }
-
-    /**
-     * Helper method moving the totem if its symbol is X
-     * @param position - the position to move to
-     * @param symbol - the symbol to verify
-     * @param totem - the totem to move
-     * @return true if the move was successful, false otherwise
-     */
-    private boolean moveTotemX(Position position, Symbol symbol, Totem totem) {
-        if (symbol == Symbol.X) {
-            this.board[this.totemX.getRow()][this.totemX.getCol()] = null;
-            this.totemX.setRow(position.getRow());
-            this.totemX.setCol(position.getCol());
-            this.board[this.totemX.getRow()][this.totemX.getCol()] = totem;
-            return true;
+            this.totemOCell = cell;
+        } else {
+            this.totemXCell = cell;
         }
-        return false;
     }
 
     /**
@@ -251,8 +375,7 @@ public class Board {
      * @return the correct current position of the totem according to its symbol
      */
     Position getTotemPosition(Totem totem) {
-        return (totem.getSymbol() == Symbol.O) ? new Position(totemO.getRow(), totemO.getCol())
-                                               : new Position(totemX.getRow(), totemX.getCol());
+        return (totem.getSymbol() == Symbol.O) ? getTotemO() : getTotemX();
     }
 
     /**
@@ -263,6 +386,87 @@ public class Board {
      */
     void insert(Token token, Position position) {
         checkRowCol(position.getRow(), position.getCol());
-        this.board[position.getRow()][position.getCol()] = token;
+        int cell = cellOf(position.getRow(), position.getCol());
+        insertToken(token.getSymbol(), token.getColor(), cell);
+        this.pawns[cell] = token;
+    }
+
+    /**
+     * Method inserting a token of the given symbol and color directly in the masks
+     * No Token object is created, getPawnAt will materialize it if ever needed
+     *
+     * @param symbol - the symbol of the token
+     * @param color  - the color of the token
+     * @param cell   - the index of the cell to insert the token on
+     */
+    void insertToken(Symbol symbol, Color color, int cell) {
+        removeToken(cell);
+        setBit(this.colorMasks[color.ordinal()], cell);
+        setBit(this.symbolMasks[symbol.ordinal()], cell);
+        setBit(this.occupied, cell);
+        this.zobristKey ^= this.zobrist.token(color, symbol, cell);
+    }
+
+    /**
+     * Method copying the content of another board of the same geometry : the masks, both totems and the key
+     * Only a few words are copied, the tokens of the other board are not materialized as objects
+     *
+     * @param other - the board to copy
+     */
+    void copyFrom(Board other) {
+        for (int i = 0; i < this.colorMasks.length; i++) {
+            System.arraycopy(other.colorMasks[i], 0, this.colorMasks[i], 0, this.occupied.length);
+        }
+        for (int i = 0; i < this.symbolMasks.length; i++) {
+            System.arraycopy(other.symbolMasks[i], 0, this.symbolMasks[i], 0, this.occupied.length);
+        }
+        System.arraycopy(other.occupied, 0, this.occupied, 0, this.occupied.length);
+        Arrays.fill(this.pawns, null);
+        this.totemOCell = other.totemOCell;
+        this.totemXCell = other.totemXCell;
+        this.zobristKey = other.zobristKey;
+    }
+
+    /**
+     * Method flagging the token of a cell as part of a winning alignment
+     * Only tokens that exist as objects are flagged, the ones simulated directly in the masks have no object
+     *
+     * @param cell - the index of the winning cell
+     */
+    void markWinning(int cell) {
+        if (this.pawns[cell] instanceof Token token) {
+            token.setWinning(true);
+        }
+    }
+
+    /**
+     * Helper method reading one bit of a multi-word mask
+     *
+     * @param mask - the mask to read
+     * @param cell - the index of the bit
+     * @return true if the bit is set, false otherwise
+     */
+    private static boolean hasBit(long[] mask, int cell) {
+        return (mask[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Helper method setting one bit of a multi-word mask
+     *
+     * @param mask - the mask to modify
+     * @param cell - the index of the bit
+     */
+    private static void setBit(long[] mask, int cell) {
+        mask[cell >>> 6] |= 1L << cell;
+    }
+
+    /**
+     * Helper method clearing one bit of a multi-word mask
+     *
+     * @param mask - the mask to modify
+     * @param cell - the index of the bit
+     */
+    private static void clearBit(long[] mask, int cell) {
+        mask[cell >>> 6] &= ~(1L << cell);
     }
 }
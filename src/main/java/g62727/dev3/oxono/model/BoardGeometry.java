@@ -0,0 +1,148 @@
+package g62727.dev3.oxono.model;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Represents the immutable geometry of a square board : its size and how cells are indexed
+ * A cell index is row * size + col, it is also the index of the cell's bit in the board masks
+ * Every game owns the geometry of its own board so games of different sizes never share any mutable state
+ * Instances are cached per size and can be freely shared between threads
+ */
+public final class BoardGeometry {
+    /**
+     * Attributes of the BoardGeometry class
+     */
+    private static final Map<Integer, BoardGeometry> CACHE = new ConcurrentHashMap<>();
+    private final int size;
+    private final int cells;
+    private final int words;
+    private final Zobrist zobrist;
+    private final Symmetry symmetry;
+
+    /**
+     * Constructor to instantiate the geometry of a board of the given size
+     *
+     * @param size - the length/width of the board
+     */
+    private BoardGeometry(int size) {
+        this.size = size;
+        this.cells = size * size;
+        this.words = (this.cells + 63) >>> 6;
+        this.zobrist = new Zobrist(this.cells);
+        this.symmetry = new Symmetry(this);
+    }
+
+    /**
+     * Method returning the (shared) geometry of a board of the given size
+     *
+     * @param size - the length/width of the board
+     * @return the geometry of the board
+     * @throws IllegalArgumentException if the board is too small to hold both totems next to each other
+     *                                  or too large for its cells to be encoded in a PackedMove
+     */
+    static BoardGeometry of(int size) {
+        if (size < 2 || size * size > PackedMove.MAX_CELLS) {
+            throw new IllegalArgumentException("Invalid board size : " + size);
+        }
+        return CACHE.computeIfAbsent(size, BoardGeometry::new);
+    }
+
+    /**
+     * Getter returning the length/width of the board
+     *
+     * @return the size of the board
+     */
+    int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Getter returning the number of cells of the board
+     *
+     * @return the number of cells
+     */
+    int getCells() {
+        return this.cells;
+    }
+
+    /**
+     * Getter returning the number of 64 bits words needed by a mask of the board
+     *
+     * @return the number of words of a mask
+     */
+    int getWords() {
+        return this.words;
+    }
+
+    /**
+     * Getter returning the Zobrist keys shared by every board of this size
+     *
+     * @return the Zobrist keys
+     */
+    Zobrist getZobrist() {
+        return this.zobrist;
+    }
+
+    /**
+     * Getter returning the rotations and reflections shared by every board of this size
+     *
+     * @return the symmetries of the board
+     */
+    Symmetry getSymmetry() {
+        return this.symmetry;
+    }
+
+    /**
+     * Method checking if the given coordinates are within the board boundaries
+     *
+     * @param row - the row to check
+     * @param col - the col to check
+     * @return true if the position is valid, false otherwise
+     */
+    boolean isValidPosition(int row, int col) {
+        return row >= 0 && row < this.size && col >= 0 && col < this.size;
+    }
+
+    /**
+     * Method converting coordinates to the index of their cell
+     *
+     * @param row - the row of the cell
+     * @param col - the col of the cell
+     * @return the index of the cell
+     */
+    int cellOf(int row, int col) {
+        return row * this.size + col;
+    }
+
+    /**
+     * Method returning the row of a cell index
+     *
+     * @param cell - the index of the cell
+     * @return the row of the cell
+     */
+    int rowOf(int cell) {
+        return cell / this.size;
+    }
+
+    /**
+     * Method returning the col of a cell index
+     *
+     * @param cell - the index of the cell
+     * @return the col of the cell
+     */
+    int colOf(int cell) {
+        return cell % this.size;
+    }
+
+    /**
+     * Method returning the starting cell of the totem of the given symbol, at the center of the board
+     *
+     * @param symbol - the symbol of the totem
+     * @return the index of its starting cell
+     */
+    int initialTotemCell(Symbol symbol) {
+        int center = (this.size - 1) / 2;
+        return (symbol == Symbol.O) ? cellOf(center, center) : cellOf(center + 1, center + 1);
+    }
+}
@@ -0,0 +1,314 @@
+package g62727.dev3.oxono.model;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Solves the end of a game exactly : whether the player to play wins, loses or draws with the best play of both
+ * The game is over once every token is inserted, so when few tokens (or few free cells) are left the whole tree
+ * can be searched, with only three possible scores the alpha-beta search cuts off most of it
+ * The solved positions are remembered in a transposition table of their own, and before searching the turns of a
+ * position every turn is played once to look its position up in the table : a turn leading to a known loss of the
+ * opponent cuts the position off without searching anything (enhanced transposition cutoffs)
+ * Plays and undoes the turns with Oxono.makeMove and unmakeMove on the given game, meant to be the copy of a search,
+ * not thread-safe
+ */
+public final class EndgameSolver {
+    /**
+     * Score of a won position
+     */
+    static final int WIN = 1;
+    /**
+     * Score of a drawn position
+     */
+    static final int DRAW = 0;
+    /**
+     * Score of a lost position
+     */
+    static final int LOSS = -1;
+    /**
+     * Attributes of the EndgameSolver class
+     */
+    private static final int INITIAL_BUFFER_SIZE = 256;
+    private static final int TIME_CHECK_MASK = 63;
+    private static final int ETC_MIN_PLIES = 2;
+    private final Oxono oxono;
+    private final TranspositionTable table;
+    private final MoveOrdering ordering;
+    private final int[][] moveBuffers;
+    private AtomicBoolean stop;
+    private long nodes;
+    private long nodeLimit;
+    private long deadline;
+    private boolean aborted;
+    private int value;
+    private int cutoffMove;
+
+    /**
+     * Constructor to instantiate a solver of the ends of a game
+     *
+     * @param oxono    - the game to solve the positions of
+     * @param table    - the transposition table to remember the solved positions in, used by this solver only
+     * @param maxPlies - the maximum number of turns left of the positions to solve
+     */
+    EndgameSolver(Oxono oxono, TranspositionTable table, int maxPlies) {
+        this.oxono = oxono;
+        this.table = table;
+        this.ordering = new MoveOrdering(oxono, maxPlies + 1);
+        this.moveBuffers = new int[maxPlies + 1][INITIAL_BUFFER_SIZE];
+        this.stop = new AtomicBoolean();
+    }
+
+    /**
+     * Setter giving the solver a flag another thread can raise to stop it, like its limits
+     *
+     * @param stop - the flag, read every few positions
+     */
+    void setStop(AtomicBoolean stop) {
+        this.stop = stop;
+    }
+
+    /**
+     * Method forgetting every position solved so far, for a new game
+     */
+    void clear() {
+        this.table.clear();
+        this.ordering.clear();
+    }
+
+    /**
+     * Method returning the maximum number of turns left before the game is over : every turn inserts a token,
+     * so there can't be more turns than tokens left to the players nor than free cells on the board
+     *
+     * @param oxono - the game
+     * @return the maximum number of turns left
+     */
+    static int remainingPlies(Oxono oxono) {
+        int tokens = oxono.getPink().getTokensO() + oxono.getPink().getTokensX()
+                + oxono.getBlack().getTokensO() + oxono.getBlack().getTokensX();
+        return Math.min(tokens, oxono.freeCasesLeft());
+    }
+
+    /**
+     * Getter returning the number of positions visited by the last solve
+     *
+     * @return the number of visited positions
+     */
+    long getNodes() {
+        return this.nodes;
+    }
+
+    /**
+     * Getter returning whether the last solve had to stop before the end because of its limits
+     *
+     * @return true if it was stopped, false if it solved the position
+     */
+    boolean isAborted() {
+        return this.aborted;
+    }
+
+    /**
+     * Getter returning the exact score of the position of the last solve, if it wasn't stopped
+     *
+     * @return WIN, DRAW or LOSS from the point of view of the player to play
+     */
+    int getValue() {
+        return this.value;
+    }
+
+    /**
+     * Method solving the current position for the player of the given color
+     * The position must not have more turns left than the maximum the solver was built for
+     *
+     * @param color     - the color of the player to play
+     * @param deadline  - the System.nanoTime the solve has to stop at
+     * @param nodeLimit - the maximum number of positions to visit
+     * @return a best turn encoded as PackedMove, PackedMove.NONE if the player can't play or the solve was stopped
+     */
+    int solve(Color color, long deadline, long nodeLimit) {
+        this.table.newSearch();
+        this.ordering.newSearch();
+        this.nodes = 0;
+        this.nodeLimit = nodeLimit;
+        this.deadline = deadline;
+        this.aborted = false;
+        this.oxono.setToPlay(color);
+        int count = generateMoves(color, 0);
+        if (count == 0) {
+            this.value = DRAW;
+            return PackedMove.NONE;
+        }
+        int[] moves = this.moveBuffers[0];
+        this.ordering.score(color, 0, moves, count, PackedMove.NONE);
+        int best = LOSS - 1;
+        int bestMove = PackedMove.NONE;
+        for (int i = 0; i < count && best < WIN && !this.aborted; i++) {
+            int move = this.ordering.next(0, moves, i, count);
+            int score = searchMove(move, color, 0, Math.max(best, LOSS), WIN);
+            if (score > best && !this.aborted) {
+                best = score;
+                bestMove = move;
+            }
+        }
+        if (this.aborted) {
+            return PackedMove.NONE;
+        }
+        this.value = best;
+        return bestMove;
+    }
+
+    /**
+     * Private helper method checking whether the solve has to stop because of its limits or of its stop flag
+     * @return true if the solve has to stop, false otherwise
+     */
+    private boolean outOfLimits() {
+        if (!this.aborted && (this.nodes >= this.nodeLimit || ((this.nodes & TIME_CHECK_MASK) == 0
+                && (System.nanoTime() - this.deadline > 0 || this.stop.get())))) {
+            this.aborted = true;
+        }
+        return this.aborted;
+    }
+
+    /**
+     * Private helper method solving the position (negamax alpha-beta on WIN, DRAW and LOSS)
+     * @param color - the color of the player to play
+     * @param ply - the distance from the root of the solve
+     * @param alpha - the score the player to play is already assured of
+     * @param beta - the score the opponent is already assured of
+     * @return the score of the position from the point of view of the player to play
+     */
+    private int negamax(Color color, int ply, int alpha, int beta) {
+        if (outOfLimits()) {
+            return DRAW;
+        }
+        this.nodes++;
+        long key = this.oxono.getZobristKey(color);
+        long entry = this.table.probe(key);
+        int hashMove = PackedMove.NONE;
+        if (entry != TranspositionTable.MISS) {
+            int score = TranspositionTable.scoreOf(entry);
+            int bound = TranspositionTable.boundOf(entry);
+            if (bound == TranspositionTable.EXACT
+                    || (bound == TranspositionTable.LOWER && score >= beta)
+                    || (bound == TranspositionTable.UPPER && score <= alpha)) {
+                return score;
+            }
+            hashMove = TranspositionTable.moveOf(entry);
+        }
+        int count = generateMoves(color, ply);
+        if (count == 0) {
+            return DRAW;
+        }
+        int[] moves = this.moveBuffers[ply];
+        int plies = remainingPlies(this.oxono);
+        if (plies >= ETC_MIN_PLIES) {
+            int score = enhancedCutoff(color, moves, count, beta);
+            if (score >= beta) {
+                int bound = (score == WIN) ? TranspositionTable.EXACT : TranspositionTable.LOWER;
+                this.table.store(key, plies, bound, score, this.cutoffMove);
+                return score;
+            }
+        }
+        this.ordering.score(color, ply, moves, count, hashMove);
+        int originalAlpha = alpha;
+        int best = LOSS - 1;
+        int bestMove = PackedMove.NONE;
+        for (int i = 0; i < count && !this.aborted; i++) {
+            int move = this.ordering.next(ply, moves, i, count);
+            int score = searchMove(move, color, ply, alpha, beta);
+            if (score > best) {
+                best = score;
+                bestMove = move;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+            if (alpha >= beta) {
+                this.ordering.cutoff(ply, i, move, plies);
+                break;
+            }
+        }
+        if (this.aborted) {
+            return DRAW;
+        }
+        int bound = (best <= originalAlpha) ? TranspositionTable.UPPER
+                : (best >= beta) ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+        this.table.store(key, plies, bound, best, bestMove);
+        return best;
+    }
+
+    /**
+     * Private helper method looking for a turn that cuts the position off without searching it : a turn winning
+     * at once, or leading to a position the table already knows is worth at most -beta to the opponent
+     * @param color - the color of the player to play
+     * @param moves - the turns of the position
+     * @param count - the number of turns
+     * @param beta - the score the opponent is already assured of
+     * @return the score the turn cutting the position off assures, kept in cutoffMove, LOSS - 1 if there's none
+     */
+    private int enhancedCutoff(Color color, int[] moves, int count, int beta) {
+        Color opponent = opponent(color);
+        int score = LOSS - 1;
+        for (int i = 0; i < count && score < beta; i++) {
+            int move = moves[i];
+            this.oxono.makeMove(move);
+            if (this.oxono.lastMoveWins()) {
+                score = WIN;
+            } else {
+                long entry = this.table.probe(this.oxono.getZobristKey(opponent));
+                if (entry != TranspositionTable.MISS && TranspositionTable.boundOf(entry) != TranspositionTable.LOWER) {
+                    score = -TranspositionTable.scoreOf(entry);
+                }
+            }
+            this.oxono.unmakeMove();
+            this.cutoffMove = move;
+        }
+        return score;
+    }
+
+    /**
+     * Private helper method playing a turn, solving the resulting position and undoing the turn
+     * @param move - the turn to play
+     * @param color - the color of the player playing the turn
+     * @param ply - the distance from the root of the solve
+     * @param alpha - the score the player playing the turn is already assured of
+     * @param beta - the score the opponent is already assured of
+     * @return the score of the turn from the point of view of the player playing it
+     */
+    private int searchMove(int move, Color color, int ply, int alpha, int beta) {
+        this.oxono.makeMove(move);
+        int score;
+        if (this.oxono.lastMoveWins()) {
+            score = WIN;
+        } else if (this.oxono.isDraw()) {
+            score = DRAW;
+        } else {
+            score = -negamax(opponent(color), ply + 1, -beta, -alpha);
+        }
+        this.oxono.unmakeMove();
+        return score;
+    }
+
+    /**
+     * Private helper method filling the buffer of a ply with the turns of the player of the given color
+     * @param color - the color of the player to play
+     * @param ply - the distance from the root of the solve
+     * @return the number of turns
+     */
+    private int generateMoves(Color color, int ply) {
+        int count = this.oxono.generateMoves(color, this.moveBuffers[ply]);
+        if (count > this.moveBuffers[ply].length) {
+            this.moveBuffers[ply] = new int[count];
+            count = this.oxono.generateMoves(color, this.moveBuffers[ply]);
+        }
+        return count;
+    }
+
+    /**
+     * Private helper method returning the color of the opponent
+     * @param color - the color of the player
+     * @return the color of its opponent
+     */
+    private static Color opponent(Color color) {
+        return (color == Color.PINK) ? Color.BLACK : Color.PINK;
+    }
+}
@@ -2,16 +2,18 @@ package g62727.dev3.oxono.model;
 
 import g62727.dev3.oxono.util.*;
 import javafx.animation.PauseTransition;
+import javafx.application.Platform;
 import javafx.util.Duration;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * The facade of the application
  * Represents and manages each game
  * Through the commands, knows how/when to move a totem if the action is possible, same for inserting a token
- * Makes the CPU play
+ * Makes the CPU play, in the GUI version on a background thread so the window keeps drawing while it thinks
  * Undoes/Redoes actions
  * Is observable so the views will adapt automatically
  */
@@ -20,11 +22,17 @@ public class Game implements Observable {
      * Attributes of the Game class
      * The black player represents the computer
      * The pink player represents the human
+     * The turn of the computer in progress is cancelled through its token, the thread searching it is joined
      */
     private List<Observer> observers;
     private boolean running;
     private CommandManager commandManager;
     private Oxono oxono;
+    private AtomicBoolean computerCancelled;
+    private Thread computerThread;
+    private PauseTransition computerAnimation;
+    private boolean computerPlaying;
+    private int computerCommands;
 
     /**
      * Constructor to instantiate a new game
@@ -35,6 +43,7 @@ public class Game implements Observable {
         this.running = true;
         this.commandManager = new CommandManager();
         this.observers = new ArrayList<>();
+        this.computerCancelled = new AtomicBoolean();
     }
 
     /**
@@ -111,6 +120,7 @@ public class Game implements Observable {
      * Method setting the game state to Surrender in order to let the other player win
      */
     public void surrender() {
+        stopComputer();
         this.setGameState(GameState.SURRENDER);
         this.notifyObservers();
     }
@@ -120,6 +130,7 @@ public class Game implements Observable {
      * @return the winner by forfeit
      */
     public Player surrenderFX() {
+        stopComputer();
         Player winner = (this.oxono.getToPlay() == this.oxono.getPink()) ? oxono.getBlack() : oxono.getPink();
         this.oxono.incrementScore(winner);
         this.running = false;
@@ -204,8 +215,11 @@ public class Game implements Observable {
      * @return true if it's the case, false otherwise
      */
     public boolean win() {
-        boolean won = this.oxono.checkForWinner();
+        int line = this.oxono.findWinningLine();
+        boolean won = line != PackedLine.NONE;
         if (won) {
+            stopComputer();
+            this.oxono.markWinningLine(line);
             switchPlayer();
             Player winner = this.oxono.getToPlay();
             this.oxono.incrementScore(winner);
@@ -221,6 +235,7 @@ public class Game implements Observable {
      * The score is incremented, the settings conserved (board size, AI's strategy, number of tokens)
      */
     public void revengeGame() {
+        closeComputer();
         int humanScore = this.oxono.getScore(Color.PINK);
         int cpuScore = this.oxono.getScore(Color.BLACK);
         Strategies oldStrat = this.oxono.getLastStrat();
@@ -241,11 +256,9 @@ public class Game implements Observable {
      * @return true if it's the case, false otherwise
      */
     public boolean isDraw() {
-        boolean draw = this.oxono.isFull() ||
-                ((this.oxono.getBlack().getTokensO() == 0 && this.oxono.getBlack().getTokensX() == 0)
-                        &&
-                        (this.oxono.getPink().getTokensO() == 0 && this.oxono.getPink().getTokensX() == 0));
+        boolean draw = this.oxono.isDraw();
         if (draw) {
+            stopComputer();
             this.running = false;
             this.setGameState(GameState.DRAW);
         }
@@ -261,26 +274,35 @@ public class Game implements Observable {
 
     /**
      * Method checking if the current player has the capacity to move the selected totem
+     * Has no side effect, selectTotem has to be called to choose the totem
      *
      * @param symbol - the symbol of the totem
      * @return true if the move is possible, false otherwsie
      */
-
     public boolean enoughToMoveTotem(Symbol symbol) {
         if (symbol == Symbol.O) {
-            if (this.oxono.getToPlay().getTokensO() > 0) {
-                this.oxono.setToInsert(symbol);
-                return true;
-            }
-        } else if (symbol == Symbol.X) {
-            if (this.oxono.getToPlay().getTokensX() > 0) {
-                this.oxono.setToInsert(symbol);
-                return true;
-            }
+            return this.oxono.getToPlay().getTokensO() > 0;
+        }
+        if (symbol == Symbol.X) {
+            return this.oxono.getToPlay().getTokensX() > 0;
         }
         return false;
     }
 
+    /**
+     * Method choosing the totem the current player is about to move, if they have a token of its symbol left
+     *
+     * @param symbol - the symbol of the totem
+     * @return true if the totem was chosen, false if the player has no token of its symbol left
+     */
+    public boolean selectTotem(Symbol symbol) {
+        if (!enoughToMoveTotem(symbol)) {
+            return false;
+        }
+        this.oxono.setToInsert(symbol);
+        return true;
+    }
+
     /**
      * Method finding a totem on the board according to the string representation of its symbol
      *
@@ -382,6 +404,10 @@ public class Game implements Observable {
      */
     public boolean undoTotem() {
         if (this.commandManager.canUndo() && running) {
+            if (undoComputerTurn()) {
+                return true;
+            }
+            stopComputer();
             this.commandManager.undo();
             this.commandManager.undo();
             this.commandManager.undo();
@@ -398,6 +424,10 @@ public class Game implements Observable {
      */
     public boolean undoToken() {
         if (this.commandManager.canUndo() && running) {
+            if (undoComputerTurn()) {
+                return true;
+            }
+            stopComputer();
             this.commandManager.undo();
             this.notifyObservers();
             return true;
@@ -447,7 +477,8 @@ public class Game implements Observable {
      * @return true if the CPU has played, false otherwise
      */
     public boolean computerTurn() {
-        if (this.oxono.getToPlay().getStrategy() != null && running) {
+        if (this.oxono.getToPlay().getStrategy() != null && running && !this.computerPlaying) {
+            newComputerTurn();
             Totem chosenTotem = this.oxono.getBlack().chooseTotem(this.oxono);
             chosenTotem = switchTotem(chosenTotem.getSymbol(), chosenTotem);
             this.oxono.setToInsert(chosenTotem.getSymbol());
@@ -465,21 +496,59 @@ public class Game implements Observable {
     /**
      * Method playing the CPU's turn according to the adopted strategy
      * Useful only when the game is launched in its GUI version since the other one would not create a pause transition
-     * @return true if the CPU has played, false otherwise
+     * The totem is chosen on a background thread and the turn is played back on the JavaFX thread, so the window
+     * keeps drawing while the computer thinks. The turn can be cancelled until its token is inserted
+     * @return true if the CPU has started to play, false otherwise
      */
     public boolean computerTurnFx() {
-        if (this.oxono.getToPlay().getStrategy() != null && running) {
-            Totem chosenTotem = this.oxono.getBlack().chooseTotem(this.oxono);
-            chosenTotem = switchTotem(chosenTotem.getSymbol(), chosenTotem);
-            this.oxono.setToInsert(chosenTotem.getSymbol());
-            Position totemMove = this.oxono.getBlack().chooseTotemMove(oxono, chosenTotem);
-            Totem finalChosenTotem = chosenTotem;
-            animateAIplay(finalChosenTotem, totemMove);
+        if (this.oxono.getToPlay().getStrategy() != null && running && !this.computerPlaying) {
+            Strategy strategy = this.oxono.getBlack().getStrategy();
+            Oxono game = this.oxono;
+            AtomicBoolean cancelled = newComputerTurn();
+            this.computerPlaying = true;
+            this.computerThread = Thread.ofPlatform().daemon().name("oxono-computer").start(() -> {
+                try {
+                    Totem chosenTotem = strategy.chooseTotem(game);
+                    Platform.runLater(() -> playChosenTotem(cancelled, chosenTotem));
+                } catch (RuntimeException e) {
+                    Platform.runLater(() -> playChosenTotem(cancelled, null));
+                    throw e;
+                }
+            });
             return true;
         }
         return false;
     }
 
+    /**
+     * Getter returning whether the computer is playing its turn in the GUI version, thinking or being animated
+     * @return true if it's the case, false otherwise
+     */
+    public boolean isComputerPlaying() {
+        return this.computerPlaying;
+    }
+
+    /**
+     * Private method playing on the JavaFX thread the totem the computer chose in the background
+     * Nothing is played if the turn was cancelled in the meantime
+     * @param cancelled - the token of the turn
+     * @param chosenTotem - the chosen totem, null if the search failed
+     */
+    private void playChosenTotem(AtomicBoolean cancelled, Totem chosenTotem) {
+        if (cancelled.get()) {
+            return;
+        }
+        this.computerThread = null;
+        if (chosenTotem == null) {
+            this.computerPlaying = false;
+            return;
+        }
+        chosenTotem = switchTotem(chosenTotem.getSymbol(), chosenTotem);
+        this.oxono.setToInsert(chosenTotem.getSymbol());
+        Position totemMove = this.oxono.getBlack().chooseTotemMove(oxono, chosenTotem);
+        animateAIplay(chosenTotem, totemMove);
+    }
+
     /**
      * Private method animating the move and insert played by the AI opponent player
      * @param finalChosenTotem - the totem to move for the AI
@@ -489,10 +558,12 @@ public class Game implements Observable {
         PauseTransition pauseMove = new PauseTransition(Duration.seconds(0.25));
         pauseMove.setOnFinished(event -> {
             this.moveTotem(finalChosenTotem, totemMove.getRow(), totemMove.getCol());
+            this.computerCommands++;
             this.notifyObservers();
             Position tokenInsert = this.oxono.getBlack().chooseTokenInsert(oxono, finalChosenTotem);
             animateAIinsert(tokenInsert);
         });
+        this.computerAnimation = pauseMove;
         pauseMove.play();
     }
 
@@ -503,10 +574,13 @@ public class Game implements Observable {
     private void animateAIinsert(Position tokenInsert) {
         PauseTransition pauseInsert = new PauseTransition(Duration.seconds(0.25));
         pauseInsert.setOnFinished(e -> {
+            this.computerAnimation = null;
+            this.computerPlaying = false;
             this.insertToken(tokenInsert.getRow(), tokenInsert.getCol());
             this.notifyObservers();
             this.oxono.setToInsert(null);
         });
+        this.computerAnimation = pauseInsert;
         pauseInsert.play();
     }
 
@@ -530,12 +604,101 @@ public class Game implements Observable {
         return chosenTotem;
     }
 
+    /**
+     * Method stopping whatever the computer is thinking about : the turn it's playing, which is then never played,
+     * and what it keeps thinking about in the background (pondering)
+     * Called when the game goes back in time, ends or is replaced by another one
+     * Waits for the thread searching the turn, which stops within a few positions once cancelled
+     */
+    public void stopComputer() {
+        this.computerCancelled.set(true);
+        Strategy strategy = this.oxono.getBlack().getStrategy();
+        if (strategy != null) {
+            strategy.stopThinking();
+        }
+        if (this.computerAnimation != null) {
+            this.computerAnimation.stop();
+            this.computerAnimation = null;
+        }
+        joinComputer();
+        this.computerPlaying = false;
+    }
+
+    /**
+     * Method stopping the computer for good and releasing the threads of its strategy, which can't play anymore
+     * Called before the strategy of the computer or the game itself is replaced
+     */
+    public void closeComputer() {
+        stopComputer();
+        Strategy strategy = this.oxono.getBlack().getStrategy();
+        if (strategy != null) {
+            strategy.close();
+        }
+    }
+
+    /**
+     * Private helper method giving the strategy of the computer a new cancel token for the turn it starts
+     * @return the token of the turn
+     */
+    private AtomicBoolean newComputerTurn() {
+        this.computerCancelled = new AtomicBoolean();
+        this.computerCommands = 0;
+        this.oxono.getBlack().getStrategy().setCancelToken(this.computerCancelled);
+        return this.computerCancelled;
+    }
+
+    /**
+     * Private helper method waiting for the end of the thread searching the turn of the computer, if any
+     */
+    private void joinComputer() {
+        if (this.computerThread == null) {
+            return;
+        }
+        boolean interrupted = false;
+        while (this.computerThread.isAlive()) {
+            try {
+                this.computerThread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        this.computerThread = null;
+    }
+
+    /**
+     * Private helper method undoing the turn the computer is playing, if any, and the last turn of the human player
+     * so the human player has to choose a totem again
+     * @return true if the computer was playing, false otherwise
+     */
+    private boolean undoComputerTurn() {
+        if (!this.computerPlaying) {
+            return false;
+        }
+        int commands = this.computerCommands + 2;
+        stopComputer();
+        for (int i = 0; i < commands && this.commandManager.canUndo(); i++) {
+            this.commandManager.undo();
+        }
+        this.oxono.setToInsert(null);
+        this.notifyObservers();
+        return true;
+    }
+
     /**
      * Setter modifying the strategy to adopt by the CPU to play along with
+     * The previous strategy is closed, its threads being released
      *
      * @param strategy - the strategy to adopt
      */
     public void setComputerStrategy(Strategy strategy) {
+        if (this.oxono.getBlack().getStrategy() == strategy) {
+            stopComputer();
+        } else {
+            closeComputer();
+        }
         this.oxono.getBlack().setStrategy(strategy);
     }
 
@@ -576,7 +739,7 @@ public class Game implements Observable {
      */
     private Strategy createStrategy(Strategies strategy) {
         this.oxono.setLastStrat(strategy);
-        return strategy.createStrategy(this, this.oxono);
+        return strategy.createStrategy(this.oxono);
     }
 
     /**
@@ -602,4 +765,44 @@ public class Game implements Observable {
     public Strategy createMiniMaxStrategyDepth6() {
         return this.createStrategy(Strategies.MINIMAX_DEPTH_6);
     }
+
+    /**
+     * Method instantiating a new MiniMaxStrategy searching for 100 milliseconds assigned to the AI player
+     * @return the newly creating minimax strategy
+     */
+    public Strategy createMiniMaxStrategy100ms() {
+        return this.createStrategy(Strategies.MINIMAX_100_MS);
+    }
+
+    /**
+     * Method instantiating a new MiniMaxStrategy searching for 1 second assigned to the AI player
+     * @return the newly creating minimax strategy
+     */
+    public Strategy createMiniMaxStrategy1s() {
+        return this.createStrategy(Strategies.MINIMAX_1_S);
+    }
+
+    /**
+     * Method instantiating a new MiniMaxStrategy searching for 5 seconds assigned to the AI player
+     * @return the newly creating minimax strategy
+     */
+    public Strategy createMiniMaxStrategy5s() {
+        return this.createStrategy(Strategies.MINIMAX_5_S);
+    }
+
+    /**
+     * Method instantiating a new MiniMaxStrategy searching for 1 second on every processor assigned to the AI player
+     * @return the newly creating minimax strategy
+     */
+    public Strategy createMiniMaxStrategyLazySmp1s() {
+        return this.createStrategy(Strategies.MINIMAX_LAZY_SMP_1_S);
+    }
+
+    /**
+     * Method instantiating a new MctsStrategy playing random games for 1 second assigned to the AI player
+     * @return the newly creating Monte Carlo tree search strategy
+     */
+    public Strategy createMctsStrategy1s() {
+        return this.createStrategy(Strategies.MCTS_1_S);
+    }
 }
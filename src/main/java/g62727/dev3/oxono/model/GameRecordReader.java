@@ -0,0 +1,235 @@
+package g62727.dev3.oxono.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the records of games (RecordedGame) of a file one after the other, without loading the whole file
+ * The file is read through a FileChannel in a buffer of fixed size, refilled once its records are read, and the
+ * reader is a cursor on the current record : its header and turns are read straight from the buffer, so going
+ * through millions of games allocates nothing unless the games are asked as RecordedGame
+ * Usage : GameRecordReader [files]
+ */
+public final class GameRecordReader implements Closeable {
+    /**
+     * Attributes of the GameRecordReader class
+     */
+    private static final int DEFAULT_BUFFER_BYTES = 1 << 20;
+    private final Path path;
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private int offset;
+    private int recordBytes;
+    private boolean endOfFile;
+
+    /**
+     * Private constructor reading a file whose header was checked
+     * @param path - the file
+     * @param channel - the channel of the file, positioned after its header
+     * @param bufferBytes - the size of the buffer
+     */
+    private GameRecordReader(Path path, FileChannel channel, int bufferBytes) {
+        this.path = path;
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(bufferBytes);
+        this.buffer.limit(0);
+    }
+
+    /**
+     * Entry point reading files of game records and printing their number of games, of wins of each color and of
+     * draws, and the speed of the reading
+     * @param args - the files to read
+     * @throws IOException if a file can't be read
+     */
+    public static void main(String[] args) throws IOException {
+        long start = System.nanoTime();
+        long games = 0;
+        long plies = 0;
+        long[] results = new long[3];
+        for (String file : args) {
+            try (GameRecordReader reader = open(Path.of(file))) {
+                while (reader.next()) {
+                    games++;
+                    plies += reader.getPlies();
+                    Color winner = reader.getWinner();
+                    results[(winner == null) ? 0 : (winner == Color.PINK) ? 1 : 2]++;
+                }
+            }
+        }
+        long nanos = Math.max(1, System.nanoTime() - start);
+        System.out.printf("%d games, %d plies, pink %d, black %d, draws %d, read in %.1f ms (%.0f games/s)%n",
+                games, plies, results[1], results[2], results[0], nanos / 1e6, games * 1e9 / nanos);
+    }
+
+    /**
+     * Method opening a file of game records
+     *
+     * @param path - the file
+     * @return the reader, before the first game
+     * @throws IOException if the file can't be read
+     * @throws IllegalArgumentException if the file isn't a file of game records
+     */
+    static GameRecordReader open(Path path) throws IOException {
+        return open(path, DEFAULT_BUFFER_BYTES);
+    }
+
+    /**
+     * Method opening a file of game records with a buffer of the given size
+     *
+     * @param path        - the file
+     * @param bufferBytes - the size of the buffer, larger than any record
+     * @return the reader, before the first game
+     * @throws IOException if the file can't be read
+     * @throws IllegalArgumentException if the file isn't a file of game records
+     */
+    static GameRecordReader open(Path path, int bufferBytes) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            if (!hasHeader(channel)) {
+                throw new IllegalArgumentException("Not a file of game records : " + path);
+            }
+            return new GameRecordReader(path, channel, bufferBytes);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Method checking whether a file starts with the header of the files of game records
+     *
+     * @param path - the file
+     * @return true if it's the case, false otherwise
+     * @throws IOException if the file can't be read
+     */
+    static boolean isGameRecords(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return hasHeader(channel);
+        }
+    }
+
+    /**
+     * Method moving to the next game of the file
+     *
+     * @return true if there's a next game, false at the end of the file
+     * @throws IOException if the file can't be read
+     * @throws IllegalArgumentException if the file ends in the middle of a record
+     */
+    boolean next() throws IOException {
+        this.offset += this.recordBytes;
+        this.recordBytes = 0;
+        if (!ensure(RecordedGame.HEADER_BYTES)) {
+            return false;
+        }
+        int bytes = RecordedGame.HEADER_BYTES + RecordedGame.pliesAt(this.buffer, this.offset)
+                * RecordedGame.moveBytes(RecordedGame.sizeAt(this.buffer, this.offset));
+        if (!ensure(bytes)) {
+            throw new IllegalArgumentException("Truncated file of game records : " + this.path);
+        }
+        this.recordBytes = bytes;
+        return true;
+    }
+
+    /**
+     * Getter returning the size of the board of the current game
+     * @return the size of the board
+     */
+    int getSize() {
+        return RecordedGame.sizeAt(this.buffer, this.offset);
+    }
+
+    /**
+     * Getter returning the color of the winner of the current game
+     * @return the color, null for a draw
+     */
+    Color getWinner() {
+        return RecordedGame.winnerAt(this.buffer, this.offset);
+    }
+
+    /**
+     * Getter returning the number of plies of the current game
+     * @return the number of plies
+     */
+    int getPlies() {
+        return RecordedGame.pliesAt(this.buffer, this.offset);
+    }
+
+    /**
+     * Getter returning a turn of the current game
+     * @param ply - the index of the turn, from 0
+     * @return the turn encoded as PackedMove
+     */
+    int getMove(int ply) {
+        return RecordedGame.moveAt(this.buffer, this.offset, getSize(), ply);
+    }
+
+    /**
+     * Method reading the whole current game
+     *
+     * @return the game
+     * @throws IllegalArgumentException if the size of the board of the record is invalid
+     */
+    RecordedGame getGame() {
+        return RecordedGame.readFrom(this.buffer, this.offset);
+    }
+
+    /**
+     * Closes the file
+     * @throws IOException if the file can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    /**
+     * Private helper method making sure the given number of bytes from the current record are in the buffer, moving
+     * the current record to the start of the buffer and reading more of the file if needed
+     * @param bytes - the number of bytes
+     * @return true if they are, false if the file ends before any byte of them
+     * @throws IOException if the file can't be read
+     * @throws IllegalArgumentException if the file ends in the middle of them or they don't fit in the buffer
+     */
+    private boolean ensure(int bytes) throws IOException {
+        if (this.buffer.limit() - this.offset >= bytes) {
+            return true;
+        }
+        if (bytes > this.buffer.capacity()) {
+            throw new IllegalArgumentException("Record larger than the buffer in " + this.path);
+        }
+        this.buffer.position(this.offset);
+        this.buffer.compact();
+        this.offset = 0;
+        while (this.buffer.position() < bytes && !this.endOfFile) {
+            this.endOfFile = this.channel.read(this.buffer) < 0;
+        }
+        this.buffer.flip();
+        if (this.buffer.limit() >= bytes) {
+            return true;
+        }
+        if (this.buffer.limit() == 0) {
+            return false;
+        }
+        throw new IllegalArgumentException("Truncated file of game records : " + this.path);
+    }
+
+    /**
+     * Private helper method reading the header of a file and checking it's the one of the files of game records
+     * @param channel - the channel of the file, at its start
+     * @return true if it's the case, false otherwise
+     * @throws IOException if the file can't be read
+     */
+    private static boolean hasHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(RecordedGame.FILE_HEADER_BYTES);
+        int read = 0;
+        while (header.hasRemaining() && read >= 0) {
+            read = channel.read(header);
+        }
+        return !header.hasRemaining() && header.getInt(0) == RecordedGame.MAGIC
+                && header.getInt(4) == RecordedGame.VERSION;
+    }
+}
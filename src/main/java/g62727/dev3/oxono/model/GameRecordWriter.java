@@ -0,0 +1,216 @@
+package g62727.dev3.oxono.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Appends the records of games (RecordedGame) to a set of files, the shards, from as many threads as needed
+ * Every thread writes to the shard picked by its id, so threads rarely wait for each other, and every shard gathers
+ * its records in its own buffer, written to its file through a FileChannel once full and when the writer is closed
+ * A shard is guarded by a lock rather than a synchronized block so the virtual threads waiting for it don't hold
+ * their carrier thread while it's written
+ * The shards are named "[prefix]-[index].oxgr" and the records are appended to the existing ones. The header of a
+ * file is written as soon as the writer creating it opens it, so another writer opening it then appends to it
+ */
+public final class GameRecordWriter implements Closeable {
+    /**
+     * Extension of the files of game records
+     */
+    static final String EXTENSION = ".oxgr";
+    /**
+     * Attributes of the GameRecordWriter class
+     */
+    private static final int BUFFER_BYTES = 1 << 18;
+    private final Shard[] shards;
+
+    /**
+     * Constructor opening the shards in the given directory, created if needed
+     * @param directory - the directory of the shards
+     * @param prefix - the start of the name of the shards
+     * @param shards - the number of shards
+     * @throws IOException if a shard can't be opened or isn't a file of game records
+     * @throws IllegalArgumentException if the number of shards isn't strictly positive
+     */
+    GameRecordWriter(Path directory, String prefix, int shards) throws IOException {
+        if (shards <= 0) {
+            throw new IllegalArgumentException("Invalid number of shards : " + shards);
+        }
+        Files.createDirectories(directory);
+        this.shards = new Shard[shards];
+        try {
+            for (int i = 0; i < shards; i++) {
+                this.shards[i] = new Shard(directory.resolve(String.format("%s-%03d%s", prefix, i, EXTENSION)));
+            }
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Method listing the shards written by a writer with the given prefix in the given directory
+     *
+     * @param directory - the directory of the shards
+     * @param prefix    - the start of the name of the shards
+     * @return the paths of the shards, sorted by name
+     * @throws IOException if the directory can't be listed
+     */
+    static List<Path> shards(Path directory, String prefix) throws IOException {
+        List<Path> paths = new ArrayList<>();
+        try (var stream = Files.newDirectoryStream(directory, prefix + "-*" + EXTENSION)) {
+            stream.forEach(paths::add);
+        }
+        paths.sort(null);
+        return paths;
+    }
+
+    /**
+     * Method appending the record of a game to the shard of the calling thread
+     *
+     * @param game - the game
+     * @throws IOException if the shard can't be written
+     */
+    void write(RecordedGame game) throws IOException {
+        Shard shard = this.shards[(int) (Thread.currentThread().threadId() % this.shards.length)];
+        shard.lock.lock();
+        try {
+            if (shard.buffer.remaining() < game.recordBytes()) {
+                shard.flush();
+            }
+            game.writeTo(shard.buffer);
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * Method writing the records still in the buffers to their shards
+     * @throws IOException if a shard can't be written
+     */
+    void flush() throws IOException {
+        for (Shard shard : this.shards) {
+            shard.lock.lock();
+            try {
+                shard.flush();
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Writes the records still in the buffers and closes the shards
+     * @throws IOException if a shard can't be written or closed
+     */
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (Shard shard : this.shards) {
+            if (shard == null) {
+                continue;
+            }
+            shard.lock.lock();
+            try {
+                shard.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Represents one file of the writer, its buffer and the lock guarding them
+     */
+    private static final class Shard {
+        /**
+         * Attributes of the Shard class
+         */
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private final ReentrantLock lock;
+
+        /**
+         * Constructor opening a shard, creating the file with its header if it doesn't exist
+         * @param path - the file of the shard
+         * @throws IOException if the file can't be opened or isn't a file of game records
+         */
+        private Shard(Path path) throws IOException {
+            this.channel = open(path);
+            this.buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+            this.lock = new ReentrantLock();
+        }
+
+        /**
+         * Private helper method opening the file of a shard to append to it
+         * A new file is created and its header written at once, so no other writer sees it without its header
+         * @param path - the file of the shard
+         * @return the channel of the file
+         * @throws IOException if the file can't be opened or isn't a file of game records
+         */
+        private static FileChannel open(Path path) throws IOException {
+            FileChannel channel;
+            try {
+                channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE,
+                        StandardOpenOption.APPEND);
+            } catch (FileAlreadyExistsException e) {
+                if (!GameRecordReader.isGameRecords(path)) {
+                    throw new IOException("Not a file of game records : " + path);
+                }
+                return FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            }
+            try {
+                ByteBuffer header = ByteBuffer.allocate(RecordedGame.FILE_HEADER_BYTES)
+                        .putInt(RecordedGame.MAGIC).putInt(RecordedGame.VERSION).flip();
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+                return channel;
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        /**
+         * Private helper method writing the buffer to the file and emptying it
+         * @throws IOException if the file can't be written
+         */
+        private void flush() throws IOException {
+            this.buffer.flip();
+            while (this.buffer.hasRemaining()) {
+                this.channel.write(this.buffer);
+            }
+            this.buffer.clear();
+        }
+
+        /**
+         * Private helper method writing the buffer to the file and closing it
+         * @throws IOException if the file can't be written or closed
+         */
+        private void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                this.channel.close();
+            }
+        }
+    }
+}
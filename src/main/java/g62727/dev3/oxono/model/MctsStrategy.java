@@ -0,0 +1,444 @@
+package g62727.dev3.oxono.model;
+
+import g62727.dev3.oxono.util.Strategy;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implements a strategy for the Oxono game playing random games to the end (Monte Carlo tree search)
+ * Every iteration walks down the tree of the turns already tried, picking the turn with the best balance between
+ * its results and how rarely it was tried (UCT), adds the turns of the position it ends in, then plays random turns
+ * until the game is over and counts the result in every position of the walk. The most tried turn is played
+ * Unlike the minimax search, the cost of an iteration barely depends on the number of turns of a position, so it
+ * keeps playing sensibly on large boards where a totem can go anywhere
+ * The tree is stored in flat arrays allocated once and shared by all the threads, every thread plays on its own
+ * copy of the position taken at the start of the search, so the iterations don't allocate anything and the game
+ * itself is never touched. A thread walking through a turn counts it as lost
+ * until its result is known (virtual loss), so the other threads explore other turns meanwhile
+ */
+public class MctsStrategy implements Strategy {
+    /**
+     * Attributes of the MctsStrategy class
+     */
+    private static final int DEFAULT_CAPACITY = 1 << 19;
+    private static final int INITIAL_BUFFER_SIZE = 256;
+    private static final int UNEXPANDED = -1;
+    private static final int EXPANDING = -2;
+    private static final int WIN = 2;
+    private static final int DRAW = 1;
+    private static final double EXPLORATION = 1.0;
+    private final Oxono oxono;
+    private final Oxono position;
+    private final SearchLimits limits;
+    private final int threads;
+    private final int[] nodeMoves;
+    private final int[] firstChildren;
+    private final AtomicIntegerArray childCounts;
+    private final AtomicIntegerArray visits;
+    private final AtomicIntegerArray results;
+    private final AtomicIntegerArray virtualLosses;
+    private final AtomicInteger nodeCount;
+    private final AtomicLong searchPlayouts;
+    private AtomicBoolean cancelled;
+    private Worker[] workers;
+    private ForkJoinPool pool;
+    private long playouts;
+    private long seed;
+    private Totem totem;
+    private Position positionTotem;
+    private Position positionToken;
+
+    /**
+     * Constructs a new MctsStrategy searching under the given limits on a single thread
+     * @param limits - the limits of every search, the number of nodes being the number of random games
+     * @param oxono - the game rules
+     */
+    MctsStrategy(SearchLimits limits, Oxono oxono) {
+        this(limits, oxono, 1, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a new MctsStrategy searching under the given limits with several threads sharing the same tree
+     * @param limits - the limits of every search, the number of nodes being the number of random games
+     * @param oxono - the game rules
+     * @param threads - the number of threads searching
+     * @param capacity - the maximum number of positions of the tree
+     * @throws IllegalArgumentException if the number of threads or the capacity isn't strictly positive
+     */
+    MctsStrategy(SearchLimits limits, Oxono oxono, int threads, int capacity) {
+        if (threads <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("Invalid threads or capacity : " + threads + ", " + capacity);
+        }
+        this.oxono = oxono;
+        this.position = oxono.copy();
+        this.limits = limits;
+        this.threads = threads;
+        this.nodeMoves = new int[capacity];
+        this.firstChildren = new int[capacity];
+        this.childCounts = new AtomicIntegerArray(capacity);
+        this.visits = new AtomicIntegerArray(capacity);
+        this.results = new AtomicIntegerArray(capacity);
+        this.virtualLosses = new AtomicIntegerArray(capacity);
+        this.nodeCount = new AtomicInteger();
+        this.searchPlayouts = new AtomicLong();
+        this.cancelled = new AtomicBoolean();
+    }
+
+    /**
+     * Chooses the totem of the most tried turn of the search
+     * The position of the totem and of the token of that turn are kept for the next calls
+     * @param oxono - the game rules
+     * @return the totem to move
+     */
+    @Override
+    public Totem chooseTotem(Oxono oxono) {
+        int bestMove = findBestMove(oxono.getToPlay().getColor());
+        Move move = PackedMove.toMove(bestMove, this.oxono);
+        this.totem = move.getTotem();
+        this.positionTotem = move.getTotemPos();
+        this.positionToken = move.getTokenPos();
+        return this.totem;
+    }
+
+    /**
+     * Returns the position of the totem of the turn found by chooseTotem
+     * @param oxono - the game rules
+     * @param totem - the totem to move
+     * @return the new position of the totem
+     */
+    @Override
+    public Position chooseTotemMove(Oxono oxono, Totem totem) {
+        return this.positionTotem;
+    }
+
+    /**
+     * Returns the position of the token of the turn found by chooseTotem
+     * @param oxono - the game rules
+     * @param totem - the moved totem
+     * @return the position to insert the token on
+     */
+    @Override
+    public Position chooseTokenInsert(Oxono oxono, Totem totem) {
+        return this.positionToken;
+    }
+
+    /**
+     * Setter giving the search the token cancelling it, read after every random game
+     * @param cancelled - the token, set to true to cancel the turn
+     */
+    @Override
+    public void setCancelToken(AtomicBoolean cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    /**
+     * Restarts the random generators of the threads from the given seed, the tree being built again by every search
+     * anyway, so the next game is searched as by a new strategy
+     * @param seed - the seed of the random choices of the new game
+     */
+    @Override
+    public void newGame(long seed) {
+        this.seed = seed;
+        if (this.workers != null) {
+            seedWorkers();
+        }
+    }
+
+    /**
+     * Stops the threads of the search
+     */
+    @Override
+    public void close() {
+        if (this.pool != null) {
+            this.pool.shutdown();
+        }
+    }
+
+    /**
+     * Getter returning the number of random games played by the searches of this strategy
+     * @return the number of random games
+     */
+    long getPlayouts() {
+        return this.playouts;
+    }
+
+    /**
+     * Method searching the best turn for the player of the given color
+     * Iterates until the time or the number of random games of the limits is reached, at least once
+     * The turns of the root are added to the tree before the first iteration, so a legal turn is returned however
+     * early the search is stopped
+     * @param color - the color of the player to play
+     * @return the most tried turn of the root encoded as PackedMove, PackedMove.NONE if the player can't play at all
+     */
+    int findBestMove(Color color) {
+        this.nodeCount.set(1);
+        this.childCounts.set(0, UNEXPANDED);
+        this.visits.set(0, 0);
+        this.results.set(0, 0);
+        this.virtualLosses.set(0, 0);
+        this.searchPlayouts.set(0);
+        this.position.copyPosition(this.oxono);
+        this.position.setToPlay(color);
+        long deadline = (this.limits.getMillis() == SearchLimits.UNLIMITED)
+                ? Long.MAX_VALUE : System.nanoTime() + this.limits.getMillis() * 1_000_000;
+        if (this.workers == null) {
+            this.workers = new Worker[this.threads];
+            for (int i = 0; i < this.threads; i++) {
+                this.workers[i] = new Worker(this.position.copy());
+            }
+            seedWorkers();
+            if (this.threads > 1) {
+                this.pool = new ForkJoinPool(this.threads - 1);
+            }
+        }
+        Worker first = this.workers[0];
+        first.game.copyPosition(this.position);
+        int count = expand(first, 0, color);
+        if (count == 0) {
+            return PackedMove.NONE;
+        }
+        if (count == EXPANDING) {
+            return first.moves[first.random.nextInt(first.generateMoves(color))];
+        }
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[this.threads - 1];
+        for (int i = 0; i < tasks.length; i++) {
+            Worker worker = this.workers[i + 1];
+            tasks[i] = this.pool.submit(() -> search(worker, color, deadline));
+        }
+        search(first, color, deadline);
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+        this.playouts += this.searchPlayouts.get();
+        return mostVisitedMove();
+    }
+
+    /**
+     * Private helper method giving every thread its own random generator, split in turn from a generator of the seed
+     */
+    private void seedWorkers() {
+        SplittableRandom random = new SplittableRandom(this.seed);
+        for (Worker worker : this.workers) {
+            worker.random = random.split();
+        }
+    }
+
+    /**
+     * Private helper method iterating on one thread until a limit of the search is reached
+     * @param worker - the state of the thread
+     * @param color - the color of the player to play
+     * @param deadline - the time the search has to stop at, in nanoseconds
+     */
+    private void search(Worker worker, Color color, long deadline) {
+        do {
+            iterate(worker, color);
+        } while (this.searchPlayouts.incrementAndGet() < this.limits.getNodes() && System.nanoTime() - deadline < 0
+                && !this.cancelled.get());
+    }
+
+    /**
+     * Private helper method returning the most tried turn of the root
+     * @return the turn encoded as PackedMove, PackedMove.NONE if the root has none
+     */
+    private int mostVisitedMove() {
+        int count = this.childCounts.get(0);
+        int best = PackedMove.NONE;
+        int bestVisits = -1;
+        for (int i = 0; i < count; i++) {
+            int child = this.firstChildren[0] + i;
+            if (this.visits.get(child) > bestVisits) {
+                bestVisits = this.visits.get(child);
+                best = this.nodeMoves[child];
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Private helper method playing one iteration : walking down the tree, expanding the position reached, playing
+     * a random game from it and counting its result along the walk
+     * @param worker - the state of the thread
+     * @param color - the color of the player to play at the root
+     */
+    private void iterate(Worker worker, Color color) {
+        Oxono game = worker.game;
+        game.copyPosition(this.position);
+        int node = 0;
+        int length = 0;
+        worker.path[length++] = node;
+        this.virtualLosses.incrementAndGet(node);
+        Color toPlay = color;
+        Color winner = null;
+        boolean over = false;
+        while (!over) {
+            int count = this.childCounts.get(node);
+            if (count == UNEXPANDED && this.visits.get(node) > 0
+                    && this.childCounts.compareAndSet(node, UNEXPANDED, EXPANDING)) {
+                count = expand(worker, node, toPlay);
+            }
+            if (count < 0) {
+                break;
+            }
+            if (count == 0) {
+                over = true;
+                break;
+            }
+            node = select(node, count, worker.random);
+            if (length == worker.path.length) {
+                worker.path = Arrays.copyOf(worker.path, 2 * length);
+            }
+            worker.path[length++] = node;
+            this.virtualLosses.incrementAndGet(node);
+            int move = this.nodeMoves[node];
+            game.makeMove(move);
+            if (game.lastMoveWins()) {
+                winner = toPlay;
+                over = true;
+            } else if (game.isDraw()) {
+                over = true;
+            }
+            toPlay = (toPlay == Color.PINK) ? Color.BLACK : Color.PINK;
+        }
+        if (!over) {
+            winner = playout(worker, toPlay);
+        }
+        Color mover = (length % 2 == 0) ? color : ((color == Color.PINK) ? Color.BLACK : Color.PINK);
+        for (int i = length - 1; i >= 0; i--) {
+            int visited = worker.path[i];
+            this.results.addAndGet(visited, (winner == null) ? DRAW : (winner == mover) ? WIN : 0);
+            this.visits.incrementAndGet(visited);
+            this.virtualLosses.decrementAndGet(visited);
+            mover = (mover == Color.PINK) ? Color.BLACK : Color.PINK;
+        }
+    }
+
+    /**
+     * Private helper method adding the turns of a position to the tree, only one thread expands a given position
+     * When the tree is full the position stays a leaf and every iteration reaching it plays a random game from it
+     * @param worker - the state of the thread
+     * @param node - the index of the position in the tree
+     * @param toPlay - the color of the player to play in the position
+     * @return the number of turns of the position, EXPANDING if the tree is full
+     */
+    private int expand(Worker worker, int node, Color toPlay) {
+        int count = worker.generateMoves(toPlay);
+        if (this.nodeCount.get() + count > this.nodeMoves.length) {
+            return EXPANDING;
+        }
+        int first = this.nodeCount.getAndAdd(count);
+        if (first + count > this.nodeMoves.length) {
+            return EXPANDING;
+        }
+        for (int i = 0; i < count; i++) {
+            int child = first + i;
+            this.nodeMoves[child] = worker.moves[i];
+            this.childCounts.set(child, UNEXPANDED);
+            this.visits.set(child, 0);
+            this.results.set(child, 0);
+            this.virtualLosses.set(child, 0);
+        }
+        this.firstChildren[node] = first;
+        this.childCounts.set(node, count);
+        return count;
+    }
+
+    /**
+     * Private helper method picking the child of a position with the best upper confidence bound (UCT)
+     * The untried children come first, starting from a random one so the threads don't all pick the same
+     * @param node - the index of the position in the tree
+     * @param count - the number of children of the position
+     * @param random - the random generator of the thread
+     * @return the index of the picked child
+     */
+    private int select(int node, int count, SplittableRandom random) {
+        int first = this.firstChildren[node];
+        int start = random.nextInt(count);
+        double logParent = Math.log(Math.max(1, this.visits.get(node) + this.virtualLosses.get(node)));
+        int best = first + start;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            int child = first + (start + i) % count;
+            int tries = this.visits.get(child) + this.virtualLosses.get(child);
+            if (tries == 0) {
+                return child;
+            }
+            double value = this.results.get(child) / (2.0 * tries) + EXPLORATION * Math.sqrt(logParent / tries);
+            if (value > bestValue) {
+                bestValue = value;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Private helper method playing random turns until the game is over
+     * @param worker - the state of the thread
+     * @param toPlay - the color of the player to play first
+     * @return the color of the winner, null if the game ends in a draw
+     */
+    private static Color playout(Worker worker, Color toPlay) {
+        Oxono game = worker.game;
+        while (true) {
+            int count = worker.generateMoves(toPlay);
+            if (count == 0) {
+                return null;
+            }
+            int move = worker.moves[worker.random.nextInt(count)];
+            game.makeMove(move);
+            if (game.lastMoveWins()) {
+                return toPlay;
+            }
+            if (game.isDraw()) {
+                return null;
+            }
+            toPlay = (toPlay == Color.PINK) ? Color.BLACK : Color.PINK;
+        }
+    }
+
+    /**
+     * Represents the state owned by one thread of the search : its copy of the game, its buffers and its random
+     * generator
+     */
+    private static final class Worker {
+        /**
+         * Attributes of the Worker class
+         */
+        private final Oxono game;
+        private SplittableRandom random;
+        private int[] moves;
+        private int[] path;
+
+        /**
+         * Constructor to instantiate the state of a thread, its random generator being given by seedWorkers
+         * @param game - the copy of the game the thread plays in
+         */
+        private Worker(Oxono game) {
+            this.game = game;
+            this.moves = new int[INITIAL_BUFFER_SIZE];
+            this.path = new int[INITIAL_BUFFER_SIZE];
+        }
+
+        /**
+         * Method filling the buffer with the turns of the player of the given color
+         * The buffer grows when it is too small, which only happens during the first iterations
+         * @param color - the color of the player to play
+         * @return the number of turns
+         */
+        private int generateMoves(Color color) {
+            int count = this.game.generateMoves(color, this.moves);
+            if (count > this.moves.length) {
+                this.moves = new int[count];
+                count = this.game.generateMoves(color, this.moves);
+            }
+            return count;
+        }
+    }
+}
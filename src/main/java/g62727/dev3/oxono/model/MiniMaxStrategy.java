@@ -2,232 +2,1173 @@ package g62727.dev3.oxono.model;
 
 import g62727.dev3.oxono.util.Strategy;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Implements a strategy for the Oxono game looking turns ahead (alpha-beta minimax)
+ * The search deepens one turn at a time until its limits (depth, time or number of positions) are reached and
+ * plays the best turn of the last depth it fully searched
+ * The search plays and undoes the turns, encoded as PackedMove, with Oxono.makeMove and unmakeMove on its own copy
+ * of the game, taken at the start of every search, so the game itself is never touched while searching
+ * Every ply owns its own move buffer so, once the buffers reached their size, the search doesn't allocate anything
+ * The results are remembered in a transposition table so positions reached through different orders of turns
+ * are only searched once, and the turns are ordered (MoveOrdering) so the cutoffs happen as soon as possible
+ * Only the first turn of a position is searched with the full window, the others are first searched with a null
+ * window (principal variation search), the late quiet ones one or two turns shallower (late move reductions), and
+ * searched again when they turn out better. Each iteration starts with a narrow window around the previous score
+ * (aspiration window), widened when the score falls outside
+ * The positions of an OpeningBook are played at once, without searching
+ * Once few turns are left before the end of the game, the position is solved exactly by an EndgameSolver instead
+ * The positions at the horizon are scored by a PatternEvaluator kept up to date as the turns are played and undone
+ * With several threads, every worker owns its own copy of the game and of the search state, and either the turns
+ * of the root are shared between the workers once the first turn set the score to beat, or every worker deepens on
+ * its own and they only help each other through the transposition table (ParallelSearch)
+ * With pondering, once the turn is chosen the search goes on in the background on the position after the reply
+ * the opponent is expected to play, until the opponent actually plays : the pondered turn is played at once if the
+ * opponent played the expected reply, otherwise the search starts from a transposition table already filled
+ * Every search is described by SearchStatistics given to the SearchListener of the strategy and recorded as a
+ * SearchEvent, and every iteration as a SearchIterationEvent, when the JDK Flight Recorder records them
+ */
 public class MiniMaxStrategy implements Strategy {
-    private Game game;
+    /**
+     * Attributes of the MiniMaxStrategy class
+     */
+    private static final int INITIAL_BUFFER_SIZE = 256;
+    private static final int DEFAULT_TABLE_MEGABYTES = 16;
+    private static final int MAX_PLY = 256;
+    private static final int WIN_SCORE = 1_000_000;
+    private static final int TIME_CHECK_MASK = 63;
+    private static final int ASPIRATION_WINDOW = 25;
+    private static final int ASPIRATION_MIN_DEPTH = 3;
+    private static final int MAX_ASPIRATION_WINDOW = 1_600;
+    private static final int REDUCTION_MIN_DEPTH = 3;
+    private static final int REDUCTION_MIN_INDEX = 3;
+    private static final int DOUBLE_REDUCTION_DEPTH = 5;
+    private static final int DOUBLE_REDUCTION_INDEX = 12;
+    private static final int SOLVER_PLIES = 12;
+    private static final int SOLVER_TABLE_MEGABYTES = 8;
+    private static final long SOLVER_NODE_LIMIT = 2_000_000;
     private Oxono oxono;
-    private int depth;
+    private final Oxono position;
+    private SearchLimits limits;
+    private int[][] moveBuffers;
+    private int rootBestMove;
+    private TranspositionTable table;
+    private final int threads;
+    private final ParallelSearch parallelSearch;
+    private SplittableRandom rootVariation;
+    private MiniMaxStrategy[] workers;
+    private ForkJoinPool pool;
+    private AtomicBoolean stop;
+    private AtomicBoolean cancelled;
+    private MoveOrdering ordering;
+    private PatternEvaluator evaluator;
+    private EndgameSolver solver;
+    private OpeningBook book;
+    private boolean pondering;
+    private MiniMaxStrategy ponderer;
+    private volatile Thread ponderThread;
+    private long ponderKey;
+    private int ponderReply = PackedMove.NONE;
+    private int ponderMove;
+    private long nodes;
+    private long nodeLimit;
+    private long deadline;
+    private boolean aborted;
+    private boolean horizonReached;
+    private int completedDepth;
+    private long tableProbes;
+    private long tableHits;
+    private final long[] cutoffs;
+    private long firstMoveCutoffs;
+    private final long[] iterationNodes;
+    private final long[] iterationNanos;
+    private final CopyOnWriteArrayList<SearchListener> listeners;
     private Totem totem;
     private Position positionTotem;
     private Position positionToken;
 
-    public MiniMaxStrategy(int depth, Game game, Oxono oxono) {
-        this.depth = depth;
-        this.game = game;
+    /**
+     * Constructs a new MiniMaxStrategy looking a fixed number of turns ahead
+     * @param depth - the number of turns to look ahead
+     * @param oxono - the game rules
+     */
+    public MiniMaxStrategy(int depth, Oxono oxono) {
+        this(SearchLimits.depth(depth), oxono);
+    }
+
+    /**
+     * Constructs a new MiniMaxStrategy searching under the given limits
+     * @param limits - the limits of every search
+     * @param oxono - the game rules
+     */
+    MiniMaxStrategy(SearchLimits limits, Oxono oxono) {
+        this(limits, oxono, new TranspositionTable(DEFAULT_TABLE_MEGABYTES));
+    }
+
+    /**
+     * Constructs a new MiniMaxStrategy using the given transposition table
+     * @param limits - the limits of every search
+     * @param oxono - the game rules
+     * @param table - the transposition table to remember the searched positions in
+     */
+    MiniMaxStrategy(SearchLimits limits, Oxono oxono, TranspositionTable table) {
+        this(limits, oxono, table, 1);
+    }
+
+    /**
+     * Constructs a new MiniMaxStrategy sharing the turns of the root between several threads
+     * @param limits - the limits of every search
+     * @param oxono - the game rules
+     * @param table - the transposition table to remember the searched positions in, shared by the threads
+     * @param threads - the number of threads searching
+     * @throws IllegalArgumentException if the number of threads isn't strictly positive
+     */
+    MiniMaxStrategy(SearchLimits limits, Oxono oxono, TranspositionTable table, int threads) {
+        this(limits, oxono, table, threads, ParallelSearch.ROOT_SPLITTING);
+    }
+
+    /**
+     * Constructs a new MiniMaxStrategy sharing its work between several threads the given way
+     * @param limits - the limits of every search
+     * @param oxono - the game rules
+     * @param table - the transposition table to remember the searched positions in, shared by the threads
+     * @param threads - the number of threads searching
+     * @param parallelSearch - how the threads share the work
+     * @throws IllegalArgumentException if the number of threads isn't strictly positive
+     */
+    MiniMaxStrategy(SearchLimits limits, Oxono oxono, TranspositionTable table, int threads,
+                    ParallelSearch parallelSearch) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Invalid number of threads : " + threads);
+        }
+        this.limits = limits;
         this.oxono = oxono;
+        this.position = oxono.copy();
+        this.table = table;
+        this.threads = threads;
+        this.parallelSearch = parallelSearch;
+        this.stop = new AtomicBoolean();
+        this.cancelled = new AtomicBoolean();
+        this.moveBuffers = new int[limits.getDepth() + 1][INITIAL_BUFFER_SIZE];
+        this.ordering = new MoveOrdering(this.position, limits.getDepth() + 1);
+        this.evaluator = new PatternEvaluator(this.position.getGeometry());
+        this.cutoffs = new long[limits.getDepth() + 1];
+        this.iterationNodes = new long[limits.getDepth() + 1];
+        this.iterationNanos = new long[limits.getDepth() + 1];
+        this.listeners = new CopyOnWriteArrayList<>();
     }
 
+    /**
+     * Chooses the totem of the best turn found by the search
+     * The position of the totem and of the token of that turn are kept for the next calls
+     * With pondering, the search goes on in the background until the opponent played, unless the turn was cancelled
+     * @param oxono - the game rules
+     * @return the totem to move
+     */
     @Override
     public Totem chooseTotem(Oxono oxono) {
-        Move bestMove = findBestMove(oxono);
-        System.out.println(bestMove);
-        this.totem = bestMove.getTotem();
-        this.positionTotem = bestMove.getTotemPos();
-        this.positionToken = bestMove.getTokenPos();
+        Color color = oxono.getToPlay().getColor();
+        int bestMove = findBestMove(color);
+        if (this.pondering && !this.cancelled.get()) {
+            startPondering(bestMove, color);
+        }
+        Move move = PackedMove.toMove(bestMove, this.oxono);
+        this.totem = move.getTotem();
+        this.positionTotem = move.getTotemPos();
+        this.positionToken = move.getTokenPos();
         return this.totem;
     }
 
+    /**
+     * Returns the position of the totem of the best turn found by chooseTotem
+     * @param oxono - the game rules
+     * @param totem - the totem to move
+     * @return the new position of the totem
+     */
     @Override
     public Position chooseTotemMove(Oxono oxono, Totem totem) {
         return this.positionTotem;
     }
 
+    /**
+     * Returns the position of the token of the best turn found by chooseTotem
+     * @param oxono - the game rules
+     * @param totem - the moved totem
+     * @return the position to insert the token on
+     */
     @Override
     public Position chooseTokenInsert(Oxono oxono, Totem totem) {
         return this.positionToken;
     }
 
-    private void simulateMoveBlack(Oxono oxono, Move move) {
-        oxono.move(move.getTotem(), move.getTotemPos());
-        oxono.insert(new Token(move.getTotem().getSymbol(), Color.BLACK), move.getTokenPos());
+    /**
+     * Stops the pondering and waits for its end, its result is then never played
+     * The background search only reads its cancel token every few positions, so it ends within a few positions
+     * Can be called from another thread than the one searching : the turn being searched is cancelled by its own
+     * token, which keeps the search from pondering once it returns
+     */
+    @Override
+    public void stopThinking() {
+        Thread ponderThread = this.ponderThread;
+        if (ponderThread == null) {
+            return;
+        }
+        this.ponderer.cancelled.set(true);
+        join(ponderThread);
+    }
+
+    /**
+     * Forgets the positions searched and the turns that caused cutoffs in the previous games, and stops the
+     * pondering, so the next game is searched as by a new strategy
+     * The search doesn't draw any random choice, the seed is ignored
+     * @param seed - the seed of the random choices of the new game
+     */
+    @Override
+    public void newGame(long seed) {
+        waitForPonderer();
+        this.ponderReply = PackedMove.NONE;
+        this.table.clear();
+        this.ordering.clear();
+        if (this.solver != null) {
+            this.solver.clear();
+        }
+        if (this.workers != null) {
+            for (MiniMaxStrategy worker : this.workers) {
+                worker.ordering.clear();
+            }
+        }
+        if (this.ponderer != null) {
+            this.ponderer.newGame(seed);
+        }
+    }
+
+    /**
+     * Stops the pondering and the threads of the workers
+     */
+    @Override
+    public void close() {
+        stopThinking();
+        if (this.pool != null) {
+            this.pool.shutdown();
+        }
     }
 
-    private void simulateMovePink(Oxono oxono, Move move) {
-        oxono.move(move.getTotem(), move.getTotemPos());
-        oxono.insert(new Token(move.getTotem().getSymbol(), Color.PINK), move.getTokenPos());
+    /**
+     * Setter giving the search the token cancelling it, read with the clock every few positions
+     * @param cancelled - the token, set to true to cancel the turn
+     */
+    @Override
+    public void setCancelToken(AtomicBoolean cancelled) {
+        this.cancelled = cancelled;
     }
 
-    private void undoMove(Oxono oxono, Move move) {
-        oxono.removePawn(move.getTokenPos());
-        oxono.move(move.getTotem(), oxono.getTotemPosition(move.getTotem()));
+    /**
+     * Getter returning the reply of the opponent the pondering expects
+     * @return the expected reply encoded as PackedMove, PackedMove.NONE if nothing is pondered
+     */
+    int getExpectedReply() {
+        return this.ponderReply;
     }
 
-    private Move findBestMove(Oxono oxono) {
-        int bestScore = Integer.MIN_VALUE;
-        Move bestMove = null;
+    /**
+     * Getter returning whether the pondering is searching in the background
+     * @return true if it is, false otherwise
+     */
+    boolean isPondering() {
+        Thread ponderThread = this.ponderThread;
+        return ponderThread != null && ponderThread.isAlive();
+    }
 
-        List<Move> possibleMoves = getPossibleMoves();
+    /**
+     * Getter returning the number of positions visited by the searches of this strategy
+     * @return the number of visited positions
+     */
+    long getNodes() {
+        return this.nodes;
+    }
 
-        for (Move move : possibleMoves) {
+    /**
+     * Getter returning the depth of the last iteration the last search fully completed
+     * @return the completed depth, 0 if not even the first turn could be searched
+     */
+    int getCompletedDepth() {
+        return this.completedDepth;
+    }
 
-            simulateMoveBlack(oxono, move);
+    /**
+     * Getter returning the number of times the searches looked a position up in the transposition table
+     * @return the number of probes
+     */
+    long getTableProbes() {
+        return this.tableProbes;
+    }
 
-            int score = minimax(oxono, depth - 1, false, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    /**
+     * Getter returning the number of times a position was found in the transposition table
+     * @return the number of hits
+     */
+    long getTableHits() {
+        return this.tableHits;
+    }
 
-            undoMove(oxono, move);
+    /**
+     * Setter giving the strategy a book of opening turns, looked up before any search
+     * @param book - the book, null to always search
+     */
+    void setOpeningBook(OpeningBook book) {
+        this.book = book;
+    }
 
-            if (score > bestScore) {
-                bestScore = score;
-                bestMove = move;
-            }
+    /**
+     * Method registering a listener told about every search of this strategy
+     * The listeners may be registered from any thread, they are told on the thread of the search
+     * @param listener - the listener to register
+     */
+    public void addSearchListener(SearchListener listener) {
+        this.listeners.addIfAbsent(listener);
+    }
+
+    /**
+     * Method unregistering a listener of the searches of this strategy
+     * @param listener - the listener to remove
+     */
+    public void removeSearchListener(SearchListener listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * Setter turning the pondering on or off
+     * @param pondering - true to go on searching in the background once the turn is chosen
+     */
+    void setPondering(boolean pondering) {
+        this.pondering = pondering;
+        if (!pondering) {
+            stopThinking();
         }
+    }
 
+    /**
+     * Method searching the best turn for the player of the given color
+     * Plays the pondered turn if the pondering fully searched the position, or the turn of the opening book if the
+     * position is in it, otherwise searches one turn deeper at each iteration, until a limit is reached, the search no longer reaches its
+     * depth (the end of the game is in sight) or a win is found
+     * The statistics of the search are given to the listeners and recorded as a SearchEvent
+     * @param color - the color of the player to play
+     * @return the best turn of the last completed iteration encoded as PackedMove, PackedMove.NONE if the player
+     * can't play at all
+     */
+    int findBestMove(Color color) {
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        long start = System.nanoTime();
+        long startNodes = this.nodes;
+        long startProbes = this.tableProbes;
+        long startHits = this.tableHits;
+        Arrays.fill(this.cutoffs, 0);
+        this.firstMoveCutoffs = 0;
+        Arrays.fill(this.iterationNodes, 0);
+        Arrays.fill(this.iterationNanos, 0);
+        int bestMove = search(color);
+        event.end();
+        if (this.listeners.isEmpty() && !event.shouldCommit()) {
+            return bestMove;
+        }
+        SearchStatistics statistics = new SearchStatistics(bestMove, this.nodes - startNodes,
+                System.nanoTime() - start, this.completedDepth, this.tableProbes - startProbes,
+                this.tableHits - startHits, this.cutoffs, this.firstMoveCutoffs, this.iterationNodes,
+                this.iterationNanos);
+        for (SearchListener listener : this.listeners) {
+            listener.searchCompleted(statistics);
+        }
+        if (event.shouldCommit()) {
+            event.boardSize = this.position.getBoardSize();
+            event.bestMove = bestMove;
+            event.nodes = statistics.getNodes();
+            event.nodesPerSecond = statistics.getNodesPerSecond();
+            event.completedDepth = statistics.getCompletedDepth();
+            event.tableProbes = statistics.getTableProbes();
+            event.tableHits = statistics.getTableHits();
+            event.cutoffs = statistics.getCutoffs();
+            event.firstMoveCutoffRate = statistics.getFirstMoveCutoffRate();
+            event.branchingFactor = statistics.getBranchingFactor();
+            event.cutoffsPerPly = Arrays.toString(this.cutoffs);
+            event.commit();
+        }
         return bestMove;
     }
 
-    private int minimax(Oxono oxono, int depth, boolean isMaximizing, int alpha, int beta) {
-        if (depth == 0 || oxono.checkForWinner() || game.isDraw()) {
-            return evaluateBoard(depth);
+    /**
+     * Private helper method searching the best turn for the player of the given color, as described by findBestMove
+     * @param color - the color of the player to play
+     * @return the best turn encoded as PackedMove, PackedMove.NONE if the player can't play at all
+     */
+    private int search(Color color) {
+        int pondered = takePonderedMove(color);
+        if (pondered != PackedMove.NONE) {
+            return pondered;
         }
+        this.table.newSearch();
+        this.ordering.newSearch();
+        this.position.copyPosition(this.oxono);
+        this.position.setToPlay(color);
+        this.evaluator.reset(this.position);
+        this.aborted = false;
+        this.completedDepth = 0;
+        this.nodeLimit = (this.limits.getNodes() == SearchLimits.UNLIMITED)
+                ? Long.MAX_VALUE : this.nodes + this.limits.getNodes();
+        this.deadline = (this.limits.getMillis() == SearchLimits.UNLIMITED)
+                ? Long.MAX_VALUE : System.nanoTime() + this.limits.getMillis() * 1_000_000;
+        int count = generateMoves(color, 0);
+        if (count == 0) {
+            return PackedMove.NONE;
+        }
+        if (this.book != null) {
+            int move = this.book.probe(this.position, color, this.moveBuffers[0], count);
+            if (move != PackedMove.NONE) {
+                return move;
+            }
+        }
+        if (EndgameSolver.remainingPlies(this.position) <= SOLVER_PLIES) {
+            int move = solveEndgame(color);
+            if (move != PackedMove.NONE) {
+                return move;
+            }
+        }
+        if (this.threads == 1) {
+            return deepen(color, count, 1, false);
+        }
+        prepareWorkers();
+        if (this.parallelSearch == ParallelSearch.LAZY_SMP) {
+            return searchLazySmp(color, count);
+        }
+        return deepen(color, count, 1, true);
+    }
 
-        List<Move> possibleMoves = getPossibleMoves();
-
-        if (isMaximizing) {
-            int maxEval = Integer.MIN_VALUE;
-            for (Move move : possibleMoves) {
+    /**
+     * Private helper method starting to search in the background the position after the given turn and the reply
+     * the opponent is expected to play, the best turn the search found for the opponent
+     * Nothing is pondered when the turn or the reply ends the game, or when no reply is known
+     * @param move - the turn chosen for the player
+     * @param color - the color of the player
+     */
+    private void startPondering(int move, Color color) {
+        waitForPonderer();
+        this.ponderReply = PackedMove.NONE;
+        if (move == PackedMove.NONE) {
+            return;
+        }
+        this.position.copyPosition(this.oxono);
+        this.position.setToPlay(color);
+        this.position.makeMove(move);
+        int reply = PackedMove.NONE;
+        if (!this.position.lastMoveWins() && !this.position.isDraw()) {
+            reply = expectedReply(opponent(color));
+        }
+        if (reply == PackedMove.NONE) {
+            return;
+        }
+        this.position.makeMove(reply);
+        if (this.position.lastMoveWins() || this.position.isDraw()) {
+            return;
+        }
+        if (this.ponderer == null) {
+            SearchLimits ponderLimits = new SearchLimits(this.limits.getDepth(), SearchLimits.UNLIMITED,
+                    SearchLimits.UNLIMITED);
+            this.ponderer = new MiniMaxStrategy(ponderLimits, new Oxono(this.position.getBoardSize()), this.table);
+        }
+        this.ponderer.oxono.copyPosition(this.position);
+        this.ponderReply = reply;
+        this.ponderKey = this.position.getZobristKey(color);
+        this.ponderMove = PackedMove.NONE;
+        this.ponderer.cancelled = new AtomicBoolean();
+        MiniMaxStrategy ponderer = this.ponderer;
+        this.ponderThread = Thread.ofPlatform().daemon().name("oxono-ponder").start(() -> {
+            int pondered = ponderer.findBestMove(color);
+            this.ponderMove = ponderer.aborted ? PackedMove.NONE : pondered;
+        });
+        if (this.cancelled.get()) {
+            waitForPonderer();
+        }
+    }
 
-                simulateMoveBlack(oxono, move);
+    /**
+     * Private helper method returning the reply the last search expects from the opponent : the best turn the
+     * transposition table knows for the position, if it is legal there
+     * @param opponent - the color of the opponent, to play in the copy of the game
+     * @return the expected reply encoded as PackedMove, PackedMove.NONE if none is known
+     */
+    private int expectedReply(Color opponent) {
+        long entry = this.table.probe(this.position.getZobristKey(opponent));
+        if (entry == TranspositionTable.MISS) {
+            return PackedMove.NONE;
+        }
+        int reply = TranspositionTable.moveOf(entry);
+        int count = generateMoves(opponent, 1);
+        for (int i = 0; i < count; i++) {
+            if (this.moveBuffers[1][i] == reply) {
+                return reply;
+            }
+        }
+        return PackedMove.NONE;
+    }
 
-                int eval = minimax(oxono, depth - 1, false, alpha, beta);
+    /**
+     * Private helper method stopping the pondering and returning its turn if it can be played instead of searching :
+     * the opponent played the expected reply and the pondering fully searched the position to the depth of the
+     * limits, which only bound the depth. The pondering is then left to finish the depth it searches
+     * Otherwise the pondering is stopped and the search starts from the transposition table it filled
+     * @param color - the color of the player to play
+     * @return the pondered turn encoded as PackedMove, PackedMove.NONE if it can't be played
+     */
+    private int takePonderedMove(Color color) {
+        if (this.ponderThread == null) {
+            return PackedMove.NONE;
+        }
+        boolean depthOnly = this.limits.getMillis() == SearchLimits.UNLIMITED
+                && this.limits.getNodes() == SearchLimits.UNLIMITED;
+        boolean expected = depthOnly && this.oxono.getZobristKey(color) == this.ponderKey;
+        if (!expected) {
+            waitForPonderer();
+            return PackedMove.NONE;
+        }
+        joinPonderer();
+        if (this.ponderMove == PackedMove.NONE) {
+            return PackedMove.NONE;
+        }
+        this.completedDepth = this.ponderer.completedDepth;
+        return this.ponderMove;
+    }
 
-                undoMove(oxono, move);
+    /**
+     * Private helper method stopping the pondering and waiting for its end
+     */
+    private void waitForPonderer() {
+        if (this.ponderThread == null) {
+            return;
+        }
+        this.ponderer.cancelled.set(true);
+        joinPonderer();
+    }
 
-                maxEval = Math.max(maxEval, eval);
+    /**
+     * Private helper method waiting for the end of the pondering without stopping it
+     */
+    private void joinPonderer() {
+        join(this.ponderThread);
+        this.ponderThread = null;
+    }
 
-                alpha = Math.max(alpha, eval);
-                if (beta <= alpha) {
-                    break;
-                }
+    /**
+     * Private helper method waiting for the end of a thread, even if the calling thread is interrupted meanwhile
+     * @param thread - the thread
+     */
+    private static void join(Thread thread) {
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
             }
-            return maxEval;
-        } else {
-            int minEval = Integer.MAX_VALUE;
-            for (Move move : possibleMoves) {
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
 
-                simulateMovePink(oxono, move);
+    /**
+     * Private helper method solving the end of the game exactly, within half of the time left and a bounded number
+     * of positions so the usual search can still take over when the end is too large to solve
+     * The solver reads the cancel token of the current turn, every turn being given its own token
+     * @param color - the color of the player to play
+     * @return a best turn encoded as PackedMove, PackedMove.NONE if the solver had to stop before the end
+     */
+    private int solveEndgame(Color color) {
+        if (this.solver == null) {
+            this.solver = new EndgameSolver(this.position, new TranspositionTable(SOLVER_TABLE_MEGABYTES), SOLVER_PLIES);
+        }
+        this.solver.setStop(this.cancelled);
+        long now = System.nanoTime();
+        long deadline = (this.deadline == Long.MAX_VALUE) ? Long.MAX_VALUE : now + (this.deadline - now) / 2;
+        int plies = EndgameSolver.remainingPlies(this.position);
+        int move = this.solver.solve(color, deadline, Math.min(SOLVER_NODE_LIMIT, this.nodeLimit - this.nodes));
+        this.nodes += this.solver.getNodes();
+        if (this.solver.isAborted()) {
+            return PackedMove.NONE;
+        }
+        this.completedDepth = plies;
+        return move;
+    }
 
-                int eval = minimax(oxono,depth - 1, true, alpha, beta);
+    /**
+     * Private helper method searching one turn deeper at each iteration, until a limit is reached, the search no
+     * longer reaches its depth or a win is found
+     * @param color - the color of the player to play
+     * @param count - the number of turns of the root, already generated
+     * @param firstDepth - the depth of the first iteration
+     * @param splitRoot - true to share the turns of the root between the workers, false to search them alone
+     * @return the best turn of the last completed iteration, the first turn of the root if none was completed
+     */
+    private int deepen(Color color, int count, int firstDepth, boolean splitRoot) {
+        int bestMove = this.moveBuffers[0][0];
+        int score = 0;
+        for (int depth = firstDepth; depth <= this.limits.getDepth(); depth++) {
+            this.horizonReached = false;
+            SearchIterationEvent event = new SearchIterationEvent();
+            event.begin();
+            long start = System.nanoTime();
+            long startNodes = this.nodes;
+            score = splitRoot
+                    ? searchRootInParallel(color, depth, count, bestMove) : aspirate(color, depth, count, bestMove, score);
+            this.iterationNanos[depth] = System.nanoTime() - start;
+            this.iterationNodes[depth] = this.nodes - startNodes;
+            event.end();
+            if (event.shouldCommit()) {
+                event.depth = depth;
+                event.nodes = this.iterationNodes[depth];
+                event.completed = !this.aborted;
+                event.commit();
+            }
+            if (this.aborted) {
+                break;
+            }
+            bestMove = this.rootBestMove;
+            this.completedDepth = depth;
+            if (!this.horizonReached || Math.abs(score) > WIN_SCORE - MAX_PLY) {
+                break;
+            }
+        }
+        return bestMove;
+    }
 
-                undoMove(oxono, move);
+    /**
+     * Private helper method searching the root within a window around the score of the previous iteration
+     * The window is widened and the root searched again as long as the score falls outside, until the window is
+     * so wide the full one is used
+     * @param color - the color of the player to play
+     * @param depth - the number of turns to look ahead
+     * @param count - the number of turns of the root
+     * @param previousBest - the best turn of the previous iteration
+     * @param previousScore - the score of the previous iteration
+     * @return the score of the best turn, kept in rootBestMove
+     */
+    private int aspirate(Color color, int depth, int count, int previousBest, int previousScore) {
+        if (depth < ASPIRATION_MIN_DEPTH || Math.abs(previousScore) > WIN_SCORE - MAX_PLY) {
+            return searchRoot(color, depth, count, previousBest, -Integer.MAX_VALUE, Integer.MAX_VALUE);
+        }
+        for (int window = ASPIRATION_WINDOW; ; window *= 4) {
+            int alpha = (window > MAX_ASPIRATION_WINDOW) ? -Integer.MAX_VALUE : previousScore - window;
+            int beta = (window > MAX_ASPIRATION_WINDOW) ? Integer.MAX_VALUE : previousScore + window;
+            int score = searchRoot(color, depth, count, previousBest, alpha, beta);
+            if (this.aborted || (score > alpha && score < beta) || window > MAX_ASPIRATION_WINDOW) {
+                return score;
+            }
+        }
+    }
 
-                minEval = Math.min(minEval, eval);
+    /**
+     * Private helper method searching every turn of the root to the given depth within a window
+     * The best turn of the previous iteration is searched first
+     * @param color - the color of the player to play
+     * @param depth - the number of turns to look ahead
+     * @param count - the number of turns of the root
+     * @param previousBest - the best turn of the previous iteration
+     * @param alpha - the lower bound of the window
+     * @param beta - the upper bound of the window
+     * @return the score of the best turn, kept in rootBestMove if it is inside the window
+     */
+    private int searchRoot(Color color, int depth, int count, int previousBest, int alpha, int beta) {
+        int[] moves = this.moveBuffers[0];
+        this.ordering.score(color, 0, moves, count, previousBest);
+        if (this.rootVariation != null) {
+            this.ordering.vary(0, count, this.rootVariation);
+        }
+        int best = -Integer.MAX_VALUE;
+        this.rootBestMove = previousBest;
+        for (int i = 0; i < count && !this.aborted; i++) {
+            int move = this.ordering.next(0, moves, i, count);
+            int score = searchPrincipal(move, color, depth, 0, i, alpha, beta);
+            if (this.aborted) {
+                break;
+            }
+            best = Math.max(best, score);
+            if (score > alpha) {
+                alpha = score;
+                this.rootBestMove = move;
+            }
+            if (alpha >= beta) {
+                countCutoff(0, i);
+                break;
+            }
+        }
+        return best;
+    }
 
-                beta = Math.min(beta, eval);
-                if (beta <= alpha) {
-                    break;
-                }
+    /**
+     * Private helper method giving every worker the position of the game, the workers are created by the first
+     * search using them
+     */
+    private void prepareWorkers() {
+        if (this.workers == null) {
+            this.workers = new MiniMaxStrategy[this.threads - 1];
+            for (int i = 0; i < this.workers.length; i++) {
+                this.workers[i] = new MiniMaxStrategy(this.limits, this.position, this.table);
+                this.workers[i].stop = this.stop;
             }
-            return minEval;
+            this.pool = new ForkJoinPool(this.workers.length);
+        }
+        this.stop.set(false);
+        for (MiniMaxStrategy worker : this.workers) {
+            worker.cancelled = this.cancelled;
+            worker.position.copyPosition(this.position);
+            worker.evaluator.reset(worker.position);
+            worker.ordering.newSearch();
         }
     }
 
-    //private List<Move> getPossibleMoves() {
-    //    List<Move> possibleMoves = new ArrayList<>();
+    /**
+     * Private helper method searching with several threads deepening on their own (Lazy SMP)
+     * Every other worker starts one turn deeper than this thread, and every worker orders the turns of the root
+     * slightly differently, so they fill the shared transposition table with different positions
+     * The workers are stopped as soon as this thread completed its search, only its turn is played
+     * @param color - the color of the player to play
+     * @param count - the number of turns of the root, already generated
+     * @return the best turn found by this thread
+     */
+    private int searchLazySmp(Color color, int count) {
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[this.workers.length];
+        long budget = (this.nodeLimit == Long.MAX_VALUE) ? Long.MAX_VALUE
+                : Math.max(0, this.nodeLimit - this.nodes) / this.threads;
+        for (int i = 0; i < tasks.length; i++) {
+            MiniMaxStrategy worker = this.workers[i];
+            worker.resetCounters();
+            worker.nodeLimit = budget;
+            worker.deadline = this.deadline;
+            worker.aborted = false;
+            worker.completedDepth = 0;
+            worker.rootVariation = new SplittableRandom(i);
+            int firstDepth = 2 - i % 2;
+            tasks[i] = this.pool.submit(() -> worker.deepen(color, worker.generateMoves(color, 0), firstDepth, false));
+        }
+        long nodeLimit = this.nodeLimit;
+        this.nodeLimit = (budget == Long.MAX_VALUE) ? Long.MAX_VALUE : this.nodes + budget;
+        int bestMove = deepen(color, count, 1, false);
+        this.stop.set(true);
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i].join();
+            addCounters(this.workers[i]);
+        }
+        this.nodeLimit = nodeLimit;
+        return bestMove;
+    }
 
-    //    //Totem totemO = (Totem) this.board.getPawnAt(totO);
-    //    //Totem totemX = (Totem) this.board.getPawnAt(totX);
+    /**
+     * Private helper method searching every turn of the root to the given depth with several threads
+     * The best turn of the previous iteration is searched first by this thread alone, then the other turns are
+     * taken one by one by the workers and this thread, each starting from the best score found so far
+     * @param color - the color of the player to play
+     * @param depth - the number of turns to look ahead
+     * @param count - the number of turns of the root
+     * @param previousBest - the best turn of the previous iteration
+     * @return the score of the best turn, kept in rootBestMove
+     */
+    private int searchRootInParallel(Color color, int depth, int count, int previousBest) {
+        int[] moves = this.moveBuffers[0];
+        this.ordering.score(color, 0, moves, count, previousBest);
+        for (int i = 0; i < count; i++) {
+            this.ordering.next(0, moves, i, count);
+        }
+        this.rootBestMove = moves[0];
+        int alpha = searchMove(moves[0], color, depth, 0, -Integer.MAX_VALUE, Integer.MAX_VALUE);
+        if (this.aborted || count == 1) {
+            return alpha;
+        }
+        AtomicInteger next = new AtomicInteger(1);
+        AtomicLong best = new AtomicLong(packRootScore(alpha, 0));
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[this.workers.length];
+        long budget = (this.nodeLimit == Long.MAX_VALUE) ? Long.MAX_VALUE
+                : Math.max(0, this.nodeLimit - this.nodes) / this.threads;
+        for (int i = 0; i < tasks.length; i++) {
+            MiniMaxStrategy worker = this.workers[i];
+            worker.resetCounters();
+            worker.nodeLimit = budget;
+            worker.deadline = this.deadline;
+            worker.aborted = false;
+            worker.horizonReached = false;
+            tasks[i] = this.pool.submit(() -> worker.searchRootShare(color, depth, moves, count, next, best));
+        }
+        long nodeLimit = this.nodeLimit;
+        this.nodeLimit = (budget == Long.MAX_VALUE) ? Long.MAX_VALUE : this.nodes + budget;
+        searchRootShare(color, depth, moves, count, next, best);
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i].join();
+            MiniMaxStrategy worker = this.workers[i];
+            addCounters(worker);
+            this.aborted |= worker.aborted;
+            this.horizonReached |= worker.horizonReached;
+        }
+        this.aborted |= this.stop.get();
+        this.nodeLimit = nodeLimit;
+        long result = best.get();
+        this.rootBestMove = moves[Integer.MAX_VALUE - (int) result];
+        return (int) (result >> Integer.SIZE);
+    }
 
-    //    //getPossiblesMovesForTotem(totemO, possibleMoves);
-    //    //getPossiblesMovesForTotem(totemX, possibleMoves);
+    /**
+     * Private helper method searching the turns of the root taken one by one until none is left
+     * Every turn is first searched with a null window at the best score found so far by any thread, a turn
+     * scoring higher is searched again to be exactly scored and becomes the best one
+     * @param color - the color of the player to play
+     * @param depth - the number of turns to look ahead
+     * @param moves - the turns of the root, in their searching order
+     * @param count - the number of turns of the root
+     * @param next - the index of the next turn to take
+     * @param best - the best score and the index of its turn, packed by packRootScore
+     */
+    private void searchRootShare(Color color, int depth, int[] moves, int count, AtomicInteger next, AtomicLong best) {
+        for (int i = next.getAndIncrement(); i < count && !this.aborted; i = next.getAndIncrement()) {
+            int alpha = (int) (best.get() >> Integer.SIZE);
+            int score = searchMove(moves[i], color, depth, 0, alpha, alpha + 1);
+            if (score > alpha && !this.aborted) {
+                score = searchMove(moves[i], color, depth, 0, alpha, Integer.MAX_VALUE);
+            }
+            if (score > alpha && !this.aborted) {
+                best.accumulateAndGet(packRootScore(score, i), Math::max);
+            }
+        }
+        if (this.aborted) {
+            this.stop.set(true);
+        }
+    }
 
-    //    return possibleMoves;
-    //}
+    /**
+     * Private helper method counting a cutoff
+     * @param ply - the distance from the root of the position
+     * @param index - the index of the turn causing the cutoff in the searching order
+     */
+    private void countCutoff(int ply, int index) {
+        if (ply < this.cutoffs.length) {
+            this.cutoffs[ply]++;
+        }
+        if (index == 0) {
+            this.firstMoveCutoffs++;
+        }
+    }
 
-    private List<Move> getPossibleMoves() {
-        List<Move> possibleMoves = new ArrayList<>();
+    /**
+     * Private helper method resetting the counters of a worker before it searches
+     */
+    private void resetCounters() {
+        this.nodes = this.tableProbes = this.tableHits = this.firstMoveCutoffs = 0;
+        Arrays.fill(this.cutoffs, 0);
+    }
 
-        Totem totemO = (Totem) this.oxono.getPawnAt(this.oxono.totem_O_Pos());
-        Totem totemX = (Totem) this.oxono.getPawnAt(this.oxono.totem_X_Pos());
+    /**
+     * Private helper method adding the counters of a worker to those of this search once the worker is done
+     * @param worker - the worker
+     */
+    private void addCounters(MiniMaxStrategy worker) {
+        this.nodes += worker.nodes;
+        this.tableProbes += worker.tableProbes;
+        this.tableHits += worker.tableHits;
+        this.firstMoveCutoffs += worker.firstMoveCutoffs;
+        for (int ply = 0; ply < this.cutoffs.length; ply++) {
+            this.cutoffs[ply] += worker.cutoffs[ply];
+        }
+    }
 
-        getPossiblesMovesForTotem(totemO, possibleMoves);
-        getPossiblesMovesForTotem(totemX, possibleMoves);
+    /**
+     * Private helper method packing the score of a turn of the root with its index, so the highest packed value
+     * is the best score and, between equal scores, the turn ordered first
+     * @param score - the score of the turn
+     * @param index - the index of the turn
+     * @return the packed score
+     */
+    private static long packRootScore(int score, int index) {
+        return ((long) score << Integer.SIZE) | (Integer.MAX_VALUE - index);
+    }
 
-        return possibleMoves;
+    /**
+     * Private helper method checking whether the search has to stop because of its limits
+     * The clock, the cancel token and whether another thread of the search had to stop are only read every few
+     * positions
+     * @return true if the search has to stop, false otherwise
+     */
+    private boolean outOfLimits() {
+        if (!this.aborted && (this.nodes >= this.nodeLimit || ((this.nodes & TIME_CHECK_MASK) == 0
+                && (System.nanoTime() - this.deadline > 0 || this.stop.get() || this.cancelled.get())))) {
+            this.aborted = true;
+        }
+        return this.aborted;
     }
 
-    private void getPossiblesMovesForTotem(Totem totem, List<Move> possibleMoves) {
-        if (this.game.enoughToMoveTotem(totem.getSymbol())) {
-            Position position = (totem.getSymbol() == Symbol.O) ? this.oxono.totem_O_Pos() : this.oxono.totem_X_Pos();
-            List<Position> possibleTotemMoves = this.oxono.getValidMoves(totem);
-            for (Position posTotem : possibleTotemMoves) {
-                List<Position> possibleTokenInserts = this.oxono.getValidInsert(posTotem.getRow(), posTotem.getCol());
-                for (Position posToken : possibleTokenInserts) {
-                    Move move = new Move(totem, posTotem, posToken);
-                    possibleMoves.add(move);
+    /**
+     * Private helper method searching the position (negamax alpha-beta)
+     * The score is always given from the point of view of the player to play
+     * @param color - the color of the player to play
+     * @param depth - the number of turns left to look ahead
+     * @param ply - the distance from the root of the search
+     * @param alpha - the score the player to play is already assured of
+     * @param beta - the score the opponent is already assured of
+     * @return the score of the position
+     */
+    private int negamax(Color color, int depth, int ply, int alpha, int beta) {
+        if (outOfLimits()) {
+            return 0;
+        }
+        this.nodes++;
+        long key = this.position.getZobristKey(color);
+        this.tableProbes++;
+        long entry = this.table.probe(key);
+        if (entry != TranspositionTable.MISS) {
+            this.tableHits++;
+            if (TranspositionTable.depthOf(entry) >= depth) {
+                int score = fromTable(TranspositionTable.scoreOf(entry), ply);
+                int bound = TranspositionTable.boundOf(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER && score >= beta)
+                        || (bound == TranspositionTable.UPPER && score <= alpha)) {
+                    return score;
                 }
             }
         }
+        int count = generateMoves(color, ply);
+        if (count == 0) {
+            return 0;
+        }
+        int[] moves = this.moveBuffers[ply];
+        if (depth == 1) {
+            return searchLastTurn(color, ply, moves, count, beta);
+        }
+        int hashMove = (entry != TranspositionTable.MISS) ? TranspositionTable.moveOf(entry) : PackedMove.NONE;
+        this.ordering.score(color, ply, moves, count, hashMove);
+        int originalAlpha = alpha;
+        int best = -Integer.MAX_VALUE;
+        int bestMove = PackedMove.NONE;
+        for (int i = 0; i < count && !this.aborted; i++) {
+            int move = this.ordering.next(ply, moves, i, count);
+            int score = searchPrincipal(move, color, depth, ply, i, alpha, beta);
+            if (score > best) {
+                best = score;
+                bestMove = move;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+            if (alpha >= beta) {
+                this.ordering.cutoff(ply, i, move, depth);
+                countCutoff(ply, i);
+                break;
+            }
+        }
+        if (this.aborted) {
+            return 0;
+        }
+        int bound = (best <= originalAlpha) ? TranspositionTable.UPPER
+                : (best >= beta) ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+        this.table.store(key, depth, bound, toTable(best, ply), bestMove);
+        return best;
     }
 
-    private int evaluateBoard(int depth) {
-
-        if (depth == 0) {
-            return -1;
+    /**
+     * Private helper method searching a turn of a position, depending on its place in the order of the turns
+     * The first turn is searched with the full window. The others are expected to be worse, they are only
+     * searched with a null window to prove it, the late quiet ones even one or two turns shallower. A turn that
+     * turns out better is searched again at full depth, then with the full window
+     * @param move - the turn to search
+     * @param color - the color of the player playing the turn
+     * @param depth - the number of turns left to look ahead, including this one
+     * @param ply - the distance from the root of the search
+     * @param index - the index of the turn in the order of the turns of the position
+     * @param alpha - the score the player playing the turn is already assured of
+     * @param beta - the score the opponent is already assured of
+     * @return the score of the turn from the point of view of the player playing it
+     */
+    private int searchPrincipal(int move, Color color, int depth, int ply, int index, int alpha, int beta) {
+        if (index == 0) {
+            return searchMove(move, color, depth, ply, alpha, beta);
         }
-
-        if (game.win()) {
-            //this.game.setRunning(true);
-            if (this.game.getToPlay().getColor() == Color.PINK) {
-                return - (100 * (Board.BOARD_SIZE * Board.BOARD_SIZE - 2)) / depth ;
-            } else {
-                return (100 * (Board.BOARD_SIZE * Board.BOARD_SIZE - 2)) / depth;
-            }
+        int reduction = 0;
+        if (depth >= REDUCTION_MIN_DEPTH && index >= REDUCTION_MIN_INDEX && this.ordering.isQuiet(ply, index)) {
+            reduction = (depth >= DOUBLE_REDUCTION_DEPTH && index >= DOUBLE_REDUCTION_INDEX) ? 2 : 1;
+        }
+        int score = searchMove(move, color, depth - reduction, ply, alpha, alpha + 1);
+        if (reduction > 0 && score > alpha && !this.aborted) {
+            score = searchMove(move, color, depth, ply, alpha, alpha + 1);
         }
+        if (score > alpha && score < beta && !this.aborted) {
+            score = searchMove(move, color, depth, ply, alpha, beta);
+        }
+        return score;
+    }
 
-        if (game.isDraw()) {
-            //this.game.setRunning(true);
-            return 0;
+    /**
+     * Private helper method scoring a position where only one turn is left to look ahead
+     * The turns don't need to be played on the board, moving a totem changes neither the evaluation nor the
+     * alignments : inserting the token in the evaluator is enough to score the turn and to know whether it wins
+     * Every turn draws one token and fills one cell, so whether the game ends in a draw doesn't depend on the turn
+     * @param color - the color of the player to play
+     * @param ply - the distance from the root of the search
+     * @param moves - the turns of the position
+     * @param count - the number of turns
+     * @param beta - the score the opponent is already assured of
+     * @return the score of the position
+     */
+    private int searchLastTurn(Color color, int ply, int[] moves, int count, int beta) {
+        boolean draw = drawsAfterTurn(color);
+        if (!draw) {
+            this.horizonReached = true;
+        }
+        int best = -Integer.MAX_VALUE;
+        int i = 0;
+        while (i < count && best < beta) {
+            int insert = PackedMove.getInsert(moves[i]);
+            Symbol symbol = PackedMove.getSymbol(moves[i]);
+            boolean wins = this.evaluator.insert(insert, color, symbol);
+            int score = wins ? WIN_SCORE - ply : draw ? 0 : this.evaluator.score(color);
+            this.evaluator.remove(insert, color, symbol);
+            best = Math.max(best, score);
+            i++;
         }
+        if (best >= beta) {
+            countCutoff(ply, i - 1);
+        }
+        return best;
+    }
 
-        return -100;
+    /**
+     * Private helper method checking whether the next turn of a player, whatever it is, ends the game in a draw
+     * @param color - the color of the player to play
+     * @return true if the board will be full or nobody will have any token left, false otherwise
+     */
+    private boolean drawsAfterTurn(Color color) {
+        Player player = player(color);
+        Player opponent = player(opponent(color));
+        return this.position.freeCasesLeft() == 1
+                || (player.getTokensO() + player.getTokensX() == 1
+                && opponent.getTokensO() + opponent.getTokensX() == 0);
     }
 
-    private int evaluatePosition(Board board, int row, int col) {
-        int score = 0;
-        Pawn pawn = board.getPawnAt(new Position(row, col));
-        if (pawn instanceof Token token) {
-            score += checkLine(board, row, col, 0, 1, token);
-            score += checkLine(board, row, col, 1, 0, token);
-            score += checkLine(board, row, col, 0, -1, token);
-            score += checkLine(board, row, col, -1, 0, token);
+    /**
+     * Private helper method converting a score to store it in the transposition table
+     * The wins are scored from the root of the search, they are stored relatively to the position instead
+     * @param score - the score of the position
+     * @param ply - the distance from the root of the search
+     * @return the score to store
+     */
+    private int toTable(int score, int ply) {
+        if (score > WIN_SCORE - MAX_PLY) {
+            return score + ply;
+        }
+        if (score < -WIN_SCORE + MAX_PLY) {
+            return score - ply;
         }
         return score;
     }
 
-    private int checkLine(Board board, int row, int col, int rowDelta, int colDelta, Token startToken) {
-        int score = 0;
-        int symbolCount = 1;
-        int colorCount = 1;
+    /**
+     * Private helper method converting a score read from the transposition table back to a score from the root
+     * @param score - the stored score
+     * @param ply - the distance from the root of the search
+     * @return the score of the position
+     */
+    private int fromTable(int score, int ply) {
+        if (score > WIN_SCORE - MAX_PLY) {
+            return score - ply;
+        }
+        if (score < -WIN_SCORE + MAX_PLY) {
+            return score + ply;
+        }
+        return score;
+    }
 
-        for (int i = 1; i < 4; i++) {
-            int newRow = row + i * rowDelta;
-            int newCol = col + i * colDelta;
-            if (newRow < 0 || newRow >= Board.BOARD_SIZE || newCol < 0 || newCol >= Board.BOARD_SIZE) {
-                break;
-            }
-            Pawn pawn = board.getPawnAt(new Position(newRow, newCol));
-            if (pawn instanceof Token token) {
-                if (token.getSymbol() == startToken.getSymbol()) {
-                    symbolCount++;
-                }
-                if (token.getColor() == startToken.getColor()) {
-                    colorCount++;
-                }
-            } else {
-                break;
-            }
+    /**
+     * Private helper method playing a turn, scoring the resulting position and undoing the turn
+     * A win is scored higher the sooner it happens (the closer to the root of the search)
+     * @param move - the turn to play
+     * @param color - the color of the player playing the turn
+     * @param depth - the number of turns left to look ahead, including this one
+     * @param ply - the distance from the root of the search
+     * @param alpha - the score the player playing the turn is already assured of
+     * @param beta - the score the opponent is already assured of
+     * @return the score of the turn from the point of view of the player playing it
+     */
+    private int searchMove(int move, Color color, int depth, int ply, int alpha, int beta) {
+        makeMove(move, color);
+        int score;
+        if (this.position.lastMoveWins()) {
+            score = WIN_SCORE - ply;
+        } else if (this.position.isDraw()) {
+            score = 0;
+        } else if (depth <= 1) {
+            this.horizonReached = true;
+            score = this.evaluator.score(color);
+        } else {
+            score = -negamax(opponent(color), depth - 1, ply + 1, -beta, -alpha);
         }
+        unmakeMove(move, color);
+        return score;
+    }
+
+    /**
+     * Private helper method filling the buffer of a ply with the turns of the player of the given color
+     * The buffer grows when it is too small, which only happens during the first searches
+     * @param color - the color of the player to play
+     * @param ply - the distance from the root of the search
+     * @return the number of turns
+     */
+    private int generateMoves(Color color, int ply) {
+        int count = this.position.generateMoves(color, this.moveBuffers[ply]);
+        if (count > this.moveBuffers[ply].length) {
+            this.moveBuffers[ply] = new int[count];
+            count = this.position.generateMoves(color, this.moveBuffers[ply]);
+        }
+        return count;
+    }
 
-        if (symbolCount == 2) score += 1;
-        else if (symbolCount == 3) score += 5;
-        else if (symbolCount == 4) score += 100;
+    /**
+     * Private helper method playing a turn on the copy of the game and in the evaluator
+     * @param move - the turn encoded as PackedMove
+     * @param color - the color of the player playing the turn
+     */
+    private void makeMove(int move, Color color) {
+        this.position.makeMove(move);
+        this.evaluator.insert(PackedMove.getInsert(move), color, PackedMove.getSymbol(move));
+    }
 
-        if (colorCount == 2) score += 1;
-        else if (colorCount == 3) score += 5;
-        else if (colorCount == 4) score += 100;
+    /**
+     * Private helper method undoing a turn played by makeMove
+     * @param move - the turn encoded as PackedMove
+     * @param color - the color of the player who played the turn
+     */
+    private void unmakeMove(int move, Color color) {
+        this.evaluator.remove(PackedMove.getInsert(move), color, PackedMove.getSymbol(move));
+        this.position.unmakeMove();
+    }
 
-        return score;
+    /**
+     * Private helper method returning the player of the given color
+     * @param color - the color of the player
+     * @return the player
+     */
+    private Player player(Color color) {
+        return (color == Color.PINK) ? this.position.getPink() : this.position.getBlack();
+    }
+
+    /**
+     * Private helper method returning the color of the opponent
+     * @param color - the color of the player
+     * @return the color of its opponent
+     */
+    private static Color opponent(Color color) {
+        return (color == Color.PINK) ? Color.BLACK : Color.PINK;
     }
 }
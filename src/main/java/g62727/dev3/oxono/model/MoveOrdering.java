@@ -0,0 +1,254 @@
+package g62727.dev3.oxono.model;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Orders the turns of a position so the alpha-beta search tries the most promising ones first and cuts off sooner
+ * In order : the turn remembered by the transposition table, the winning turns, the turns blocking a win of the
+ * opponent, the killer turns of the ply (turns that caused a cutoff in a sibling position), then the others by
+ * their history score (how often and how deep they caused cutoffs)
+ * The wins and blocks only depend on the insertion cell, they are computed once per cell and position
+ * Every ply owns its own score buffer, nothing is allocated once the buffers reached their size
+ * Not thread-safe, every search thread has to use its own MoveOrdering
+ */
+public final class MoveOrdering {
+    /**
+     * Attributes of the MoveOrdering class
+     */
+    private static final int HASH_SCORE = 1 << 30;
+    private static final int WIN_SCORE = 1 << 29;
+    private static final int BLOCK_SCORE = 1 << 28;
+    private static final int KILLER_SCORE = 1 << 27;
+    private static final int MAX_HISTORY = 1 << 26;
+    private static final int HISTORY_BITS = 16;
+    private static final int VARIATION = 1 << 10;
+    private static final byte WINS_WITH_O = 1;
+    private static final byte WINS_WITH_X = 2;
+    private static final byte BLOCKS = 4;
+    private static final byte COMPUTED = 8;
+    private final Oxono oxono;
+    private final int[][] scores;
+    private final int[][] killers;
+    private final boolean[] ordered;
+    private final int[] history;
+    private final int[] cellStamps;
+    private final byte[] cellFlags;
+    private int stamp;
+
+    /**
+     * Constructor to instantiate the ordering of the turns of a search
+     *
+     * @param oxono - the game the search plays in
+     * @param plies - the maximum number of plies of the search
+     */
+    MoveOrdering(Oxono oxono, int plies) {
+        this.oxono = oxono;
+        this.scores = new int[plies][0];
+        this.killers = new int[plies][2];
+        this.ordered = new boolean[plies];
+        this.history = new int[1 << HISTORY_BITS];
+        this.cellStamps = new int[oxono.getGeometry().getCells()];
+        this.cellFlags = new byte[oxono.getGeometry().getCells()];
+        for (int[] killer : this.killers) {
+            killer[0] = killer[1] = PackedMove.NONE;
+        }
+    }
+
+    /**
+     * Method preparing a new search : the killers are forgotten and the history faded so the results of the
+     * previous positions don't outweigh the new ones
+     */
+    void newSearch() {
+        for (int[] killer : this.killers) {
+            killer[0] = killer[1] = PackedMove.NONE;
+        }
+        for (int i = 0; i < this.history.length; i++) {
+            this.history[i] >>= 1;
+        }
+    }
+
+    /**
+     * Method forgetting the killers and the whole history, for a new game
+     */
+    void clear() {
+        for (int[] killer : this.killers) {
+            killer[0] = killer[1] = PackedMove.NONE;
+        }
+        Arrays.fill(this.history, 0);
+    }
+
+    /**
+     * Method scoring every turn of a ply before they are picked by next
+     *
+     * @param color    - the color of the player to play
+     * @param ply      - the distance from the root of the search
+     * @param moves    - the turns of the ply encoded as PackedMove
+     * @param count    - the number of turns
+     * @param hashMove - the turn remembered by the transposition table, PackedMove.NONE if there's none
+     */
+    void score(Color color, int ply, int[] moves, int count, int hashMove) {
+        if (this.scores[ply].length < count) {
+            this.scores[ply] = new int[moves.length];
+        }
+        int[] plyScores = this.scores[ply];
+        this.ordered[ply] = false;
+        nextStamp();
+        int[] killer = this.killers[ply];
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            int score;
+            if (move == hashMove) {
+                score = HASH_SCORE;
+            } else {
+                int flags = cellFlags(PackedMove.getInsert(move), color);
+                if ((flags & (PackedMove.getSymbol(move) == Symbol.O ? WINS_WITH_O : WINS_WITH_X)) != 0) {
+                    score = WIN_SCORE;
+                } else if ((flags & BLOCKS) != 0) {
+                    score = BLOCK_SCORE;
+                } else if (move == killer[0]) {
+                    score = KILLER_SCORE;
+                } else if (move == killer[1]) {
+                    score = KILLER_SCORE - 1;
+                } else {
+                    score = this.history[historyIndex(move)];
+                }
+            }
+            plyScores[i] = score;
+        }
+    }
+
+    /**
+     * Method adding a small pseudo-random amount to the scores of the turns of a ply without any other priority,
+     * so several threads searching the same position try them in different orders
+     *
+     * @param ply    - the distance from the root of the search
+     * @param count  - the number of turns, already scored
+     * @param random - the source of the amounts
+     */
+    void vary(int ply, int count, SplittableRandom random) {
+        int[] plyScores = this.scores[ply];
+        for (int i = 0; i < count; i++) {
+            if (plyScores[i] < KILLER_SCORE - 1) {
+                plyScores[i] += random.nextInt(VARIATION);
+            }
+        }
+    }
+
+    /**
+     * Private helper method invalidating the cell flags computed for the previous position
+     */
+    private void nextStamp() {
+        if (++this.stamp == 0) {
+            Arrays.fill(this.cellStamps, 0);
+            this.stamp = 1;
+        }
+    }
+
+    /**
+     * Private helper method returning what inserting a token on a cell would do, computed once per position
+     * @param cell - the index of the insertion cell
+     * @param color - the color of the player to play
+     * @return the flags WINS_WITH_O, WINS_WITH_X and BLOCKS of the cell
+     */
+    private int cellFlags(int cell, Color color) {
+        if (this.cellStamps[cell] == this.stamp) {
+            return this.cellFlags[cell];
+        }
+        Color opponent = (color == Color.PINK) ? Color.BLACK : Color.PINK;
+        Player player = (opponent == Color.PINK) ? this.oxono.getPink() : this.oxono.getBlack();
+        int flags = COMPUTED;
+        if (this.oxono.completesLine(cell, color, Symbol.O)) {
+            flags |= WINS_WITH_O;
+        }
+        if (this.oxono.completesLine(cell, color, Symbol.X)) {
+            flags |= WINS_WITH_X;
+        }
+        if ((player.getTokensO() > 0 && this.oxono.completesLine(cell, opponent, Symbol.O))
+                || (player.getTokensX() > 0 && this.oxono.completesLine(cell, opponent, Symbol.X))) {
+            flags |= BLOCKS;
+        }
+        this.cellStamps[cell] = this.stamp;
+        this.cellFlags[cell] = (byte) flags;
+        return flags;
+    }
+
+    /**
+     * Method moving the best scored turn among the ones not tried yet to the given index
+     * A selection rather than a full sort, most positions are cut off after a few turns, and once only turns
+     * without any score are left they are simply taken in their order
+     *
+     * @param ply   - the distance from the root of the search
+     * @param moves - the turns of the ply
+     * @param index - the index of the next turn to try
+     * @param count - the number of turns
+     * @return the turn to try
+     */
+    int next(int ply, int[] moves, int index, int count) {
+        if (this.ordered[ply]) {
+            return moves[index];
+        }
+        int[] plyScores = this.scores[ply];
+        int best = index;
+        for (int i = index + 1; i < count; i++) {
+            if (plyScores[i] > plyScores[best]) {
+                best = i;
+            }
+        }
+        if (plyScores[best] == 0) {
+            this.ordered[ply] = true;
+        }
+        int move = moves[best];
+        moves[best] = moves[index];
+        moves[index] = move;
+        int score = plyScores[best];
+        plyScores[best] = plyScores[index];
+        plyScores[index] = score;
+        return move;
+    }
+
+    /**
+     * Method checking whether a turn picked by next had no other priority than its history : neither remembered
+     * by the transposition table, nor winning, nor blocking, nor a killer
+     *
+     * @param ply   - the distance from the root of the search
+     * @param index - the index of the turn in the ply, after next picked it
+     * @return true if the turn is quiet, false otherwise
+     */
+    boolean isQuiet(int ply, int index) {
+        return this.scores[ply][index] < KILLER_SCORE - 1;
+    }
+
+    /**
+     * Method remembering a turn that caused a cutoff, as a killer of its ply and in the history
+     * Winning turns aren't remembered, they are found again anyway
+     *
+     * @param ply   - the distance from the root of the search
+     * @param index - the index of the turn in the ply, after next picked it
+     * @param move  - the turn
+     * @param depth - the number of turns that were left to look ahead
+     */
+    void cutoff(int ply, int index, int move, int depth) {
+        if (this.scores[ply][index] >= BLOCK_SCORE && this.scores[ply][index] < HASH_SCORE) {
+            return;
+        }
+        int[] killer = this.killers[ply];
+        if (killer[0] != move) {
+            killer[1] = killer[0];
+            killer[0] = move;
+        }
+        int slot = historyIndex(move);
+        this.history[slot] = Math.min(MAX_HISTORY, this.history[slot] + depth * depth);
+    }
+
+    /**
+     * Private helper method returning the history slot of a turn
+     * The packed turns are hashed in a fixed size table whatever the size of the board, a collision only makes
+     * the ordering slightly worse
+     * @param move - the turn encoded as PackedMove
+     * @return the index of its slot in the history
+     */
+    private static int historyIndex(int move) {
+        return (move * 0x9E3779B1) >>> (Integer.SIZE - HISTORY_BITS);
+    }
+}
@@ -0,0 +1,274 @@
+package g62727.dev3.oxono.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Represents a book of opening turns for a board of a given size, read from a binary file mapped in memory
+ * The file starts with a header (magic number, version, size of the board, number of entries) followed by entries
+ * of 16 bytes sorted by the Zobrist key of their position : the key, the turn encoded as PackedMove, its score
+ * and the number of games it was played in. A position can have several entries, one per turn
+ * The positions are stored in their canonical form (Symmetry) : the key is the canonical key and the turn is
+ * the image of the turn in the canonical form, mapped back to the actual position when probed
+ * A position is looked up by a binary search on the mapped file, so opening a book costs nothing and a probe
+ * only reads the few pages it touches. The book is only read once built, so it can be probed by several threads
+ */
+public final class OpeningBook {
+    /**
+     * Number identifying the files of opening books ("OXBK")
+     */
+    static final int MAGIC = 0x4F58424B;
+    /**
+     * Version of the format of the files
+     */
+    static final int VERSION = 2;
+    /**
+     * Attributes of the OpeningBook class
+     */
+    private static final int HEADER_BYTES = 16;
+    private static final int ENTRY_BYTES = 16;
+    private static final int MAX_VISITS = 0xFFFF;
+    private static final String DIRECTORY_PROPERTY = "oxono.books";
+    private static final String DEFAULT_DIRECTORY = "books";
+    private final MappedByteBuffer buffer;
+    private final int size;
+    private final int entries;
+
+    /**
+     * Private constructor wrapping a mapped file whose header was checked
+     * @param buffer - the mapped file
+     * @param size - the size of the board of the book
+     * @param entries - the number of entries of the book
+     */
+    private OpeningBook(MappedByteBuffer buffer, int size, int entries) {
+        this.buffer = buffer;
+        this.size = size;
+        this.entries = entries;
+    }
+
+    /**
+     * Method mapping the book stored in the given file in memory
+     *
+     * @param path - the file of the book
+     * @return the book
+     * @throws IOException if the file can't be read
+     * @throws IllegalArgumentException if the file isn't a book or is truncated
+     */
+    static OpeningBook open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_BYTES) {
+                throw new IllegalArgumentException("Not an opening book : " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IllegalArgumentException("Not an opening book : " + path);
+            }
+            int size = buffer.getInt(8);
+            int entries = buffer.getInt(12);
+            if (entries < 0 || length != HEADER_BYTES + (long) entries * ENTRY_BYTES) {
+                throw new IllegalArgumentException("Truncated opening book : " + path);
+            }
+            return new OpeningBook(buffer, size, entries);
+        }
+    }
+
+    /**
+     * Method returning the file the book of the given size of board is looked for in : "oxono-<size>.book" in the
+     * directory given by the system property "oxono.books", "books" by default
+     *
+     * @param size - the size of the board
+     * @return the path of the book
+     */
+    static Path pathFor(int size) {
+        return Path.of(System.getProperty(DIRECTORY_PROPERTY, DEFAULT_DIRECTORY), "oxono-" + size + ".book");
+    }
+
+    /**
+     * Method opening the book of the given size of board, if there's one
+     * The strategies play without a book when it's missing or unreadable
+     *
+     * @param size - the size of the board
+     * @return the book, null if there's no readable book for that size
+     */
+    static OpeningBook forSize(int size) {
+        Path path = pathFor(size);
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        try {
+            OpeningBook book = open(path);
+            return (book.getSize() == size) ? book : null;
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Method writing a book to the given file, the entries being sorted by key on the way
+     * The arrays describe one entry per index, a turn played in more games than an entry can count is capped
+     *
+     * @param path   - the file to write
+     * @param size   - the size of the board of the book
+     * @param keys   - the canonical Zobrist keys of the positions
+     * @param moves  - the turns in the canonical form of their positions, encoded as PackedMove
+     * @param scores - the scores of the turns, from the point of view of the player playing them
+     * @param visits - the number of games every turn was played in
+     * @throws IOException if the file can't be written
+     * @throws IllegalArgumentException if the arrays don't have the same length
+     */
+    static void write(Path path, int size, long[] keys, int[] moves, short[] scores, int[] visits) throws IOException {
+        int entries = keys.length;
+        if (moves.length != entries || scores.length != entries || visits.length != entries) {
+            throw new IllegalArgumentException("Entries of different lengths");
+        }
+        Integer[] order = new Integer[entries];
+        for (int i = 0; i < entries; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> keys[i]));
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + entries * ENTRY_BYTES);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(size).putInt(entries);
+        for (int i : order) {
+            buffer.putLong(keys[i]).putInt(moves[i]).putShort(scores[i]).putChar((char) Math.min(visits[i], MAX_VISITS));
+        }
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Getter returning the size of the board of the book
+     *
+     * @return the size of the board
+     */
+    int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Getter returning the number of entries of the book
+     *
+     * @return the number of entries
+     */
+    int getEntries() {
+        return this.entries;
+    }
+
+    /**
+     * Method looking the current position up in the book : among the turns of the position, the one played in the
+     * most games, then with the best score
+     * Only turns among the given legal turns are returned, so a collision of keys can't play an illegal turn
+     *
+     * @param oxono  - the game
+     * @param color  - the color of the player to play
+     * @param moves  - the legal turns of the position
+     * @param count  - the number of legal turns
+     * @return the turn of the book encoded as PackedMove, PackedMove.NONE if the position isn't in the book
+     */
+    int probe(Oxono oxono, Color color, int[] moves, int count) {
+        if (oxono.getBoardSize() != this.size) {
+            return PackedMove.NONE;
+        }
+        Symmetry symmetry = oxono.getGeometry().getSymmetry();
+        int transform = symmetry.canonicalTransform(oxono, color);
+        int inverse = Symmetry.inverse(transform);
+        long key = symmetry.key(oxono, color, transform);
+        int best = PackedMove.NONE;
+        int bestVisits = -1;
+        int bestScore = Integer.MIN_VALUE;
+        for (int i = lowerBound(key); i < this.entries && keyAt(i) == key; i++) {
+            int move = symmetry.move(inverse, moveAt(i));
+            int visits = visitsAt(i);
+            int score = scoreAt(i);
+            if ((visits > bestVisits || (visits == bestVisits && score > bestScore)) && contains(moves, count, move)) {
+                best = move;
+                bestVisits = visits;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Private helper method searching the first entry whose key isn't below the given one (binary search)
+     * @param key - the key to look for
+     * @return the index of the entry, the number of entries if every key is below
+     */
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = this.entries;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keyAt(middle) < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Private helper method reading the key of an entry
+     * @param index - the index of the entry
+     * @return the Zobrist key of its position
+     */
+    private long keyAt(int index) {
+        return this.buffer.getLong(HEADER_BYTES + index * ENTRY_BYTES);
+    }
+
+    /**
+     * Private helper method reading the turn of an entry
+     * @param index - the index of the entry
+     * @return the turn encoded as PackedMove
+     */
+    private int moveAt(int index) {
+        return this.buffer.getInt(HEADER_BYTES + index * ENTRY_BYTES + 8);
+    }
+
+    /**
+     * Private helper method reading the score of an entry
+     * @param index - the index of the entry
+     * @return the score of the turn
+     */
+    private int scoreAt(int index) {
+        return this.buffer.getShort(HEADER_BYTES + index * ENTRY_BYTES + 12);
+    }
+
+    /**
+     * Private helper method reading the number of games of an entry
+     * @param index - the index of the entry
+     * @return the number of games the turn was played in
+     */
+    private int visitsAt(int index) {
+        return this.buffer.getChar(HEADER_BYTES + index * ENTRY_BYTES + 14);
+    }
+
+    /**
+     * Private helper method checking whether a turn is among the given turns
+     * @param moves - the turns
+     * @param count - the number of turns
+     * @param move - the turn to look for
+     * @return true if it's the case, false otherwise
+     */
+    private static boolean contains(int[] moves, int count, int move) {
+        for (int i = 0; i < count; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
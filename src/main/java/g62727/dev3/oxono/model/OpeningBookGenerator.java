@@ -0,0 +1,184 @@
+package g62727.dev3.oxono.model;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Builds the opening books offline by playing games of the minimax strategy against itself on several threads
+ * Every game is searched from the start to the end, the turns of its first plies being now and then replaced by
+ * random turns so the games spread over the openings. Every turn played in the first plies is counted with the
+ * result of its game, and the book keeps for every position the number of games each turn was played in and its
+ * average result. The positions and their turns are stored in their canonical form (Symmetry), so the games
+ * reaching rotated or reflected images of a position count for the same entries
+ * Usage : OpeningBookGenerator [size] [plies] [games] [milliseconds per turn] [file]
+ */
+public final class OpeningBookGenerator {
+    /**
+     * Attributes of the OpeningBookGenerator class
+     */
+    private static final int DEFAULT_SIZE = 6;
+    private static final int DEFAULT_PLIES = 8;
+    private static final int DEFAULT_GAMES = 256;
+    private static final long DEFAULT_MILLIS = 200;
+    private static final int GAME_TABLE_MEGABYTES = 4;
+    private static final int RANDOM_TURN_ODDS = 4;
+    private static final int SCORE_SCALE = 1_000;
+    private static final int INITIAL_BUFFER_SIZE = 256;
+
+    /**
+     * Private constructor, the generator is only used through its static methods
+     */
+    private OpeningBookGenerator() {
+    }
+
+    /**
+     * Entry point generating the book of one size of board
+     * @param args - the size of the board, the number of plies of the book, the number of games, the time of a
+     *             turn in milliseconds and the file to write, all optional
+     * @throws IOException if the book can't be written
+     */
+    public static void main(String[] args) throws IOException {
+        int size = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_SIZE;
+        int plies = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_PLIES;
+        int games = (args.length > 2) ? Integer.parseInt(args[2]) : DEFAULT_GAMES;
+        long millis = (args.length > 3) ? Long.parseLong(args[3]) : DEFAULT_MILLIS;
+        Path path = (args.length > 4) ? Path.of(args[4]) : OpeningBook.pathFor(size);
+        long start = System.nanoTime();
+        int entries = generate(size, plies, games, Runtime.getRuntime().availableProcessors(),
+                SearchLimits.millis(millis), 1, path);
+        System.out.printf("%d entries from %d games written to %s in %.1f s%n", entries, games, path,
+                (System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * Method playing the games and writing the book built from them
+     *
+     * @param size    - the size of the board
+     * @param plies   - the number of plies from the start kept in the book
+     * @param games   - the number of games to play
+     * @param threads - the number of threads playing the games
+     * @param limits  - the limits of the search of every turn
+     * @param seed    - the seed of the random turns, the same seed and limits giving the same book
+     * @param path    - the file to write the book to
+     * @return the number of entries of the book
+     * @throws IOException if the book can't be written
+     * @throws IllegalArgumentException if the number of threads isn't strictly positive
+     */
+    static int generate(int size, int plies, int games, int threads, SearchLimits limits, long seed, Path path)
+            throws IOException {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Invalid number of threads : " + threads);
+        }
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        List<GameRecord> records;
+        try {
+            records = pool.submit(() -> IntStream.range(0, games).parallel()
+                    .mapToObj(game -> playGame(size, plies, limits, seed + game)).toList()).join();
+        } finally {
+            pool.shutdown();
+        }
+        Map<Long, Map<Integer, int[]>> statistics = new HashMap<>();
+        for (GameRecord record : records) {
+            for (int ply = 0; ply < record.plies; ply++) {
+                int[] turn = statistics.computeIfAbsent(record.keys[ply], key -> new HashMap<>())
+                        .computeIfAbsent(record.moves[ply], move -> new int[2]);
+                turn[0]++;
+                turn[1] += (record.winner == null) ? 0 : (record.winner == record.movers[ply]) ? 1 : -1;
+            }
+        }
+        List<long[]> entries = new ArrayList<>();
+        statistics.forEach((key, turns) -> turns.forEach((move, turn) ->
+                entries.add(new long[]{key, move, turn[1] * SCORE_SCALE / turn[0], turn[0]})));
+        int count = entries.size();
+        long[] keys = new long[count];
+        int[] moves = new int[count];
+        short[] scores = new short[count];
+        int[] visits = new int[count];
+        for (int i = 0; i < count; i++) {
+            long[] entry = entries.get(i);
+            keys[i] = entry[0];
+            moves[i] = (int) entry[1];
+            scores[i] = (short) entry[2];
+            visits[i] = (int) entry[3];
+        }
+        OpeningBook.write(path, size, keys, moves, scores, visits);
+        return count;
+    }
+
+    /**
+     * Private helper method playing one game of the strategy against itself, remembering its first plies
+     * @param size - the size of the board
+     * @param plies - the number of plies from the start to remember
+     * @param limits - the limits of the search of every turn
+     * @param seed - the seed of the random turns of the game
+     * @return the first plies and the result of the game
+     */
+    private static GameRecord playGame(int size, int plies, SearchLimits limits, long seed) {
+        Oxono game = new Oxono(size);
+        MiniMaxStrategy strategy = new MiniMaxStrategy(limits, game, new TranspositionTable(GAME_TABLE_MEGABYTES));
+        SplittableRandom random = new SplittableRandom(seed);
+        GameRecord record = new GameRecord(plies);
+        int[] moves = new int[INITIAL_BUFFER_SIZE];
+        Color color = game.getToPlay().getColor();
+        for (int ply = 0; ; ply++) {
+            int count = game.generateMoves(color, moves);
+            if (count > moves.length) {
+                moves = new int[count];
+                count = game.generateMoves(color, moves);
+            }
+            if (count == 0) {
+                return record;
+            }
+            int move = (ply < plies && random.nextInt(RANDOM_TURN_ODDS) == 0)
+                    ? moves[random.nextInt(count)] : strategy.findBestMove(color);
+            if (ply < plies) {
+                Symmetry symmetry = game.getGeometry().getSymmetry();
+                int transform = symmetry.canonicalTransform(game, color);
+                record.keys[ply] = symmetry.key(game, color, transform);
+                record.moves[ply] = symmetry.move(transform, move);
+                record.movers[ply] = color;
+                record.plies++;
+            }
+            game.makeMove(move);
+            if (game.lastMoveWins()) {
+                record.winner = color;
+                return record;
+            }
+            if (game.isDraw()) {
+                return record;
+            }
+            color = game.getToPlay().getColor();
+        }
+    }
+
+    /**
+     * Represents the first plies of a played game and its result
+     */
+    private static final class GameRecord {
+        /**
+         * Attributes of the GameRecord class
+         */
+        private final long[] keys;
+        private final int[] moves;
+        private final Color[] movers;
+        private int plies;
+        private Color winner;
+
+        /**
+         * Constructor to instantiate the record of a game
+         * @param plies - the maximum number of plies to remember
+         */
+        private GameRecord(int plies) {
+            this.keys = new long[plies];
+            this.moves = new int[plies];
+            this.movers = new Color[plies];
+        }
+    }
+}
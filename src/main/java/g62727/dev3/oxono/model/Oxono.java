@@ -4,24 +4,31 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
-import static g62727.dev3.oxono.model.Board.BOARD_SIZE;
-
 /**
  * Class representing the rules of OXONO
  * How and when a totem can move or jump
  * How and when a token should be inserted
  * When does the game finish by a win or a draw
+ * The searches play on their own copy of the game through makeMove and unmakeMove, which only change the board,
+ * the tokens left and the player to play, never the state of the game shown to the players
  */
 public class Oxono {
     /**
      * Attributes of the Rules class
      */
     private Board board;
+    private final BoardGeometry geometry;
+    private final int[] destinationScratch;
+    private final int[] insertScratch;
+    private final int[] playedMoves;
+    private final int[] previousTotemCells;
+    private int plies;
     private Player pink;
     private Player black;
     private GameState gameState;
-    private static final int WIN_CONDITION = 4;
-    private static int INITIAL_TOKEN_COUNT = 8;
+    static final int WIN_CONDITION = 4;
+    private static final int[][] DIRECTIONS = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+    static final int INITIAL_TOKEN_COUNT = 8;
     private int playerScore;
     private int computerScore;
     private Symbol lastMovedTotemSymbol;
@@ -34,8 +41,12 @@ public class Oxono {
      * @param size - the size of the board to play on
      */
     Oxono(int size) {
-        this.board = new Board(size);
-        this.board.setBoardSize(size);
+        this.geometry = BoardGeometry.of(size);
+        this.board = new Board(this.geometry);
+        this.destinationScratch = new int[this.geometry.getCells()];
+        this.insertScratch = new int[this.geometry.getCells()];
+        this.playedMoves = new int[this.geometry.getCells()];
+        this.previousTotemCells = new int[this.geometry.getCells()];
         this.black = new Player(Color.BLACK, INITIAL_TOKEN_COUNT, INITIAL_TOKEN_COUNT, null);
         this.pink = new Player(Color.PINK, INITIAL_TOKEN_COUNT, INITIAL_TOKEN_COUNT, null);
         this.gameState = GameState.MOVE;
@@ -48,7 +59,15 @@ public class Oxono {
      * @return The size of the game board
      */
     int getBoardSize() {
-        return this.board.getBoardSize();
+        return this.geometry.getSize();
+    }
+
+    /**
+     * Gets the immutable geometry of the game board, owned by this game only.
+     * @return The geometry of the game board
+     */
+    BoardGeometry getGeometry() {
+        return this.geometry;
     }
 
     /**
@@ -111,6 +130,203 @@ public class Oxono {
         this.board.removePawn(position);
     }
 
+    /**
+     * Moves the totem of the given symbol directly on the board masks.
+     * @param symbol The symbol of the totem to move
+     * @param cell The index of the destination cell
+     */
+    void moveTotem(Symbol symbol, int cell) {
+        this.board.moveTotem(symbol, cell);
+    }
+
+    /**
+     * Inserts a token directly in the board masks, without creating any Token object.
+     * @param symbol The symbol of the token
+     * @param color The color of the token
+     * @param cell The index of the cell to insert the token on
+     */
+    void insertToken(Symbol symbol, Color color, int cell) {
+        this.board.insertToken(symbol, color, cell);
+    }
+
+    /**
+     * Removes the token of the specified cell directly from the board masks.
+     * @param cell The index of the cell to clear
+     */
+    void removeToken(int cell) {
+        this.board.removeToken(cell);
+    }
+
+    /**
+     * Gets the index of the cell holding the totem of the given symbol.
+     * @param symbol The symbol of the totem
+     * @return The index of its cell
+     */
+    int getTotemCell(Symbol symbol) {
+        return this.board.getTotemCell(symbol);
+    }
+
+    /**
+     * Copies the position of another game of the same size : the totems, the tokens, the tokens left to the
+     * players and the player to play. The tokens are copied in the board masks only, without any Token object.
+     * Used to give every search thread its own copy of the game.
+     * @param other The game to copy the position of
+     * @throws IllegalArgumentException if the other game isn't played on a board of the same size
+     */
+    void copyPosition(Oxono other) {
+        if (other.geometry.getCells() != this.geometry.getCells()) {
+            throw new IllegalArgumentException("Can't copy a board of size " + other.getBoardSize());
+        }
+        this.board.copyFrom(other.board);
+        copyPlayers(other);
+    }
+
+    /**
+     * Copies the image of the position of another game of the same size under a rotation or a reflection of the
+     * board (see Symmetry) : every totem and token lands on the image of its cell.
+     * @param other The game to copy the position of
+     * @param transform The index of the transform
+     * @throws IllegalArgumentException if the other game isn't played on a board of the same size
+     */
+    void copyPosition(Oxono other, int transform) {
+        if (other.geometry.getCells() != this.geometry.getCells()) {
+            throw new IllegalArgumentException("Can't copy a board of size " + other.getBoardSize());
+        }
+        Symmetry symmetry = this.geometry.getSymmetry();
+        for (int cell = 0; cell < this.geometry.getCells(); cell++) {
+            this.board.removeToken(cell);
+        }
+        int totemO = symmetry.cell(transform, other.getTotemCell(Symbol.O));
+        int totemX = symmetry.cell(transform, other.getTotemCell(Symbol.X));
+        int parking = 0;
+        while (!this.board.isEmptyCell(parking) || parking == totemX) {
+            parking++;
+        }
+        this.board.moveTotem(Symbol.O, parking);
+        this.board.moveTotem(Symbol.X, totemX);
+        this.board.moveTotem(Symbol.O, totemO);
+        for (int cell = 0; cell < this.geometry.getCells(); cell++) {
+            if (other.isTokenCell(cell)) {
+                this.board.insertToken(other.getSymbolAt(cell), other.getColorAt(cell), symmetry.cell(transform, cell));
+            }
+        }
+        copyPlayers(other);
+    }
+
+    /**
+     * Copies the tokens left to the players and the player to play of another game, and forgets the turns played
+     * by makeMove.
+     * @param other The game to copy the players of
+     */
+    private void copyPlayers(Oxono other) {
+        this.pink.setTokens(other.pink.getTokensO(), other.pink.getTokensX());
+        this.black.setTokens(other.black.getTokensO(), other.black.getTokensX());
+        this.toPlay = (other.toPlay.getColor() == Color.PINK) ? this.pink : this.black;
+        this.plies = 0;
+    }
+
+    /**
+     * Creates a new game holding a copy of the position of this one, to be searched by another thread.
+     * Only the masks of the board and the counters are copied, whatever the number of tokens on the board.
+     * @return The copy
+     */
+    Oxono copy() {
+        Oxono copy = new Oxono(getBoardSize());
+        copy.copyPosition(this);
+        return copy;
+    }
+
+    /**
+     * Plays a turn for the player to play : moves the totem, inserts the token, draws it from the player and gives
+     * the turn to the opponent. The previous cell of the totem is pushed on a stack so unmakeMove can undo it.
+     * Doesn't check the turn is legal and doesn't touch the state of the game (phase, scores, winner).
+     * @param move The turn encoded as PackedMove
+     */
+    void makeMove(int move) {
+        Symbol symbol = PackedMove.getSymbol(move);
+        this.playedMoves[this.plies] = move;
+        this.previousTotemCells[this.plies] = this.board.getTotemCell(symbol);
+        this.plies++;
+        this.board.moveTotem(symbol, PackedMove.getDestination(move));
+        this.board.insertToken(symbol, this.toPlay.getColor(), PackedMove.getInsert(move));
+        if (symbol == Symbol.O) {
+            this.toPlay.drawO();
+        } else {
+            this.toPlay.drawX();
+        }
+        this.toPlay = (this.toPlay == this.pink) ? this.black : this.pink;
+    }
+
+    /**
+     * Undoes the last turn played by makeMove, giving the turn back to the player who played it.
+     */
+    void unmakeMove() {
+        this.plies--;
+        int move = this.playedMoves[this.plies];
+        Symbol symbol = PackedMove.getSymbol(move);
+        this.toPlay = (this.toPlay == this.pink) ? this.black : this.pink;
+        this.board.removeToken(PackedMove.getInsert(move));
+        this.board.moveTotem(symbol, this.previousTotemCells[this.plies]);
+        if (symbol == Symbol.O) {
+            this.toPlay.addO();
+        } else {
+            this.toPlay.addX();
+        }
+    }
+
+    /**
+     * Checks whether the last turn played by makeMove completed an alignment, without any side effect.
+     * @return true if the player who played it won, false otherwise or if no turn was played
+     */
+    boolean lastMoveWins() {
+        return this.plies > 0 && findWinningLine(PackedMove.getInsert(this.playedMoves[this.plies - 1])) != PackedLine.NONE;
+    }
+
+    /**
+     * Gives the turn to the player of the given color, used by the searches on their own copy of the game.
+     * @param color The color of the player to play
+     */
+    void setToPlay(Color color) {
+        this.toPlay = (color == Color.PINK) ? this.pink : this.black;
+    }
+
+    /**
+     * Checks whether a cell holds a token.
+     * @param cell The index of the cell
+     * @return true if the cell holds a token, false if it's free or holds a totem
+     */
+    boolean isTokenCell(int cell) {
+        return this.board.isTokenCell(cell);
+    }
+
+    /**
+     * Gets the color of the token on a cell.
+     * @param cell The index of the cell, holding a token
+     * @return The color of the token
+     */
+    Color getColorAt(int cell) {
+        return this.board.getColorAt(cell);
+    }
+
+    /**
+     * Gets the symbol of the token on a cell.
+     * @param cell The index of the cell, holding a token
+     * @return The symbol of the token
+     */
+    Symbol getSymbolAt(int cell) {
+        return this.board.getSymbolAt(cell);
+    }
+
+    /**
+     * Converts coordinates to the index of their cell on the board.
+     * @param row The row of the cell
+     * @param col The column of the cell
+     * @return The index of the cell
+     */
+    int cellOf(int row, int col) {
+        return this.board.cellOf(row, col);
+    }
+
     /**
      * Gets the position of the O totem.
      * @return The position of the O totem
@@ -296,12 +512,9 @@ public class Oxono {
      * @return every single move valid for the totem to play
      */
     List<Position> getValidMoves(Position currentPos) {
-        List<Position> moves = new ArrayList<>();
-        int[][] directions = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
-        normalMoves(directions, currentPos.getRow(), currentPos.getCol(), moves);
-        if (moves.isEmpty()) jumpMoves(directions, currentPos.getRow(), currentPos.getCol(), moves);
-        if (moves.isEmpty()) anywhereTotem(moves, currentPos.getRow(), currentPos.getCol());
-        return Collections.unmodifiableList(moves);
+        int[] cells = new int[this.geometry.getCells()];
+        int count = totemDestinations(this.board.cellOf(currentPos.getRow(), currentPos.getCol()), cells);
+        return Collections.unmodifiableList(toPositions(cells, count));
     }
 
     /**
@@ -311,166 +524,228 @@ public class Oxono {
      * @return the list of valid positions the totem can move to
      */
     List<Position> getValidMoves(Totem totem) {
-        List<Position> validMoves = new ArrayList<>();
-        for (int row = 0; row < BOARD_SIZE; row++) {
-            for (int col = 0; col < BOARD_SIZE; col++) {
-                Position position = new Position(row, col);
-                if (isValidMove(totem, position)) {
-                    validMoves.add(position);
+        return getValidMoves(this.board.getTotemPosition(totem));
+    }
+
+    /**
+     * Method filling the given buffer with every turn the player of the given color can play, encoded as PackedMove
+     * A turn is the move of a totem the player still has tokens of, followed by the insertion of a token next to
+     * the totem at its new place (so the cell the totem leaves is free for the insertion)
+     * Nothing is allocated, the buffer is only written within its bounds
+     *
+     * @param color  - the color of the player to play
+     * @param buffer - the buffer receiving the turns
+     * @return the number of turns, a bigger buffer is needed if it exceeds its length
+     */
+    int generateMoves(Color color, int[] buffer) {
+        Player player = (color == Color.PINK) ? this.pink : this.black;
+        int count = 0;
+        if (player.getTokensO() > 0) {
+            count = generateMovesForTotem(Symbol.O, buffer, count);
+        }
+        if (player.getTokensX() > 0) {
+            count = generateMovesForTotem(Symbol.X, buffer, count);
+        }
+        return count;
+    }
+
+    /**
+     * Private helper method appending every turn played with the totem of the given symbol to the buffer
+     * The totem is temporarily moved on the board to compute the insertions, then put back
+     * @param symbol - the symbol of the totem to move
+     * @param buffer - the buffer receiving the turns
+     * @param count - the number of turns already generated
+     * @return the new number of turns
+     */
+    private int generateMovesForTotem(Symbol symbol, int[] buffer, int count) {
+        int from = this.board.getTotemCell(symbol);
+        int destinations = totemDestinations(from, this.destinationScratch);
+        for (int i = 0; i < destinations; i++) {
+            int destination = this.destinationScratch[i];
+            this.board.moveTotem(symbol, destination);
+            int inserts = insertCells(destination, this.insertScratch);
+            for (int j = 0; j < inserts; j++) {
+                if (count < buffer.length) {
+                    buffer[count] = PackedMove.pack(symbol, destination, this.insertScratch[j]);
                 }
+                count++;
             }
         }
-        return Collections.unmodifiableList(validMoves);
+        this.board.moveTotem(symbol, from);
+        return count;
+    }
+
+    /**
+     * Private helper method filling the given array with every cell a totem standing on a cell can move to
+     * Slides first, jumps when the totem is stuck by its adjacent cases, anywhere when it can't even jump
+     * @param from - the index of the cell of the totem
+     * @param out - the array receiving the destination cells
+     * @return the number of destination cells
+     */
+    private int totemDestinations(int from, int[] out) {
+        int row = this.geometry.rowOf(from);
+        int col = this.geometry.colOf(from);
+        int count = normalMoves(row, col, out);
+        if (count == 0) count = jumpMoves(row, col, out);
+        if (count == 0) count = anywhereTotem(from, out);
+        return count;
+    }
+
+    /**
+     * Private helper method checking whether a cell is on the board and empty
+     * @param row - the row of the cell
+     * @param col - the column of the cell
+     * @return true if it's the case, false otherwise
+     */
+    private boolean isFreeCell(int row, int col) {
+        return this.geometry.isValidPosition(row, col) && this.board.isEmptyCell(this.geometry.cellOf(row, col));
     }
 
     /**
      * Private helper method determining valid normal moves for the totem
-     * @param directions - the directions to explore
      * @param row - the current row of the totem
      * @param col - the current column of the totem
-     * @param listOfCoord - the list of every single valid move
+     * @param out - the array receiving the destination cells
+     * @return the number of destination cells
      */
-    private void normalMoves(int [][] directions, int row, int col, List<Position> listOfCoord) {
-        for (int[] dir : directions) {
+    private int normalMoves(int row, int col, int[] out) {
+        int count = 0;
+        for (int[] dir : DIRECTIONS) {
             int newRow = row + dir[0];
             int newCol = col + dir[1];
-            if (this.board.isValidPosition(newRow, newCol)) {
-                if (this.board.isEmpty(new Position(newRow, newCol))) {
-                    while (this.board.isValidPosition(newRow, newCol)
-                            && this.board.isEmpty(new Position(newRow, newCol))) {
-                        listOfCoord.add(new Position(newRow, newCol));
-                        newRow += dir[0];
-                        newCol += dir[1];
-                    }
-                }
+            while (isFreeCell(newRow, newCol)) {
+                out[count++] = this.geometry.cellOf(newRow, newCol);
+                newRow += dir[0];
+                newCol += dir[1];
             }
         }
+        return count;
     }
 
     /**
      * Private helper method determining valid jumps when the totem is stuck in every adjacent case
-     * @param directions - the directions to explore
      * @param row - the current row of the totem
      * @param col - the current column of the totem
-     * @param listOfCoord - the list of every single valid move
+     * @param out - the array receiving the destination cells
+     * @return the number of destination cells
      */
-    private void jumpMoves(int [][] directions, int row, int col, List<Position> listOfCoord) {
-        for (int[] dir : directions) {
-            helperJumpMoves(dir, row, col, listOfCoord);
+    private int jumpMoves(int row, int col, int[] out) {
+        int count = 0;
+        for (int[] dir : DIRECTIONS) {
+            int newRow = row + dir[0];
+            int newCol = col + dir[1];
+            while (this.geometry.isValidPosition(newRow, newCol)
+                    && !this.board.isEmptyCell(this.geometry.cellOf(newRow, newCol))) {
+                newRow += dir[0];
+                newCol += dir[1];
+            }
+            if ((newRow != row + dir[0] || newCol != col + dir[1]) && isFreeCell(newRow, newCol)) {
+                out[count++] = this.geometry.cellOf(newRow, newCol);
+            }
         }
+        return count;
     }
 
     /**
-     * Private helper method initializing the first jump and calling the validating method
-     * @param dir - the direction to explore
-     * @param row - the current row of the totem
-     * @param col - the current column of the totem
-     * @param listOfCoord - the list of every single valid move
-     */
-    private void helperJumpMoves(int[] dir, int row, int col, List<Position> listOfCoord) {
-        int newRow = row + dir[0];
-        int newCol = col + dir[1];
-        helperJumpStartValid(dir, newRow, newCol, listOfCoord);
-    }
-
-    /**
-     * Private helper method determining whether a totem can jump or not at all
-     * @param dir - the direction to explore
-     * @param newRow - the new row with the jump of the totem
-     * @param newCol - the new column with the jump of the totem
-     * @param listOfCoord - the list of every single valid move
-     */
-    private void helperJumpStartValid(int[] dir, int newRow, int newCol, List<Position> listOfCoord) {
-        if (this.board.isValidPosition(newRow, newCol)) {
-            if (!this.board.isEmpty(new Position(newRow, newCol))) {
-                while (this.board.isValidPosition(newRow, newCol)
-                        && !this.board.isEmpty(new Position(newRow, newCol))) {
-                    newRow += dir[0];
-                    newCol += dir[1];
-                }
-                helperJumpMovesAddCase(newRow, newCol, listOfCoord);
+     * Private helper method determing valid jump everywhere on the board since the totem is completely stuck
+     * @param from - the index of the cell of the totem
+     * @param out - the array receiving the destination cells
+     * @return the number of destination cells
+     */
+    private int anywhereTotem(int from, int[] out) {
+        int count = 0;
+        for (int cell = 0; cell < this.geometry.getCells(); cell++) {
+            if (cell != from && this.board.isEmptyCell(cell)) {
+                out[count++] = cell;
             }
         }
+        return count;
     }
 
     /**
-     * Private helper method adding a move to the list of possible jumping moves
-     * @param newRow - the row of the valid jump
-     * @param newCol - the column of the valid jump
-     * @param listOfCoord - the list of every single valid move
+     * Method checking if the insertion of a token at the given position is valid
+     * Computed in constant time : an adjacent free cell of the totem when there's one, any free cell otherwise
+     *
+     * @param token    - the token to insert
+     * @param position - the position to insert the token
+     * @return true if the insertion is possible, false otherwise
      */
-    private void helperJumpMovesAddCase(int newRow, int newCol, List<Position> listOfCoord) {
-        if (this.board.isValidPosition(newRow, newCol)
-                && this.board.isEmpty(new Position(newRow, newCol))) {
-            listOfCoord.add(new Position(newRow, newCol));
+    boolean isValidInsert(Token token, Position position) {
+        int totemCell = this.board.getTotemCell(token.getSymbol());
+        int rowTotem = this.geometry.rowOf(totemCell);
+        int colTotem = this.geometry.colOf(totemCell);
+        if (!isFreeCell(position.getRow(), position.getCol())) {
+            return false;
+        }
+        if (hasFreeNeighbour(rowTotem, colTotem)) {
+            return Math.abs(position.getRow() - rowTotem) + Math.abs(position.getCol() - colTotem) == 1;
         }
+        return true;
     }
 
     /**
-     * Private helper method determing valid jump everywhere on the board since the totem is completely stuck
-     * @param listOfCoord - the list of every single valid move
-     * @param row - the current row of the totem
-     * @param col - the current column of the totem
+     * Private helper method checking whether at least one of the 4 adjacent cases of a cell is free
+     * @param row - the row of the cell
+     * @param col - the column of the cell
+     * @return true if it's the case, false otherwise (enclave)
      */
-    private void anywhereTotem(List<Position> listOfCoord, int row, int col) {
-        for (int rowLoop = 0; rowLoop < BOARD_SIZE; rowLoop++) {
-            for (int colLoop = 0; colLoop < BOARD_SIZE; colLoop++) {
-                if (this.board.isEmpty(new Position(rowLoop, colLoop)) && (rowLoop != row || colLoop != col)) {
-                    listOfCoord.add(new Position(rowLoop, colLoop));
-                }
+    private boolean hasFreeNeighbour(int row, int col) {
+        for (int[] dir : DIRECTIONS) {
+            if (isFreeCell(row + dir[0], col + dir[1])) {
+                return true;
             }
         }
+        return false;
     }
 
     /**
-     * Method checking if the insertion of a token at the given position is valid
-     *
-     * @param token    - the token to insert
-     * @param position - the position to insert the token
-     * @return true if the insertion is possible, false otherwise
+     * Private helper method filling the given array with every cell a token can be inserted on next to a totem
+     * The free adjacent cases of the totem, or every free cell of the board if the totem is enclaved
+     * @param totemCell - the index of the cell of the totem
+     * @param out - the array receiving the insertion cells
+     * @return the number of insertion cells
      */
-    boolean isValidInsert(Token token, Position position) {
-        int rowTotem = (token.getSymbol() == Symbol.O) ? this.board.getTotemO().getRow() : this.board.getTotemX().getRow();
-        int colTotem = (token.getSymbol() == Symbol.O) ? this.board.getTotemO().getCol() : this.board.getTotemX().getCol();
-        List<Position> listOfCoord = new ArrayList<>();
-        int[][] directions = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
-        normalInserts(directions, rowTotem, colTotem, listOfCoord);
-        if (listOfCoord.isEmpty()) {
-            anywhereToken(listOfCoord);
+    private int insertCells(int totemCell, int[] out) {
+        int count = normalInserts(this.geometry.rowOf(totemCell), this.geometry.colOf(totemCell), out);
+        if (count == 0) {
+            count = anywhereToken(out);
         }
-        return listOfCoord.contains(position);
+        return count;
     }
 
     /**
      * Private helper method determining the valid insertions in a normal case (the 4 adjacent cases are free)
-     * @param directions - the directions to look the insertions close to
      * @param rowTotem - the current row of the totem to look the insertions for
      * @param colTotem - the current col of the totem to look the insertions for
-     * @param listOfCoord - the list of all possibles insertions
+     * @param out - the array receiving the insertion cells
+     * @return the number of insertion cells
      */
-    private void normalInserts(int [][] directions, int rowTotem, int colTotem, List<Position> listOfCoord) {
-        for (int[] dir : directions) {
+    private int normalInserts(int rowTotem, int colTotem, int[] out) {
+        int count = 0;
+        for (int[] dir : DIRECTIONS) {
             int newRow = rowTotem + dir[0];
             int newCol = colTotem + dir[1];
-            if (this.board.isValidPosition(newRow, newCol) && this.board.isEmpty(new Position(newRow, newCol))) {
-                listOfCoord.add(new Position(newRow, newCol));
+            if (isFreeCell(newRow, newCol)) {
+                out[count++] = this.geometry.cellOf(newRow, newCol);
             }
         }
+        return count;
     }
 
     /**
      * Private helper method returning every single free cell on the board for an insertion
      * Used when no normal insertion is possible
-     * @param listOfCoord - the list of all possible insertions
-     */
-    private void anywhereToken(List<Position> listOfCoord) {
-        for (int i = 0; i < BOARD_SIZE; i++) {
-            for (int j = 0; j < BOARD_SIZE; j++) {
-                if (this.board.isEmpty(new Position(i, j))) {
-                    listOfCoord.add(new Position(i, j));
-                }
+     * @param out - the array receiving the insertion cells
+     * @return the number of insertion cells
+     */
+    private int anywhereToken(int[] out) {
+        int count = 0;
+        for (int cell = 0; cell < this.geometry.getCells(); cell++) {
+            if (this.board.isEmptyCell(cell)) {
+                out[count++] = cell;
             }
         }
+        return count;
     }
 
     /**
@@ -481,227 +756,236 @@ public class Oxono {
      * @return the list of valid positions to insert the token
      */
     List<Position> getValidInsert(int row, int col) {
-        List<Position> listOfCoord = new ArrayList<>();
-        int[][] directions = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
-        normalInserts(directions, row, col, listOfCoord);
-        if (listOfCoord.isEmpty()) {
-            anywhereToken(listOfCoord);
-        }
-        return listOfCoord;
+        int[] cells = new int[this.geometry.getCells()];
+        int count = insertCells(this.geometry.cellOf(row, col), cells);
+        return toPositions(cells, count);
     }
 
     /**
-     * Helper method checking whether there's a winner or not on a specific row or column
-     *
-     * @param startRow     - the starting row of the line to check
-     * @param startCol     - the starting column of the line to check
-     * @param rowIncrement - the increment for the row in each step (0 for horizontal, 1 for vertical)
-     * @param colIncrement - The increment for the column in each step (1 for horizontal, 0 for vertical)
-     * @return true if a winning condition is met on a line, false otherwise
-     */
-    private boolean checkLine(int startRow, int startCol, int rowIncrement, int colIncrement) {
-        int[] counts = {0, 0}; // [colorCount, symbolCount]
-        List<Token> listTokensColor =  new ArrayList<>();
-        List<Token> listTokenSymbol = new ArrayList<>();
-        Pawn previousPawn = null;
-        for (int i = 0; i < BOARD_SIZE; i++) {
-            Pawn currentPawn = this.board.getPawnAt(getPositionInLine(startRow, startCol, rowIncrement, colIncrement, i));
-            if (isResetCondition(currentPawn)) {
-                resetCounts(counts);
-                listTokensColor.clear();
-                listTokenSymbol.clear();
-            } else if (updateAndCheckWin(previousPawn, currentPawn, counts, listTokensColor, listTokenSymbol)) {
-                if (counts[0] == WIN_CONDITION) {
-                    for (Token t : listTokensColor) {
-                        t.setWinning(true);
-                    }
-                } else if (counts[1] == WIN_CONDITION) {
-                    for (Token t : listTokenSymbol) {
-                        t.setWinning(true);
-                    }
-                }
-                return true;
-            }
-            previousPawn = currentPawn;
-        }
-        return false;
-    }
-
-    /**
-     * Resets the counts to zero (for the symbol and the color)
-     * @param counts - an array of 2 integers containing the counts to reset
-     */
-    private void resetCounts(int[] counts) {
-        counts[0] = counts[1] = 0;
-    }
-
-    /**
-     * Updates the counts and checks for a win condition
-     *
-     * @param previousPawn - the previous pawn in the sequence
-     * @param currentPawn - the current pawn in the sequence
-     * @param counts - an array of integers containing the counts to update
-     * @return true if either win condition is met, false otherwise
+     * Private helper method converting cell indexes to positions
+     * @param cells - the indexes of the cells
+     * @param count - the number of cells to convert
+     * @return the list of the corresponding positions
      */
-    private boolean updateAndCheckWin(Pawn previousPawn, Pawn currentPawn, int[] counts,
-                                    List<Token> tokensColor, List<Token> tokensSymbol) {
-        updateCounts(previousPawn, currentPawn, counts, tokensColor, tokensSymbol);
-        return counts[0] == WIN_CONDITION || counts[1] == WIN_CONDITION;
+    private List<Position> toPositions(int[] cells, int count) {
+        List<Position> positions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            positions.add(new Position(this.geometry.rowOf(cells[i]), this.geometry.colOf(cells[i])));
+        }
+        return positions;
     }
 
     /**
-     * Updates the counts based on the previous and current pawns
+     * Helper method looking for a winning alignment on a whole row or column
+     * Reads the color and symbol masks of the board, a totem or an empty cell breaks both counts
      *
-     * @param previousPawn - the previous pawn in the sequence
-     * @param currentPawn - the current pawn in the sequence
-     * @param counts - an array of integers containing the counts to update
-     */
-    private void updateCounts(Pawn previousPawn, Pawn currentPawn, int[] counts,
-                              List<Token> tokensColor, List<Token> tokensSymbol) {
-        counts[0] = isPreviousPawnNullColor(previousPawn, currentPawn, counts[0], tokensColor);
-        counts[1] = isPreviousPawnNullSymbol(previousPawn, currentPawn, counts[1], tokensSymbol);
+     * @param startCell - the index of the first cell of the line
+     * @param step      - the index gap between two cells of the line (1 for horizontal, the size for vertical)
+     * @return the first winning alignment of the line as PackedLine, PackedLine.NONE if there's none
+     */
+    private int scanLine(int startCell, int step) {
+        int colorCount = 0;
+        int symbolCount = 0;
+        int previous = -1;
+        for (int i = 0; i < this.geometry.getSize(); i++) {
+            int cell = startCell + i * step;
+            if (!this.board.isTokenCell(cell)) {
+                colorCount = symbolCount = 0;
+                previous = -1;
+                continue;
+            }
+            boolean linked = previous >= 0;
+            colorCount = (linked && this.board.hasColor(previous, this.board.getColorAt(cell))) ? colorCount + 1 : 1;
+            symbolCount = (linked && this.board.hasSymbol(previous, this.board.getSymbolAt(cell))) ? symbolCount + 1 : 1;
+            if (colorCount == WIN_CONDITION || symbolCount == WIN_CONDITION) {
+                return PackedLine.pack(cell - (WIN_CONDITION - 1) * step, step != 1);
+            }
+            previous = cell;
+        }
+        return PackedLine.NONE;
     }
 
     /**
-     * Checks if the previous pawn is null and updates the color count
+     * Method looking for a winning alignment anywhere on the board, row by row then column by column
+     * Only reads the board so it never modifies any token
      *
-     * @param previousPawn - the previous pawn in the sequence
-     * @param currentPawn - the current pawn in the sequence
-     * @param colorCount - the current color count
-     * @return the updated color count
-     */
-    private int isPreviousPawnNullColor(Pawn previousPawn, Pawn currentPawn, int colorCount, List<Token> tokensColor) {
-        if (previousPawn instanceof Token && currentPawn instanceof Token) {
-            return updateColorCount((Token) currentPawn, (Token) previousPawn, colorCount, tokensColor);
-        } else {
-            return 1;
+     * @return the first winning alignment found as PackedLine, PackedLine.NONE if there's none
+     */
+    int findWinningLine() {
+        int size = this.geometry.getSize();
+        for (int row = 0; row < size; row++) {
+            int line = scanLine(row * size, 1);
+            if (line != PackedLine.NONE) {
+                return line;
+            }
         }
+        for (int col = 0; col < size; col++) {
+            int line = scanLine(col, size);
+            if (line != PackedLine.NONE) {
+                return line;
+            }
+        }
+        return PackedLine.NONE;
     }
 
     /**
-     * Checks if the previous pawn is null and updates the symbol count
+     * Method looking for a winning alignment going through the cell of the last inserted token
+     * Since a turn can only create an alignment through the token it inserts, only the row and the column of
+     * that cell are read, and never further than the length of an alignment
+     * Only reads the board so it never modifies any token and can be called while other threads search
+     * their own games
      *
-     * @param previousPawn - the previous pawn in the sequence
-     * @param currentPawn - the current pawn in the sequence
-     * @param symbolCount - the current symbol count
-     * @return the updated symbol count
-     */
-    private int isPreviousPawnNullSymbol(Pawn previousPawn, Pawn currentPawn, int symbolCount, List<Token> tokensSymbol) {
-        if (previousPawn instanceof Token && currentPawn instanceof Token) {
-            return updateSymbolCount((Token) currentPawn, (Token) previousPawn, symbolCount, tokensSymbol);
-        } else {
-            return 1;
+     * @param cell - the index of the cell of the last inserted token
+     * @return the winning alignment as PackedLine, PackedLine.NONE if there's none
+     */
+    int findWinningLine(int cell) {
+        if (!this.board.isTokenCell(cell)) {
+            return PackedLine.NONE;
         }
+        return findWinningLine(cell, this.board.getColorAt(cell), this.board.getSymbolAt(cell));
     }
 
     /**
-     * Updates the color count by comparing the colors of the pawns
+     * Method checking whether inserting a token of the given color and symbol on a free cell would create a
+     * winning alignment, without inserting it
+     * Used by the strategies to spot the winning turns and the ones blocking the opponent
      *
-     * @param currentPawn - the current pawn
-     * @param previousPawn - the previous pawn
-     * @param colorCount - the current color count
-     * @return the updated color count
-     */
-    private int updateColorCount(Token currentPawn, Token previousPawn, int colorCount, List<Token> tokensColor) {
-        if (currentPawn.getColor() == previousPawn.getColor()) {
-            if (!tokensColor.contains(previousPawn)) {
-                tokensColor.add(previousPawn);
-            }
-            if (!tokensColor.contains(currentPawn)) {
-                tokensColor.add(currentPawn);
-            }
-            return ++colorCount;
-        } else {
-            tokensColor.clear();
-            tokensColor.add(currentPawn);
-            return 1;
+     * @param cell   - the index of the free cell
+     * @param color  - the color of the token
+     * @param symbol - the symbol of the token
+     * @return true if the token would complete an alignment, false otherwise
+     */
+    boolean completesLine(int cell, Color color, Symbol symbol) {
+        return findWinningLine(cell, color, symbol) != PackedLine.NONE;
+    }
+
+    /**
+     * Private helper method looking for a winning alignment through a cell holding a token of the given color
+     * and symbol, the cell itself isn't read
+     * @param cell - the index of the cell
+     * @param color - the color of the token on the cell
+     * @param symbol - the symbol of the token on the cell
+     * @return the winning alignment as PackedLine, PackedLine.NONE if there's none
+     */
+    private int findWinningLine(int cell, Color color, Symbol symbol) {
+        int row = this.geometry.rowOf(cell);
+        int col = this.geometry.colOf(cell);
+        int size = this.geometry.getSize();
+        int line = findWinningRun(cell, col, size - 1 - col, 1, false, color, symbol);
+        if (line == PackedLine.NONE) {
+            line = findWinningRun(cell, row, size - 1 - row, size, true, color, symbol);
+        }
+        return line;
+    }
+
+    /**
+     * Private helper method measuring the runs of the same color and of the same symbol going through a cell
+     * @param cell - the index of the cell the runs go through
+     * @param before - the number of cells of the line before the cell
+     * @param after - the number of cells of the line after the cell
+     * @param step - the index gap between two cells of the line
+     * @param vertical - true if the line is a column, false if it's a row
+     * @param color - the color of the token on the cell
+     * @param symbol - the symbol of the token on the cell
+     * @return the winning alignment as PackedLine, PackedLine.NONE if there's none
+     */
+    private int findWinningRun(int cell, int before, int after, int step, boolean vertical, Color color,
+                               Symbol symbol) {
+        int colorStart = runLength(cell, Math.min(before, WIN_CONDITION - 1), -step, color, null);
+        int colorEnd = runLength(cell, Math.min(after, WIN_CONDITION - 1), step, color, null);
+        if (colorStart + colorEnd + 1 >= WIN_CONDITION) {
+            return PackedLine.pack(cell - colorStart * step, vertical);
+        }
+        int symbolStart = runLength(cell, Math.min(before, WIN_CONDITION - 1), -step, null, symbol);
+        int symbolEnd = runLength(cell, Math.min(after, WIN_CONDITION - 1), step, null, symbol);
+        if (symbolStart + symbolEnd + 1 >= WIN_CONDITION) {
+            return PackedLine.pack(cell - symbolStart * step, vertical);
         }
+        return PackedLine.NONE;
     }
 
     /**
-     * Updates the symbol count by comparing the symbols of the pawns
-     *
-     * @param currentPawn - the current pawn
-     * @param previousPawn - the previous pawn
-     * @param symbolCount - the current symbol count
-     * @return the updated symbol count
-     */
-    private int updateSymbolCount(Token currentPawn, Token previousPawn, int symbolCount, List<Token> tokensSymbol) {
-        if (currentPawn.getSymbol() == previousPawn.getSymbol()) {
-            if (!tokensSymbol.contains(previousPawn)) {
-                tokensSymbol.add(previousPawn);
-            }
-            if (!tokensSymbol.contains(currentPawn)) {
-                tokensSymbol.add(currentPawn);
-            }
-            return ++symbolCount;
-        } else {
-            tokensSymbol.clear();
-            tokensSymbol.add(currentPawn);
-            return 1;
+     * Private helper method counting the tokens sharing a color or a symbol next to a cell in one direction
+     * @param cell - the index of the cell to start from (not counted)
+     * @param limit - the maximum number of cells to read
+     * @param step - the index gap to the next cell in that direction
+     * @param color - the color to look for, null to look for a symbol
+     * @param symbol - the symbol to look for when no color is given
+     * @return the number of following tokens sharing the color or the symbol
+     */
+    private int runLength(int cell, int limit, int step, Color color, Symbol symbol) {
+        int count = 0;
+        int next = cell + step;
+        while (count < limit && this.board.isTokenCell(next)
+                && (color != null ? this.board.hasColor(next, color) : this.board.hasSymbol(next, symbol))) {
+            count++;
+            next += step;
         }
+        return count;
     }
 
     /**
-     * Calculates the position in a line based on given increments
+     * Method flagging the tokens of a winning alignment so the view can highlight them
+     * Kept apart from the win checks which never modify anything
      *
-     * @param startRow - the starting row
-     * @param startCol - the starting column
-     * @param rowIncrement - the increment for rows
-     * @param colIncrement - the increment for columns
-     * @param i - the multiplier for increments
-     * @return the calculated position as a Position object
+     * @param line - the winning alignment as PackedLine
      */
-    private Position getPositionInLine(int startRow, int startCol, int rowIncrement, int colIncrement, int i) {
-        int row = startRow + i * rowIncrement;
-        int col = startCol + i * colIncrement;
-        return new Position(row, col);
+    void markWinningLine(int line) {
+        int step = PackedLine.isVertical(line) ? this.geometry.getSize() : 1;
+        int start = PackedLine.getStart(line);
+        for (int i = 0; i < WIN_CONDITION; i++) {
+            this.board.markWinning(start + i * step);
+        }
     }
 
     /**
-     * Checks if the reset condition is met for a given pawn
+     * Method returning the Zobrist key identifying the current position
+     * Covers the content of the board, both totems, the player to play and the tokens left to each player
+     * Computed in constant time from the key the board maintains on every modification
      *
-     * @param pawn - the pawn to check
-     * @return true if the pawn is null or is a Totem; false otherwise
+     * @return the 64 bits key of the position
      */
-    private boolean isResetCondition(Pawn pawn) {
-        return pawn == null || pawn instanceof Totem;
+    long getZobristKey() {
+        return getZobristKey(this.toPlay.getColor());
     }
 
     /**
-     * Helper method checking if there's a winner on the columns (vertically)
+     * Method returning the Zobrist key identifying the current position with the given player to play
+     * Used by the strategies which simulate turns without switching the player to play
      *
-     * @return true if it's the case, false otherwise
+     * @param toPlay - the color of the player to play
+     * @return the 64 bits key of the position
      */
-    private boolean checkColumns() {
-        for (int col = 0; col < BOARD_SIZE; col++) {
-            if (checkLine(0, col, 1, 0)) {
-                return true;
-            }
-        }
-        return false;
+    long getZobristKey(Color toPlay) {
+        Zobrist zobrist = this.geometry.getZobrist();
+        long key = this.board.getZobristKey()
+                ^ zobrist.tokenCount(Color.PINK, Symbol.O, this.pink.getTokensO())
+                ^ zobrist.tokenCount(Color.PINK, Symbol.X, this.pink.getTokensX())
+                ^ zobrist.tokenCount(Color.BLACK, Symbol.O, this.black.getTokensO())
+                ^ zobrist.tokenCount(Color.BLACK, Symbol.X, this.black.getTokensX());
+        return (toPlay == Color.BLACK) ? key ^ zobrist.blackToPlay() : key;
     }
 
     /**
-     * Helper method checking if there's a winner on the rows (horizontally)
+     * Method checking whether the game is a draw : the board is full or nobody has any token left
+     * Has no side effect on the game state
      *
      * @return true if it's the case, false otherwise
      */
-    private boolean checkRows() {
-        for (int row = 0; row < BOARD_SIZE; row++) {
-            if (checkLine(row, 0, 0, 1)) {
-                return true;
-            }
-        }
-        return false;
+    boolean isDraw() {
+        return this.board.isFull() ||
+                ((this.black.getTokensO() == 0 && this.black.getTokensX() == 0)
+                        &&
+                        (this.pink.getTokensO() == 0 && this.pink.getTokensX() == 0));
     }
 
     /**
      * Method checking whether there's a winner or not
+     * Has no side effect, markWinningLine has to be called to flag the winning tokens
      *
      * @return true if there is indeed a winner, false otherwise
      */
     boolean checkForWinner() {
-        return checkRows() || checkColumns();
+        return findWinningLine() != PackedLine.NONE;
     }
 }
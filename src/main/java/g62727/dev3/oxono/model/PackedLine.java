@@ -0,0 +1,53 @@
+package g62727.dev3.oxono.model;
+
+/**
+ * Helper class encoding a winning alignment in a single int so the win checks can report it without
+ * allocating or modifying anything
+ * Bits 0 to 11 : the first cell of the alignment (the leftmost or the topmost one)
+ * Bit 12 : the orientation of the alignment (0 for a row, 1 for a column)
+ */
+public final class PackedLine {
+    /**
+     * Value used when there is no winning alignment
+     */
+    static final int NONE = -1;
+    private static final int CELL_MASK = PackedMove.MAX_CELLS - 1;
+    private static final int VERTICAL = PackedMove.MAX_CELLS;
+
+    /**
+     * Private constructor, this class only contains static helpers
+     */
+    private PackedLine() {
+    }
+
+    /**
+     * Method encoding an alignment
+     *
+     * @param start    - the first cell of the alignment
+     * @param vertical - true if the alignment is on a column, false if it is on a row
+     * @return the encoded alignment
+     */
+    static int pack(int start, boolean vertical) {
+        return vertical ? start | VERTICAL : start;
+    }
+
+    /**
+     * Method decoding the first cell of an alignment
+     *
+     * @param line - the encoded alignment
+     * @return the first cell
+     */
+    static int getStart(int line) {
+        return line & CELL_MASK;
+    }
+
+    /**
+     * Method decoding the orientation of an alignment
+     *
+     * @param line - the encoded alignment
+     * @return true if the alignment is on a column, false if it is on a row
+     */
+    static boolean isVertical(int line) {
+        return (line & VERTICAL) != 0;
+    }
+}
@@ -0,0 +1,86 @@
+package g62727.dev3.oxono.model;
+
+/**
+ * Helper class encoding a whole turn in a single int so the strategies can generate and play moves without
+ * allocating any object
+ * Bit 0 : the symbol of the moved totem (0 for O, 1 for X)
+ * Bits 1 to 12 : the destination cell of the totem
+ * Bits 13 to 24 : the cell where the token is inserted
+ */
+public final class PackedMove {
+    /**
+     * Value used when there is no move at all
+     */
+    static final int NONE = -1;
+    /**
+     * Maximum number of cells of a board that can be encoded
+     */
+    static final int MAX_CELLS = 1 << 12;
+    private static final int CELL_MASK = MAX_CELLS - 1;
+    private static final int DESTINATION_SHIFT = 1;
+    private static final int INSERT_SHIFT = 13;
+
+    /**
+     * Private constructor, this class only contains static helpers
+     */
+    private PackedMove() {
+    }
+
+    /**
+     * Method encoding a turn
+     *
+     * @param symbol      - the symbol of the moved totem
+     * @param destination - the destination cell of the totem
+     * @param insert      - the cell where the token is inserted
+     * @return the encoded turn
+     */
+    static int pack(Symbol symbol, int destination, int insert) {
+        return (symbol == Symbol.X ? 1 : 0) | (destination << DESTINATION_SHIFT) | (insert << INSERT_SHIFT);
+    }
+
+    /**
+     * Method decoding the symbol of the moved totem
+     *
+     * @param move - the encoded turn
+     * @return the symbol of the totem
+     */
+    static Symbol getSymbol(int move) {
+        return (move & 1) == 0 ? Symbol.O : Symbol.X;
+    }
+
+    /**
+     * Method decoding the destination cell of the totem
+     *
+     * @param move - the encoded turn
+     * @return the destination cell
+     */
+    static int getDestination(int move) {
+        return (move >>> DESTINATION_SHIFT) & CELL_MASK;
+    }
+
+    /**
+     * Method decoding the cell where the token is inserted
+     *
+     * @param move - the encoded turn
+     * @return the insertion cell
+     */
+    static int getInsert(int move) {
+        return (move >>> INSERT_SHIFT) & CELL_MASK;
+    }
+
+    /**
+     * Method converting an encoded turn back to a Move for the rest of the application
+     *
+     * @param move  - the encoded turn
+     * @param oxono - the game the turn is played in
+     * @return the equivalent Move
+     */
+    static Move toMove(int move, Oxono oxono) {
+        BoardGeometry geometry = oxono.getGeometry();
+        int destination = getDestination(move);
+        int insert = getInsert(move);
+        return new Move(oxono.findTotem(getSymbol(move)),
+                new Position(geometry.rowOf(destination), geometry.colOf(destination)),
+                new Position(geometry.rowOf(insert), geometry.colOf(insert)));
+    }
+}
@@ -0,0 +1,16 @@
+package g62727.dev3.oxono.model;
+
+/**
+ * Represents how a minimax search shares its work between several threads
+ */
+public enum ParallelSearch {
+    /**
+     * Represents the search sharing the turns of the root between the threads at every iteration
+     */
+    ROOT_SPLITTING,
+    /**
+     * Represents the search where every thread deepens on its own, with slightly different depths and orders of
+     * turns, the threads only helping each other through the shared transposition table (Lazy SMP)
+     */
+    LAZY_SMP
+}
@@ -0,0 +1,176 @@
+package g62727.dev3.oxono.model;
+
+import java.util.Arrays;
+
+/**
+ * Evaluates a position by counting the open runs of 2 and 3 tokens of the same color or the same symbol
+ * A run is open when the window of 4 cells (the length of an alignment) it lies in holds nothing that prevents
+ * the alignment : no token of the other color for a color run, no token of the other symbol for a symbol run
+ * A color run counts for its color, a symbol run for the color owning most of its tokens
+ * Every window keeps its content as a single counter, so inserting or removing a token only updates the windows
+ * going through its cell and reading the score is O(1)
+ * A window full of tokens of the same color or symbol is an alignment, so inserting a token also tells whether
+ * it completes one
+ * Not thread-safe, every search thread has to use its own PatternEvaluator
+ */
+public final class PatternEvaluator {
+    /**
+     * Attributes of the PatternEvaluator class
+     */
+    private static final int LENGTH = 4;
+    private static final int BASE = LENGTH + 1;
+    private static final int PINK_UNIT = BASE * BASE * BASE;
+    private static final int BLACK_UNIT = BASE * BASE;
+    private static final int O_UNIT = BASE;
+    private static final int X_UNIT = 1;
+    private static final int[] COLOR_RUN_SCORES = {0, 0, 10, 100, 0};
+    private static final int[] SYMBOL_RUN_SCORES = {0, 0, 5, 50, 0};
+    private static final int[] WINDOW_SCORES = windowScores();
+    private static final int COMPLETE = Integer.MIN_VALUE;
+    private final int[][] cellWindows;
+    private final int[] windows;
+    private int score;
+
+    /**
+     * Constructor to instantiate the evaluation of the positions of a board of the given geometry
+     *
+     * @param geometry - the geometry of the board
+     */
+    PatternEvaluator(BoardGeometry geometry) {
+        int size = geometry.getSize();
+        int perLine = Math.max(0, size - LENGTH + 1);
+        this.windows = new int[2 * size * perLine];
+        int[] counts = new int[geometry.getCells()];
+        this.cellWindows = new int[geometry.getCells()][];
+        for (int cell = 0; cell < geometry.getCells(); cell++) {
+            this.cellWindows[cell] = new int[2 * Math.min(LENGTH, perLine)];
+        }
+        int window = 0;
+        for (int line = 0; line < size; line++) {
+            for (int start = 0; start < perLine; start++) {
+                for (int i = 0; i < LENGTH; i++) {
+                    int horizontal = geometry.cellOf(line, start + i);
+                    this.cellWindows[horizontal][counts[horizontal]++] = window;
+                    int vertical = geometry.cellOf(start + i, line);
+                    this.cellWindows[vertical][counts[vertical]++] = window + 1;
+                }
+                window += 2;
+            }
+        }
+        for (int cell = 0; cell < geometry.getCells(); cell++) {
+            if (counts[cell] < this.cellWindows[cell].length) {
+                this.cellWindows[cell] = Arrays.copyOf(this.cellWindows[cell], counts[cell]);
+            }
+        }
+    }
+
+    /**
+     * Private helper method computing the score of every possible content of a window
+     * @return the scores indexed by the window counters
+     */
+    private static int[] windowScores() {
+        int[] scores = new int[BASE * BASE * BASE * BASE];
+        for (int pink = 0; pink <= LENGTH; pink++) {
+            for (int black = 0; pink + black <= LENGTH; black++) {
+                for (int o = 0; o <= LENGTH; o++) {
+                    int x = pink + black - o;
+                    if (x < 0) {
+                        continue;
+                    }
+                    if (pink == LENGTH || black == LENGTH || o == LENGTH || x == LENGTH) {
+                        scores[pink * PINK_UNIT + black * BLACK_UNIT + o * O_UNIT + x * X_UNIT] = COMPLETE;
+                        continue;
+                    }
+                    int score = 0;
+                    if (black == 0) {
+                        score += COLOR_RUN_SCORES[pink];
+                    }
+                    if (pink == 0) {
+                        score -= COLOR_RUN_SCORES[black];
+                    }
+                    int symbolRun = (x == 0) ? SYMBOL_RUN_SCORES[o] : (o == 0) ? SYMBOL_RUN_SCORES[x] : 0;
+                    score += Integer.signum(pink - black) * symbolRun;
+                    scores[pink * PINK_UNIT + black * BLACK_UNIT + o * O_UNIT + x * X_UNIT] = score;
+                }
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Method computing the evaluation of the current position of a game from scratch
+     * Called once before a search, the search then keeps it up to date with insert and remove
+     *
+     * @param oxono - the game to evaluate
+     */
+    void reset(Oxono oxono) {
+        Arrays.fill(this.windows, 0);
+        this.score = 0;
+        for (int cell = 0; cell < this.cellWindows.length; cell++) {
+            if (oxono.isTokenCell(cell)) {
+                insert(cell, oxono.getColorAt(cell), oxono.getSymbolAt(cell));
+            }
+        }
+    }
+
+    /**
+     * Method updating the evaluation after a token was inserted
+     *
+     * @param cell   - the index of the cell of the token
+     * @param color  - the color of the token
+     * @param symbol - the symbol of the token
+     * @return true if the token completes an alignment, false otherwise
+     */
+    boolean insert(int cell, Color color, Symbol symbol) {
+        return update(cell, unit(color, symbol));
+    }
+
+    /**
+     * Method updating the evaluation after a token was removed
+     *
+     * @param cell   - the index of the cell of the token
+     * @param color  - the color of the token
+     * @param symbol - the symbol of the token
+     */
+    void remove(int cell, Color color, Symbol symbol) {
+        update(cell, -unit(color, symbol));
+    }
+
+    /**
+     * Method returning the evaluation of the position from the point of view of a player
+     *
+     * @param color - the color of the player
+     * @return the evaluation, positive if the position favours the player
+     */
+    int score(Color color) {
+        return (color == Color.PINK) ? this.score : -this.score;
+    }
+
+    /**
+     * Private helper method adding a token to, or removing it from, every window going through its cell
+     * The complete windows aren't scored, the game is over as soon as one exists
+     * @param cell - the index of the cell of the token
+     * @param delta - the change of the counters of the windows
+     * @return true if one of the windows is complete after the change, false otherwise
+     */
+    private boolean update(int cell, int delta) {
+        boolean complete = false;
+        for (int window : this.cellWindows[cell]) {
+            int before = WINDOW_SCORES[this.windows[window]];
+            int after = WINDOW_SCORES[this.windows[window] += delta];
+            complete |= after == COMPLETE;
+            this.score += ((after == COMPLETE) ? 0 : after) - ((before == COMPLETE) ? 0 : before);
+        }
+        return complete;
+    }
+
+    /**
+     * Private helper method returning the change a token brings to the counters of a window
+     * @param color - the color of the token
+     * @param symbol - the symbol of the token
+     * @return the change of the counters
+     */
+    private static int unit(Color color, Symbol symbol) {
+        return ((color == Color.PINK) ? PINK_UNIT : BLACK_UNIT) + ((symbol == Symbol.O) ? O_UNIT : X_UNIT);
+    }
+}
@@ -0,0 +1,181 @@
+package g62727.dev3.oxono.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts the positions reached by every sequence of turns of a given length from a position (perft), to check
+ * the generation of the turns against known counts and to measure its speed
+ * A position where the game is over, won by the last turn or drawn, has no turn : it is counted as a leaf when it
+ * is reached at the full depth, and counts for nothing before. The turns of the last ply are only counted, not
+ * played (bulk counting), unless every leaf is asked to be played, which also checks makeMove and unmakeMove
+ * The counts are split by turn of the root on demand (divide), to find which turn a wrong count comes from
+ * Usage : Perft [size] [depth] [divide]
+ */
+public final class Perft {
+    /**
+     * Attributes of the Perft class
+     */
+    private static final int DEFAULT_SIZE = 6;
+    private static final int DEFAULT_DEPTH = 4;
+    private static final int INITIAL_BUFFER_SIZE = 256;
+    private final Oxono position;
+    private final boolean bulk;
+    private int[][] moveBuffers;
+
+    /**
+     * Private constructor counting from a copy of the given position
+     * @param oxono - the position to count from
+     * @param depth - the number of plies to count
+     * @param bulk - true to only count the turns of the last ply, false to play them
+     */
+    private Perft(Oxono oxono, int depth, boolean bulk) {
+        this.position = oxono.copy();
+        this.bulk = bulk;
+        this.moveBuffers = new int[Math.max(depth, 1)][INITIAL_BUFFER_SIZE];
+    }
+
+    /**
+     * Entry point counting the positions from the start of a board of the given size, one depth after the other
+     * @param args - the size of the board, the depth and "divide" to split the last count by turn, all optional
+     */
+    public static void main(String[] args) {
+        int size = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_SIZE;
+        int depth = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_DEPTH;
+        boolean divide = args.length > 2 && args[2].equals("divide");
+        Oxono oxono = new Oxono(size);
+        for (int d = 1; d <= depth; d++) {
+            long start = System.nanoTime();
+            long nodes = perft(oxono, d);
+            long nanos = Math.max(1, System.nanoTime() - start);
+            System.out.printf("perft(%d) = %d in %.1f ms (%.0f moves/s)%n", d, nodes, nanos / 1e6, nodes * 1e9 / nanos);
+        }
+        if (divide) {
+            BoardGeometry geometry = oxono.getGeometry();
+            divide(oxono, depth).forEach((move, nodes) ->
+                    System.out.println(describe(move, geometry) + " : " + nodes));
+        }
+    }
+
+    /**
+     * Method counting the positions reached after the given number of plies, the last ply being counted in bulk
+     *
+     * @param oxono - the position to count from, with its player to play, left untouched
+     * @param depth - the number of plies
+     * @return the number of positions, 1 at depth 0
+     * @throws IllegalArgumentException if the depth is negative
+     */
+    static long perft(Oxono oxono, int depth) {
+        return perft(oxono, depth, true);
+    }
+
+    /**
+     * Method counting the positions reached after the given number of plies
+     *
+     * @param oxono - the position to count from, with its player to play, left untouched
+     * @param depth - the number of plies
+     * @param bulk  - true to only count the turns of the last ply, false to play and undo every one of them
+     * @return the number of positions, 1 at depth 0
+     * @throws IllegalArgumentException if the depth is negative
+     */
+    static long perft(Oxono oxono, int depth, boolean bulk) {
+        if (depth < 0) {
+            throw new IllegalArgumentException("Invalid depth : " + depth);
+        }
+        if (depth == 0) {
+            return 1;
+        }
+        return new Perft(oxono, depth, bulk).count(depth, 0);
+    }
+
+    /**
+     * Method counting the positions reached after the given number of plies, split by turn of the root
+     *
+     * @param oxono - the position to count from, with its player to play, left untouched
+     * @param depth - the number of plies, at least 1
+     * @return the number of positions after every turn of the root, in the order the turns are generated
+     * @throws IllegalArgumentException if the depth isn't strictly positive
+     */
+    static Map<Integer, Long> divide(Oxono oxono, int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Invalid depth : " + depth);
+        }
+        Perft perft = new Perft(oxono, depth, true);
+        int count = perft.generate(0);
+        Map<Integer, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            int move = perft.moveBuffers[0][i];
+            counts.put(move, perft.countAfter(move, depth - 1, 1));
+        }
+        return counts;
+    }
+
+    /**
+     * Method describing a turn : the totem, its destination and the cell of the token
+     *
+     * @param move     - the turn encoded as PackedMove
+     * @param geometry - the geometry of the board
+     * @return the description of the turn, as "O 2,3 2,4"
+     */
+    static String describe(int move, BoardGeometry geometry) {
+        int destination = PackedMove.getDestination(move);
+        int insert = PackedMove.getInsert(move);
+        return PackedMove.getSymbol(move) + " " + geometry.rowOf(destination) + "," + geometry.colOf(destination)
+                + " " + geometry.rowOf(insert) + "," + geometry.colOf(insert);
+    }
+
+    /**
+     * Private helper method counting the positions reached from the current position
+     * @param depth - the number of plies left, at least 1
+     * @param ply - the distance from the root
+     * @return the number of positions
+     */
+    private long count(int depth, int ply) {
+        int count = generate(ply);
+        if (depth == 1 && this.bulk) {
+            return count;
+        }
+        long nodes = 0;
+        int[] moves = this.moveBuffers[ply];
+        for (int i = 0; i < count; i++) {
+            nodes += countAfter(moves[i], depth - 1, ply + 1);
+        }
+        return nodes;
+    }
+
+    /**
+     * Private helper method playing a turn, counting the positions reached after it and undoing it
+     * @param move - the turn encoded as PackedMove
+     * @param depth - the number of plies left after the turn
+     * @param ply - the distance from the root after the turn
+     * @return the number of positions, 0 if the game is over before the full depth
+     */
+    private long countAfter(int move, int depth, int ply) {
+        this.position.makeMove(move);
+        long nodes;
+        if (depth == 0) {
+            nodes = 1;
+        } else if (this.position.lastMoveWins() || this.position.isDraw()) {
+            nodes = 0;
+        } else {
+            nodes = count(depth, ply);
+        }
+        this.position.unmakeMove();
+        return nodes;
+    }
+
+    /**
+     * Private helper method generating the turns of the player to play in the buffer of a ply, growing it if needed
+     * @param ply - the distance from the root
+     * @return the number of turns
+     */
+    private int generate(int ply) {
+        Color color = this.position.getToPlay().getColor();
+        int count = this.position.generateMoves(color, this.moveBuffers[ply]);
+        if (count > this.moveBuffers[ply].length) {
+            this.moveBuffers[ply] = new int[count];
+            count = this.position.generateMoves(color, this.moveBuffers[ply]);
+        }
+        return count;
+    }
+}
@@ -149,6 +149,18 @@ public class Player {
         ++this.tokensO;
     }
 
+    /**
+     * Method setting both numbers of tokens of the player at once
+     * Used to copy the position of a game for a search thread
+     *
+     * @param tokensO - the number of O tokens
+     * @param tokensX - the number of X tokens
+     */
+    void setTokens(int tokensO, int tokensX) {
+        this.tokensO = tokensO;
+        this.tokensX = tokensX;
+    }
+
     /**
      * Customized display of a Player object
      *
@@ -17,6 +17,30 @@ public class RandomStrategy implements Strategy {
     private int row;
     private int col;
 
+    /**
+     * Constructs a new RandomStrategy whose choices can't be replayed
+     */
+    public RandomStrategy() {
+    }
+
+    /**
+     * Constructs a new RandomStrategy whose choices are drawn from the given seed, so they can be replayed
+     * @param seed - the seed of the random choices
+     */
+    RandomStrategy(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Method drawing the random choices of the next game from the given seed
+     *
+     * @param seed - the seed of the random choices of the new game
+     */
+    @Override
+    public void newGame(long seed) {
+        this.random = new Random(seed);
+    }
+
     /**
      * Method randomly choosing one of the two totem to play from the game board
      *
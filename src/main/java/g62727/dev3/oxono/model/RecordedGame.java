@@ -0,0 +1,333 @@
+package g62727.dev3.oxono.model;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Represents a whole game as stored in the files of game records written by GameRecordWriter and read by
+ * GameRecordReader : the rules it was played with, the strategies of both players, the seed and index of the game
+ * in its SelfPlay, its result and its turns
+ * A file starts with a header (magic number, version) followed by the records of its games, one after the other.
+ * A record starts with a header of 20 bytes : the size of the board, the tokens of every symbol of a player, the
+ * length of a winning line, the strategies of pink and black (their ordinal in Strategies, 255 for none), the
+ * winner (0 for a draw, 1 for pink, 2 for black), the seed, the index and the number of plies. Its turns follow,
+ * every turn packed in as few bytes as the size of the board allows : the symbol on one bit, then the destination
+ * of the totem and the cell of the token on as many bits as a cell needs, which takes 2 bytes up to 11x11 boards,
+ * 3 bytes up to 45x45 and 4 bytes beyond
+ * Every number is written big-endian
+ */
+public final class RecordedGame {
+    /**
+     * Number identifying the files of game records ("OXGR")
+     */
+    static final int MAGIC = 0x4F584752;
+    /**
+     * Version of the format of the files
+     */
+    static final int VERSION = 1;
+    /**
+     * Number of bytes of the header of a file
+     */
+    static final int FILE_HEADER_BYTES = 8;
+    /**
+     * Number of bytes of the header of a record
+     */
+    static final int HEADER_BYTES = 20;
+    /**
+     * Attributes of the RecordedGame class
+     */
+    private static final int NO_STRATEGY = 0xFF;
+    private static final Strategies[] STRATEGIES = Strategies.values();
+    private final int size;
+    private final int tokens;
+    private final int winLength;
+    private final Strategies pink;
+    private final Strategies black;
+    private final Color winner;
+    private final long seed;
+    private final int index;
+    private final int[] moves;
+
+    /**
+     * Constructor to instantiate the record of a game played with the rules of Oxono
+     * @param size - the size of the board
+     * @param pink - the strategy of pink, null if pink was played by a person
+     * @param black - the strategy of black, null if black was played by a person
+     * @param winner - the color of the winner, null for a draw
+     * @param seed - the seed of the game
+     * @param index - the index of the game among the games of its seed
+     * @param moves - the turns of the game encoded as PackedMove, copied
+     * @throws IllegalArgumentException if the size of the board is invalid
+     */
+    RecordedGame(int size, Strategies pink, Strategies black, Color winner, long seed, int index, int[] moves) {
+        this(size, Oxono.INITIAL_TOKEN_COUNT, Oxono.WIN_CONDITION, pink, black, winner, seed, index, moves);
+    }
+
+    /**
+     * Private constructor to instantiate the record of a game played with the given rules
+     * @param size - the size of the board
+     * @param tokens - the number of tokens of every symbol a player starts with
+     * @param winLength - the number of aligned tokens winning the game
+     * @param pink - the strategy of pink, null if pink was played by a person
+     * @param black - the strategy of black, null if black was played by a person
+     * @param winner - the color of the winner, null for a draw
+     * @param seed - the seed of the game
+     * @param index - the index of the game among the games of its seed
+     * @param moves - the turns of the game encoded as PackedMove, copied
+     * @throws IllegalArgumentException if the size of the board is invalid
+     */
+    private RecordedGame(int size, int tokens, int winLength, Strategies pink, Strategies black, Color winner,
+                         long seed, int index, int[] moves) {
+        BoardGeometry.of(size);
+        this.size = size;
+        this.tokens = tokens;
+        this.winLength = winLength;
+        this.pink = pink;
+        this.black = black;
+        this.winner = winner;
+        this.seed = seed;
+        this.index = index;
+        this.moves = moves.clone();
+    }
+
+    /**
+     * Method returning the number of bytes a turn takes on a board of the given size
+     *
+     * @param size - the size of the board
+     * @return the number of bytes of a turn, 2 up to 11x11 boards, 3 up to 45x45 and 4 beyond
+     */
+    static int moveBytes(int size) {
+        return (1 + 2 * cellBits(size) + 7) / 8;
+    }
+
+    /**
+     * Method returning the number of bits a cell takes on a board of the given size
+     *
+     * @param size - the size of the board
+     * @return the number of bits of a cell
+     */
+    static int cellBits(int size) {
+        return 32 - Integer.numberOfLeadingZeros(size * size - 1);
+    }
+
+    /**
+     * Method packing a turn in the bits it takes in a record
+     *
+     * @param move     - the turn encoded as PackedMove
+     * @param cellBits - the number of bits of a cell
+     * @return the packed turn
+     */
+    static int packMove(int move, int cellBits) {
+        int symbol = (PackedMove.getSymbol(move) == Symbol.X) ? 1 : 0;
+        return symbol | (PackedMove.getDestination(move) << 1) | (PackedMove.getInsert(move) << (1 + cellBits));
+    }
+
+    /**
+     * Method unpacking a turn read from a record
+     *
+     * @param packed   - the packed turn
+     * @param cellBits - the number of bits of a cell
+     * @return the turn encoded as PackedMove
+     */
+    static int unpackMove(int packed, int cellBits) {
+        int mask = (1 << cellBits) - 1;
+        return PackedMove.pack(((packed & 1) == 1) ? Symbol.X : Symbol.O, (packed >>> 1) & mask,
+                (packed >>> (1 + cellBits)) & mask);
+    }
+
+    /**
+     * Method returning the number of bytes of the record of this game
+     *
+     * @return the number of bytes, header included
+     */
+    int recordBytes() {
+        return HEADER_BYTES + this.moves.length * moveBytes(this.size);
+    }
+
+    /**
+     * Method writing the record of this game in the given buffer, at its position
+     *
+     * @param buffer - the buffer, with at least recordBytes bytes remaining
+     */
+    void writeTo(ByteBuffer buffer) {
+        buffer.put((byte) this.size).put((byte) this.tokens).put((byte) this.winLength)
+                .put((byte) ((this.pink == null) ? NO_STRATEGY : this.pink.ordinal()))
+                .put((byte) ((this.black == null) ? NO_STRATEGY : this.black.ordinal()))
+                .put((byte) ((this.winner == null) ? 0 : (this.winner == Color.PINK) ? 1 : 2))
+                .putLong(this.seed).putInt(this.index).putShort((short) this.moves.length);
+        int bits = cellBits(this.size);
+        int bytes = moveBytes(this.size);
+        for (int move : this.moves) {
+            int packed = packMove(move, bits);
+            for (int shift = 8 * (bytes - 1); shift >= 0; shift -= 8) {
+                buffer.put((byte) (packed >>> shift));
+            }
+        }
+    }
+
+    /**
+     * Method reading the record of a game from the given buffer, at the given offset
+     *
+     * @param buffer - the buffer holding the whole record
+     * @param offset - the offset of the record in the buffer
+     * @return the game
+     * @throws IllegalArgumentException if the size of the board of the record is invalid
+     */
+    static RecordedGame readFrom(ByteBuffer buffer, int offset) {
+        int size = sizeAt(buffer, offset);
+        int[] moves = new int[pliesAt(buffer, offset)];
+        for (int ply = 0; ply < moves.length; ply++) {
+            moves[ply] = moveAt(buffer, offset, size, ply);
+        }
+        return new RecordedGame(size, buffer.get(offset + 1) & 0xFF, buffer.get(offset + 2) & 0xFF,
+                strategyAt(buffer, offset + 3), strategyAt(buffer, offset + 4), winnerAt(buffer, offset),
+                buffer.getLong(offset + 6), buffer.getInt(offset + 14), moves);
+    }
+
+    /**
+     * Method reading the size of the board of the record at the given offset
+     *
+     * @param buffer - the buffer holding the header of the record
+     * @param offset - the offset of the record in the buffer
+     * @return the size of the board
+     */
+    static int sizeAt(ByteBuffer buffer, int offset) {
+        return buffer.get(offset) & 0xFF;
+    }
+
+    /**
+     * Method reading the number of plies of the record at the given offset
+     *
+     * @param buffer - the buffer holding the header of the record
+     * @param offset - the offset of the record in the buffer
+     * @return the number of plies
+     */
+    static int pliesAt(ByteBuffer buffer, int offset) {
+        return buffer.getChar(offset + 18);
+    }
+
+    /**
+     * Method reading the winner of the record at the given offset
+     *
+     * @param buffer - the buffer holding the header of the record
+     * @param offset - the offset of the record in the buffer
+     * @return the color of the winner, null for a draw
+     */
+    static Color winnerAt(ByteBuffer buffer, int offset) {
+        return switch (buffer.get(offset + 5)) {
+            case 1 -> Color.PINK;
+            case 2 -> Color.BLACK;
+            default -> null;
+        };
+    }
+
+    /**
+     * Method reading a turn of the record at the given offset
+     *
+     * @param buffer - the buffer holding the whole record
+     * @param offset - the offset of the record in the buffer
+     * @param size   - the size of the board of the record
+     * @param ply    - the index of the turn, from 0
+     * @return the turn encoded as PackedMove
+     */
+    static int moveAt(ByteBuffer buffer, int offset, int size, int ply) {
+        int bytes = moveBytes(size);
+        int position = offset + HEADER_BYTES + ply * bytes;
+        int packed = 0;
+        for (int i = 0; i < bytes; i++) {
+            packed = (packed << 8) | (buffer.get(position + i) & 0xFF);
+        }
+        return unpackMove(packed, cellBits(size));
+    }
+
+    /**
+     * Private helper method reading a strategy of a record
+     * @param buffer - the buffer holding the header of the record
+     * @param position - the position of the strategy in the buffer
+     * @return the strategy, null if there's none
+     */
+    private static Strategies strategyAt(ByteBuffer buffer, int position) {
+        int ordinal = buffer.get(position) & 0xFF;
+        return (ordinal < STRATEGIES.length) ? STRATEGIES[ordinal] : null;
+    }
+
+    /**
+     * Getter returning the size of the board
+     * @return the size of the board
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Getter returning the number of tokens of every symbol a player starts with
+     * @return the number of tokens
+     */
+    public int getTokens() {
+        return this.tokens;
+    }
+
+    /**
+     * Getter returning the number of aligned tokens winning the game
+     * @return the length of a winning line
+     */
+    public int getWinLength() {
+        return this.winLength;
+    }
+
+    /**
+     * Getter returning the strategy of pink
+     * @return the strategy, null if pink was played by a person
+     */
+    public Strategies getPink() {
+        return this.pink;
+    }
+
+    /**
+     * Getter returning the strategy of black
+     * @return the strategy, null if black was played by a person
+     */
+    public Strategies getBlack() {
+        return this.black;
+    }
+
+    /**
+     * Getter returning the color of the winner
+     * @return the color, null for a draw
+     */
+    public Color getWinner() {
+        return this.winner;
+    }
+
+    /**
+     * Getter returning the seed of the game
+     * @return the seed
+     */
+    public long getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * Getter returning the index of the game among the games of its seed
+     * @return the index
+     */
+    public int getIndex() {
+        return this.index;
+    }
+
+    /**
+     * Getter returning the number of plies of the game
+     * @return the number of plies
+     */
+    public int getPlies() {
+        return this.moves.length;
+    }
+
+    /**
+     * Getter returning a turn of the game
+     * @param ply - the index of the turn, from 0
+     * @return the turn encoded as PackedMove
+     */
+    int getMove(int ply) {
+        return this.moves[ply];
+    }
+}
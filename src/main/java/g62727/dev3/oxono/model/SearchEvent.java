@@ -0,0 +1,44 @@
+package g62727.dev3.oxono.model;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Represents the JDK Flight Recorder event of one search of a MiniMaxStrategy, its duration being the search
+ * Recorded only when a recording enables it, so the searches can be tuned from the recordings of real games
+ */
+@Name("g62727.dev3.oxono.Search")
+@Label("Search")
+@Category({"Oxono", "Search"})
+@Description("One search of the minimax strategy")
+final class SearchEvent extends jdk.jfr.Event {
+    /**
+     * Attributes of the SearchEvent class, the fields of the event
+     */
+    @Label("Board Size")
+    int boardSize;
+    @Label("Best Move")
+    @Description("The chosen turn encoded as PackedMove")
+    int bestMove;
+    @Label("Nodes")
+    long nodes;
+    @Label("Nodes per Second")
+    long nodesPerSecond;
+    @Label("Completed Depth")
+    int completedDepth;
+    @Label("Table Probes")
+    long tableProbes;
+    @Label("Table Hits")
+    long tableHits;
+    @Label("Cutoffs")
+    long cutoffs;
+    @Label("First Move Cutoff Rate")
+    double firstMoveCutoffRate;
+    @Label("Branching Factor")
+    double branchingFactor;
+    @Label("Cutoffs per Ply")
+    @Description("The number of cutoffs at every distance from the root, separated by commas")
+    String cutoffsPerPly;
+}
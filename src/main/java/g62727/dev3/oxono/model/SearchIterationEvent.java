@@ -0,0 +1,27 @@
+package g62727.dev3.oxono.model;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Represents the JDK Flight Recorder event of one iteration of the search of a MiniMaxStrategy, its duration being
+ * the iteration
+ */
+@Name("g62727.dev3.oxono.SearchIteration")
+@Label("Search Iteration")
+@Category({"Oxono", "Search"})
+@Description("One iteration of the iterative deepening of the minimax strategy")
+final class SearchIterationEvent extends jdk.jfr.Event {
+    /**
+     * Attributes of the SearchIterationEvent class, the fields of the event
+     */
+    @Label("Depth")
+    int depth;
+    @Label("Nodes")
+    long nodes;
+    @Label("Completed")
+    @Description("Whether the iteration was fully searched before a limit was reached")
+    boolean completed;
+}
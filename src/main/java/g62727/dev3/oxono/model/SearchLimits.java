@@ -0,0 +1,97 @@
+package g62727.dev3.oxono.model;
+
+/**
+ * Represents the limits a search has to stop at : a maximum depth, a wall-clock time and a number of positions
+ * The search deepens one turn at a time until one of them is reached
+ * Immutable, a limit that isn't wanted is simply left unlimited
+ */
+public final class SearchLimits {
+    /**
+     * Value of a limit that is never reached
+     */
+    static final long UNLIMITED = Long.MAX_VALUE;
+    /**
+     * The deepest a search ever goes, whatever its other limits
+     */
+    static final int MAX_DEPTH = 64;
+    /**
+     * Attributes of the SearchLimits class
+     */
+    private final int depth;
+    private final long millis;
+    private final long nodes;
+
+    /**
+     * Constructor to instantiate the limits of a search
+     *
+     * @param depth  - the maximum number of turns to look ahead
+     * @param millis - the maximum wall-clock time of the search in milliseconds
+     * @param nodes  - the maximum number of positions to visit
+     * @throws IllegalArgumentException if one of the limits isn't strictly positive
+     */
+    SearchLimits(int depth, long millis, long nodes) {
+        if (depth <= 0 || millis <= 0 || nodes <= 0) {
+            throw new IllegalArgumentException("Invalid search limits : " + depth + ", " + millis + ", " + nodes);
+        }
+        this.depth = Math.min(depth, MAX_DEPTH);
+        this.millis = millis;
+        this.nodes = nodes;
+    }
+
+    /**
+     * Method creating limits only bounding the depth of the search
+     *
+     * @param depth - the maximum number of turns to look ahead
+     * @return the limits
+     */
+    static SearchLimits depth(int depth) {
+        return new SearchLimits(depth, UNLIMITED, UNLIMITED);
+    }
+
+    /**
+     * Method creating limits only bounding the wall-clock time of the search
+     *
+     * @param millis - the maximum time of the search in milliseconds
+     * @return the limits
+     */
+    static SearchLimits millis(long millis) {
+        return new SearchLimits(MAX_DEPTH, millis, UNLIMITED);
+    }
+
+    /**
+     * Method creating limits only bounding the number of positions visited by the search
+     *
+     * @param nodes - the maximum number of positions to visit
+     * @return the limits
+     */
+    static SearchLimits nodes(long nodes) {
+        return new SearchLimits(MAX_DEPTH, UNLIMITED, nodes);
+    }
+
+    /**
+     * Getter returning the maximum number of turns to look ahead
+     *
+     * @return the maximum depth
+     */
+    int getDepth() {
+        return this.depth;
+    }
+
+    /**
+     * Getter returning the maximum wall-clock time of the search
+     *
+     * @return the time in milliseconds, UNLIMITED if the time isn't bounded
+     */
+    long getMillis() {
+        return this.millis;
+    }
+
+    /**
+     * Getter returning the maximum number of positions to visit
+     *
+     * @return the number of positions, UNLIMITED if it isn't bounded
+     */
+    long getNodes() {
+        return this.nodes;
+    }
+}
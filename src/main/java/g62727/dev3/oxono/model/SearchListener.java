@@ -0,0 +1,15 @@
+package g62727.dev3.oxono.model;
+
+/**
+ * Interface writing the contract to be told about every search of a MiniMaxStrategy
+ * Used to tune the search from the statistics of real games
+ */
+@FunctionalInterface
+public interface SearchListener {
+    /**
+     * Called at the end of every search, on the thread that searched
+     *
+     * @param statistics - the statistics of the search
+     */
+    void searchCompleted(SearchStatistics statistics);
+}
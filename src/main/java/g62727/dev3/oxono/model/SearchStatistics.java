@@ -0,0 +1,192 @@
+package g62727.dev3.oxono.model;
+
+import java.util.Arrays;
+
+/**
+ * Represents the statistics of one search of a MiniMaxStrategy, given to its SearchListener at the end of the search
+ * The positions visited by every thread of the search are counted, the iterations only by the thread deepening
+ * first. The cutoffs are counted by distance from the root : a cutoff on the first turn searched means the turns
+ * were well ordered, so the rate of first turn cutoffs tells how good the MoveOrdering is
+ * The effective branching factor is the ratio of the positions of the last completed iteration to those of the one
+ * before : how many more positions one more turn of depth costs
+ */
+public final class SearchStatistics {
+    /**
+     * Attributes of the SearchStatistics class
+     */
+    private final int bestMove;
+    private final long nodes;
+    private final long nanos;
+    private final int completedDepth;
+    private final long tableProbes;
+    private final long tableHits;
+    private final long[] cutoffs;
+    private final long firstMoveCutoffs;
+    private final long[] iterationNodes;
+    private final long[] iterationNanos;
+
+    /**
+     * Constructor to instantiate the statistics of a search, the arrays are copied
+     * @param bestMove - the turn chosen by the search, encoded as PackedMove
+     * @param nodes - the number of positions visited
+     * @param nanos - the duration of the search in nanoseconds
+     * @param completedDepth - the depth of the last completed iteration
+     * @param tableProbes - the number of times the transposition table was looked up
+     * @param tableHits - the number of times a position was found in the transposition table
+     * @param cutoffs - the number of cutoffs at every distance from the root
+     * @param firstMoveCutoffs - the number of cutoffs on the first turn searched
+     * @param iterationNodes - the number of positions of every iteration, indexed by its depth
+     * @param iterationNanos - the duration of every iteration in nanoseconds, indexed by its depth
+     */
+    SearchStatistics(int bestMove, long nodes, long nanos, int completedDepth, long tableProbes, long tableHits,
+                     long[] cutoffs, long firstMoveCutoffs, long[] iterationNodes, long[] iterationNanos) {
+        this.bestMove = bestMove;
+        this.nodes = nodes;
+        this.nanos = nanos;
+        this.completedDepth = completedDepth;
+        this.tableProbes = tableProbes;
+        this.tableHits = tableHits;
+        this.cutoffs = cutoffs.clone();
+        this.firstMoveCutoffs = firstMoveCutoffs;
+        this.iterationNodes = iterationNodes.clone();
+        this.iterationNanos = iterationNanos.clone();
+    }
+
+    /**
+     * Getter returning the turn chosen by the search
+     * @return the turn encoded as PackedMove, PackedMove.NONE if the player couldn't play
+     */
+    public int getBestMove() {
+        return this.bestMove;
+    }
+
+    /**
+     * Getter returning the number of positions visited by the search
+     * @return the number of positions
+     */
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    /**
+     * Getter returning the duration of the search
+     * @return the duration in nanoseconds
+     */
+    public long getNanos() {
+        return this.nanos;
+    }
+
+    /**
+     * Method returning the speed of the search
+     * @return the number of positions visited per second, 0 if the search took no measurable time
+     */
+    public long getNodesPerSecond() {
+        return (this.nanos <= 0) ? 0 : (long) (this.nodes * 1e9 / this.nanos);
+    }
+
+    /**
+     * Getter returning the depth of the last iteration the search fully completed
+     * @return the completed depth
+     */
+    public int getCompletedDepth() {
+        return this.completedDepth;
+    }
+
+    /**
+     * Getter returning the number of times the search looked a position up in the transposition table
+     * @return the number of probes
+     */
+    public long getTableProbes() {
+        return this.tableProbes;
+    }
+
+    /**
+     * Getter returning the number of times a position was found in the transposition table
+     * @return the number of hits
+     */
+    public long getTableHits() {
+        return this.tableHits;
+    }
+
+    /**
+     * Method returning the share of the probes of the transposition table finding their position
+     * @return the rate between 0 and 1, 0 without probes
+     */
+    public double getTableHitRate() {
+        return (this.tableProbes == 0) ? 0 : (double) this.tableHits / this.tableProbes;
+    }
+
+    /**
+     * Method returning the largest distance from the root the cutoffs are counted at
+     * @return the number of counted plies
+     */
+    public int getPlies() {
+        return this.cutoffs.length;
+    }
+
+    /**
+     * Method returning the number of cutoffs at a distance from the root
+     * @param ply - the distance from the root
+     * @return the number of cutoffs, 0 past the counted plies
+     */
+    public long getCutoffs(int ply) {
+        return (ply >= 0 && ply < this.cutoffs.length) ? this.cutoffs[ply] : 0;
+    }
+
+    /**
+     * Method returning the number of cutoffs at every distance from the root
+     * @return the total number of cutoffs
+     */
+    public long getCutoffs() {
+        return Arrays.stream(this.cutoffs).sum();
+    }
+
+    /**
+     * Method returning the share of the cutoffs happening on the first turn searched
+     * @return the rate between 0 and 1, 0 without cutoffs
+     */
+    public double getFirstMoveCutoffRate() {
+        long total = getCutoffs();
+        return (total == 0) ? 0 : (double) this.firstMoveCutoffs / total;
+    }
+
+    /**
+     * Method returning the number of positions the thread deepening first visited during an iteration
+     * @param depth - the depth of the iteration
+     * @return the number of positions, 0 if that iteration wasn't searched
+     */
+    public long getIterationNodes(int depth) {
+        return (depth >= 0 && depth < this.iterationNodes.length) ? this.iterationNodes[depth] : 0;
+    }
+
+    /**
+     * Method returning the duration of an iteration
+     * @param depth - the depth of the iteration
+     * @return the duration in nanoseconds, 0 if that iteration wasn't searched
+     */
+    public long getIterationNanos(int depth) {
+        return (depth >= 0 && depth < this.iterationNanos.length) ? this.iterationNanos[depth] : 0;
+    }
+
+    /**
+     * Method returning the effective branching factor : the positions of the last completed iteration divided by
+     * those of the iteration before
+     * @return the branching factor, 0 if fewer than two iterations were completed
+     */
+    public double getBranchingFactor() {
+        long previous = getIterationNodes(this.completedDepth - 1);
+        long last = getIterationNodes(this.completedDepth);
+        return (previous == 0 || last == 0) ? 0 : (double) last / previous;
+    }
+
+    /**
+     * Method describing the statistics on one line
+     * @return the description of the statistics
+     */
+    @Override
+    public String toString() {
+        return String.format("depth %d, %d nodes in %.1f ms (%d nodes/s), hits %.1f%%, first move cutoffs %.1f%%,"
+                        + " branching %.2f", this.completedDepth, this.nodes, this.nanos / 1e6, getNodesPerSecond(),
+                100 * getTableHitRate(), 100 * getFirstMoveCutoffRate(), getBranchingFactor());
+    }
+}
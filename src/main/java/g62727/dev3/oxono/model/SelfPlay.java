@@ -0,0 +1,591 @@
+package g62727.dev3.oxono.model;
+
+import g62727.dev3.oxono.util.Strategy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+/**
+ * Plays games between two strategies without any interface, on a pool of platform or virtual threads, to compare
+ * them before shipping a change of one of them
+ * The games are played in pairs : both games of a pair start with the same random turns, drawn from the seed and
+ * the index of the pair, and the strategies swap their colors between them, so neither the opening nor the color
+ * favours one of them. The random choices of the strategies are drawn from the seed and the index of the game, so
+ * the same seed replays the same games, the strategies limited by time aside
+ * Every thread plays its games on its own Oxono with its own strategies, which don't ponder and are prepared for
+ * every game by Strategy.newGame, so the games don't share anything but the opening books and the tables of the
+ * strategies are only allocated once per thread. The strategies searching on every processor are only played one
+ * game at a time, several of them would share the processors. The games are recorded by a GameRecordWriter when
+ * one is given
+ * Usage : SelfPlay [first strategy] [second strategy] [games] [size] [threads] [platform|virtual] [seed]
+ * [opening plies] [directory of the records]
+ */
+public final class SelfPlay {
+    /**
+     * Attributes of the SelfPlay class
+     */
+    private static final int DEFAULT_GAMES = 100;
+    private static final int DEFAULT_SIZE = 6;
+    private static final long DEFAULT_SEED = 1;
+    private static final int DEFAULT_OPENING_PLIES = 2;
+    private static final int INITIAL_BUFFER_SIZE = 256;
+    private static final int PENDING_PAIRS_PER_THREAD = 2;
+    private final int size;
+    private final Strategies first;
+    private final Strategies second;
+    private final int openingPlies;
+    private final long seed;
+    private GameRecordWriter recordWriter;
+
+    /**
+     * Constructor to instantiate the games between two strategies
+     * @param size - the size of the board
+     * @param first - the strategy the results are given for
+     * @param second - its opponent
+     * @param openingPlies - the number of random turns starting every game
+     * @param seed - the seed of the random turns and of the random choices of the strategies
+     * @throws IllegalArgumentException if the number of opening plies is negative
+     */
+    SelfPlay(int size, Strategies first, Strategies second, int openingPlies, long seed) {
+        if (openingPlies < 0) {
+            throw new IllegalArgumentException("Invalid number of opening plies : " + openingPlies);
+        }
+        this.size = size;
+        this.first = first;
+        this.second = second;
+        this.openingPlies = openingPlies;
+        this.seed = seed;
+    }
+
+    /**
+     * Entry point playing the games and printing their results
+     * @param args - the two strategies, the number of games, the size of the board, the number of threads, the kind
+     *             of threads, the seed, the number of random turns starting every game and the directory to record
+     *             the games in, one shard per thread, all optional but the strategies
+     * @throws IOException if the games can't be recorded
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage : SelfPlay <first strategy> <second strategy> [games] [size] [threads]"
+                    + " [platform|virtual] [seed] [opening plies] [directory of the records]");
+            return;
+        }
+        Strategies first = Strategies.valueOf(args[0]);
+        Strategies second = Strategies.valueOf(args[1]);
+        int games = (args.length > 2) ? Integer.parseInt(args[2]) : DEFAULT_GAMES;
+        int size = (args.length > 3) ? Integer.parseInt(args[3]) : DEFAULT_SIZE;
+        int threads = (args.length > 4) ? Integer.parseInt(args[4]) : defaultThreads(first, second);
+        boolean virtualThreads = args.length > 5 && args[5].equals("virtual");
+        long seed = (args.length > 6) ? Long.parseLong(args[6]) : DEFAULT_SEED;
+        int openingPlies = (args.length > 7) ? Integer.parseInt(args[7]) : DEFAULT_OPENING_PLIES;
+        SelfPlay selfPlay = new SelfPlay(size, first, second, openingPlies, seed);
+        if (args.length <= 8) {
+            System.out.println(selfPlay.play(games, threads, virtualThreads));
+            return;
+        }
+        try (GameRecordWriter writer = new GameRecordWriter(Path.of(args[8]),
+                "selfplay-" + first + "-" + second + "-" + seed, threads)) {
+            selfPlay.setRecordWriter(writer);
+            System.out.println(selfPlay.play(games, threads, virtualThreads));
+        }
+    }
+
+    /**
+     * Method returning the number of games played at the same time when none is given : one per processor, or one
+     * if a strategy searches on every processor
+     *
+     * @param first  - the strategy the results are given for
+     * @param second - its opponent
+     * @return the number of threads
+     */
+    static int defaultThreads(Strategies first, Strategies second) {
+        return (first.isParallel() || second.isParallel()) ? 1 : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Setter giving the writer every game played from now on is recorded with
+     * @param recordWriter - the writer, null to stop recording the games
+     */
+    void setRecordWriter(GameRecordWriter recordWriter) {
+        this.recordWriter = recordWriter;
+    }
+
+    /**
+     * Method playing the given number of games, several at a time
+     *
+     * @param games          - the number of games, the two games of a pair being played by the same call
+     * @param threads        - the number of games played at the same time
+     * @param virtualThreads - true to play them on virtual threads, false on platform threads
+     * @return the results of the games, from the point of view of the first strategy
+     * @throws IllegalArgumentException if the number of threads isn't strictly positive, or greater than one with
+     *                                  a strategy searching on every processor
+     */
+    SelfPlayResult play(int games, int threads, boolean virtualThreads) {
+        checkThreads(threads);
+        long start = System.nanoTime();
+        SelfPlayResult result = new SelfPlayResult(this.size, this.first, this.second);
+        Queue<Opponents> idle = new ConcurrentLinkedQueue<>();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        try (ExecutorService pool = newPool(threads, virtualThreads)) {
+            List<CompletableFuture<PlayedGame>> played = IntStream.range(0, games).mapToObj(game ->
+                    CompletableFuture.supplyAsync(() -> playGames(idle, cancelled, game)[0], pool)).toList();
+            for (CompletableFuture<PlayedGame> game : played) {
+                result.add(game.join());
+            }
+        } finally {
+            close(idle);
+        }
+        result.setNanos(System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Method playing pairs of games, several at a time, until the given test decides or the maximum number of games
+     * is played
+     * The pairs are counted by the test in the order of their index, whatever order they end in, so the same seed
+     * stops the test after the same games. The games still being played when the test decides are dropped : their
+     * searches are cancelled and they end at once, without being recorded
+     *
+     * @param sprt           - the test counting the pairs
+     * @param maxGames       - the maximum number of games, rounded down to a number of pairs
+     * @param threads        - the number of games played at the same time
+     * @param virtualThreads - true to play them on virtual threads, false on platform threads
+     * @return the results of the games counted by the test, from the point of view of the first strategy
+     * @throws IllegalArgumentException if the number of threads isn't strictly positive, or greater than one with
+     *                                  a strategy searching on every processor
+     */
+    SelfPlayResult play(Sprt sprt, int maxGames, int threads, boolean virtualThreads) {
+        checkThreads(threads);
+        long start = System.nanoTime();
+        SelfPlayResult result = new SelfPlayResult(this.size, this.first, this.second);
+        int maxPairs = maxGames / 2;
+        Deque<CompletableFuture<PlayedGame[]>> pending = new ArrayDeque<>();
+        Queue<Opponents> idle = new ConcurrentLinkedQueue<>();
+        AtomicBoolean dropped = new AtomicBoolean();
+        try (ExecutorService pool = newPool(threads, virtualThreads)) {
+            int next = 0;
+            while (sprt.getDecision() == null) {
+                while (pending.size() < PENDING_PAIRS_PER_THREAD * threads && next < maxPairs) {
+                    int pair = next++;
+                    pending.add(CompletableFuture.supplyAsync(
+                            () -> playGames(idle, dropped, 2 * pair, 2 * pair + 1), pool));
+                }
+                if (pending.isEmpty()) {
+                    break;
+                }
+                PlayedGame[] games = pending.poll().join();
+                result.add(games[0]);
+                result.add(games[1]);
+                sprt.addPair(games[0].getFirstScore() + games[1].getFirstScore());
+            }
+            dropped.set(true);
+            pool.shutdownNow();
+        } finally {
+            close(idle);
+        }
+        result.setNanos(System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Method playing one game : the first strategy plays pink in the even games and black in the odd ones, the
+     * opening being the same for both games of a pair
+     * The game is recorded once it is over if there's a writer
+     *
+     * @param index - the index of the game
+     * @return the turns and the result of the game
+     * @throws IllegalStateException if a strategy chose an illegal turn
+     * @throws UncheckedIOException if the game can't be recorded
+     */
+    PlayedGame playGame(int index) {
+        return playGame(index, new AtomicBoolean());
+    }
+
+    /**
+     * Method playing one game as playGame does, dropped as soon as the given token is set
+     *
+     * @param index     - the index of the game
+     * @param cancelled - the token, set to true to drop the game
+     * @return the turns and the result of the game
+     * @throws IllegalStateException if a strategy chose an illegal turn
+     * @throws UncheckedIOException if the game can't be recorded
+     * @throws CancellationException if the game was dropped
+     */
+    PlayedGame playGame(int index, AtomicBoolean cancelled) {
+        try (Opponents opponents = new Opponents(cancelled)) {
+            return playGame(opponents, index);
+        }
+    }
+
+    /**
+     * Private helper method playing games with the strategies of one of the given idle opponents, new ones if none
+     * is idle, given back once the games are played
+     * @param idle - the opponents no thread is playing with, all cancelled by the given token
+     * @param cancelled - the token dropping the games once set
+     * @param indices - the indices of the games
+     * @return the games, in the order of their indices
+     */
+    private PlayedGame[] playGames(Queue<Opponents> idle, AtomicBoolean cancelled, int... indices) {
+        Opponents opponents = idle.poll();
+        if (opponents == null) {
+            opponents = new Opponents(cancelled);
+        }
+        try {
+            PlayedGame[] games = new PlayedGame[indices.length];
+            for (int i = 0; i < indices.length; i++) {
+                games[i] = playGame(opponents, indices[i]);
+            }
+            return games;
+        } finally {
+            idle.add(opponents);
+        }
+    }
+
+    /**
+     * Private helper method playing one game with the given opponents and recording it, as described by playGame
+     * @param opponents - the game and the strategies to play with
+     * @param index - the index of the game
+     * @return the turns and the result of the game
+     */
+    private PlayedGame playGame(Opponents opponents, int index) {
+        PlayedGame game = play(opponents, index);
+        if (this.recordWriter != null) {
+            try {
+                this.recordWriter.write(toRecord(game));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return game;
+    }
+
+    /**
+     * Method returning the record of a played game
+     *
+     * @param game - the game
+     * @return its record
+     */
+    RecordedGame toRecord(PlayedGame game) {
+        int[] moves = new int[game.plies];
+        System.arraycopy(game.moves, 0, moves, 0, game.plies);
+        return new RecordedGame(this.size, game.firstPink ? this.first : this.second,
+                game.firstPink ? this.second : this.first, game.winner, this.seed, game.index, moves);
+    }
+
+    /**
+     * Private helper method playing one game, as described by playGame
+     * @param opponents - the game and the strategies to play with, prepared for the game
+     * @param index - the index of the game
+     * @return the turns and the result of the game
+     * @throws CancellationException if the token of the opponents was set
+     */
+    private PlayedGame play(Opponents opponents, int index) {
+        Oxono oxono = opponents.oxono;
+        oxono.copyPosition(opponents.start);
+        boolean firstPink = index % 2 == 0;
+        SplittableRandom opening = new SplittableRandom(this.seed + index / 2);
+        SplittableRandom choices = new SplittableRandom(~(this.seed + index));
+        Strategy pink = firstPink ? opponents.first : opponents.second;
+        Strategy black = firstPink ? opponents.second : opponents.first;
+        pink.newGame(choices.nextLong());
+        black.newGame(choices.nextLong());
+        PlayedGame game = new PlayedGame(index, firstPink, oxono.getGeometry().getCells());
+        int[] moves = new int[INITIAL_BUFFER_SIZE];
+        Color color = oxono.getToPlay().getColor();
+        while (true) {
+            int count = oxono.generateMoves(color, moves);
+            if (count > moves.length) {
+                moves = new int[count];
+                count = oxono.generateMoves(color, moves);
+            }
+            if (count == 0) {
+                return game;
+            }
+            int move;
+            if (game.plies < this.openingPlies) {
+                move = moves[opening.nextInt(count)];
+            } else {
+                long start = System.nanoTime();
+                move = chooseTurn(oxono, (color == Color.PINK) ? pink : black);
+                game.addTurnNanos(color, System.nanoTime() - start);
+            }
+            if (opponents.cancelled.get()) {
+                throw new CancellationException("Game " + index + " dropped");
+            }
+            if (!contains(moves, count, move)) {
+                throw new IllegalStateException("Illegal turn of " + color + " in game " + index + " : "
+                        + Perft.describe(move, oxono.getGeometry()));
+            }
+            oxono.makeMove(move);
+            game.moves[game.plies++] = move;
+            if (oxono.lastMoveWins()) {
+                game.winner = color;
+                return game;
+            }
+            if (oxono.isDraw()) {
+                return game;
+            }
+            color = oxono.getToPlay().getColor();
+        }
+    }
+
+    /**
+     * Private helper method checking the number of games played at the same time
+     * @param threads - the number of threads
+     * @throws IllegalArgumentException if it isn't strictly positive, or greater than one with a strategy searching
+     *                                  on every processor
+     */
+    private void checkThreads(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Invalid number of threads : " + threads);
+        }
+        if (threads > 1 && (this.first.isParallel() || this.second.isParallel())) {
+            throw new IllegalArgumentException("A strategy searching on every processor plays one game at a time : "
+                    + threads + " threads");
+        }
+    }
+
+    /**
+     * Private helper method releasing the threads of the strategies of the given opponents
+     * @param opponents - the opponents
+     */
+    private static void close(Queue<Opponents> opponents) {
+        for (Opponents each : opponents) {
+            each.close();
+        }
+    }
+
+    /**
+     * Private helper method creating the pool of threads playing the games
+     * @param threads - the number of threads
+     * @param virtualThreads - true for virtual threads, false for daemon platform threads
+     * @return the pool
+     */
+    private static ExecutorService newPool(int threads, boolean virtualThreads) {
+        ThreadFactory factory = virtualThreads
+                ? Thread.ofVirtual().name("oxono-self-play-", 0).factory()
+                : Thread.ofPlatform().daemon().name("oxono-self-play-", 0).factory();
+        return Executors.newFixedThreadPool(threads, factory);
+    }
+
+    /**
+     * Private helper method asking a strategy its turn the way the game does : the totem, its destination, then the
+     * cell of the token once the totem is there
+     * The totem is switched to the other one when the player has no token of its symbol left, as the game does
+     * @param oxono - the game, left as it was
+     * @param strategy - the strategy of the player to play
+     * @return the turn encoded as PackedMove
+     */
+    private static int chooseTurn(Oxono oxono, Strategy strategy) {
+        Player player = oxono.getToPlay();
+        Totem totem = strategy.chooseTotem(oxono);
+        Symbol symbol = totem.getSymbol();
+        if ((symbol == Symbol.O) ? player.getTokensO() <= 0 : player.getTokensX() <= 0) {
+            symbol = (symbol == Symbol.O) ? Symbol.X : Symbol.O;
+            totem = oxono.findTotem(symbol);
+        }
+        Position destination = strategy.chooseTotemMove(oxono, totem);
+        int from = oxono.getTotemCell(symbol);
+        int to = oxono.cellOf(destination.getRow(), destination.getCol());
+        oxono.moveTotem(symbol, to);
+        Position insert = strategy.chooseTokenInsert(oxono, totem);
+        oxono.moveTotem(symbol, from);
+        return PackedMove.pack(symbol, to, oxono.cellOf(insert.getRow(), insert.getCol()));
+    }
+
+    /**
+     * Private helper method checking whether a turn is among the given turns
+     * @param moves - the turns
+     * @param count - the number of turns
+     * @param move - the turn to look for
+     * @return true if it's the case, false otherwise
+     */
+    private static boolean contains(int[] moves, int count, int move) {
+        for (int i = 0; i < count; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Represents the game and the strategies a thread plays its games with, reused from game to game
+     */
+    private final class Opponents implements AutoCloseable {
+        /**
+         * Attributes of the Opponents class
+         */
+        private final Oxono start;
+        private final Oxono oxono;
+        private final Strategy first;
+        private final Strategy second;
+        private final AtomicBoolean cancelled;
+
+        /**
+         * Constructor creating the game and both strategies, prepared for every game by play
+         * @param cancelled - the token cancelling the searches of the strategies and dropping the games once set
+         */
+        private Opponents(AtomicBoolean cancelled) {
+            this.start = new Oxono(SelfPlay.this.size);
+            this.oxono = this.start.copy();
+            this.first = SelfPlay.this.first.createStrategy(this.oxono, 0);
+            this.second = SelfPlay.this.second.createStrategy(this.oxono, 0);
+            this.cancelled = cancelled;
+            this.first.setCancelToken(cancelled);
+            this.second.setCancelToken(cancelled);
+        }
+
+        /**
+         * Releases the threads of both strategies
+         */
+        @Override
+        public void close() {
+            this.first.close();
+            this.second.close();
+        }
+    }
+
+    /**
+     * Represents a game played by SelfPlay : its turns, its result and the time the strategies took to play
+     */
+    static final class PlayedGame {
+        /**
+         * Attributes of the PlayedGame class
+         */
+        private final int index;
+        private final boolean firstPink;
+        private final int[] moves;
+        private int plies;
+        private Color winner;
+        private long pinkNanos;
+        private int pinkTurns;
+        private long blackNanos;
+        private int blackTurns;
+
+        /**
+         * Constructor to instantiate a game about to be played
+         * @param index - the index of the game
+         * @param firstPink - true if the first strategy plays pink, false if it plays black
+         * @param maxPlies - the maximum number of plies of the game
+         */
+        private PlayedGame(int index, boolean firstPink, int maxPlies) {
+            this.index = index;
+            this.firstPink = firstPink;
+            this.moves = new int[maxPlies];
+        }
+
+        /**
+         * Private helper method counting the time a strategy took to choose a turn
+         * @param color - the color of the player of the strategy
+         * @param nanos - the time taken, in nanoseconds
+         */
+        private void addTurnNanos(Color color, long nanos) {
+            if (color == Color.PINK) {
+                this.pinkNanos += nanos;
+                this.pinkTurns++;
+            } else {
+                this.blackNanos += nanos;
+                this.blackTurns++;
+            }
+        }
+
+        /**
+         * Getter returning the index of the game
+         * @return the index
+         */
+        int getIndex() {
+            return this.index;
+        }
+
+        /**
+         * Getter returning whether the first strategy played pink
+         * @return true if it's the case, false if it played black
+         */
+        boolean isFirstPink() {
+            return this.firstPink;
+        }
+
+        /**
+         * Getter returning the number of plies of the game, the random ones of the opening included
+         * @return the number of plies
+         */
+        int getPlies() {
+            return this.plies;
+        }
+
+        /**
+         * Getter returning a turn of the game
+         * @param ply - the index of the turn, from 0
+         * @return the turn encoded as PackedMove
+         */
+        int getMove(int ply) {
+            return this.moves[ply];
+        }
+
+        /**
+         * Getter returning the color of the winner
+         * @return the color, null if the game is a draw
+         */
+        Color getWinner() {
+            return this.winner;
+        }
+
+        /**
+         * Getter returning the score of the first strategy
+         * @return 2 for a win, 1 for a draw, 0 for a loss
+         */
+        int getFirstScore() {
+            if (this.winner == null) {
+                return 1;
+            }
+            return ((this.winner == Color.PINK) == this.firstPink) ? 2 : 0;
+        }
+
+        /**
+         * Getter returning the time the first strategy took to choose its turns
+         * @return the time, in nanoseconds
+         */
+        long getFirstNanos() {
+            return this.firstPink ? this.pinkNanos : this.blackNanos;
+        }
+
+        /**
+         * Getter returning the number of turns the first strategy chose
+         * @return the number of turns
+         */
+        int getFirstTurns() {
+            return this.firstPink ? this.pinkTurns : this.blackTurns;
+        }
+
+        /**
+         * Getter returning the time the second strategy took to choose its turns
+         * @return the time, in nanoseconds
+         */
+        long getSecondNanos() {
+            return this.firstPink ? this.blackNanos : this.pinkNanos;
+        }
+
+        /**
+         * Getter returning the number of turns the second strategy chose
+         * @return the number of turns
+         */
+        int getSecondTurns() {
+            return this.firstPink ? this.blackTurns : this.pinkTurns;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package g62727.dev3.oxono.model;
+
+/**
+ * Represents the results of the games played by SelfPlay between two strategies, from the point of view of the
+ * first one : its wins, draws and losses, and the Elo difference they give with its margin of error
+ * The Elo difference is the one whose expected score is the score of the games. Its margin is the 95% confidence
+ * interval of the score, from the spread of the results of the games, turned into Elo
+ * The time of the turns only counts the turns chosen by the strategies, not the random turns of the openings
+ */
+public final class SelfPlayResult {
+    /**
+     * Attributes of the SelfPlayResult class
+     */
+    private static final double CONFIDENCE = 1.959964;
+    private final int size;
+    private final Strategies first;
+    private final Strategies second;
+    private int wins;
+    private int draws;
+    private int losses;
+    private long plies;
+    private long firstNanos;
+    private long firstTurns;
+    private long secondNanos;
+    private long secondTurns;
+    private long nanos;
+
+    /**
+     * Constructor to instantiate the results of the games between two strategies, before any game
+     * @param size - the size of the board
+     * @param first - the strategy the results are given for
+     * @param second - its opponent
+     */
+    SelfPlayResult(int size, Strategies first, Strategies second) {
+        this.size = size;
+        this.first = first;
+        this.second = second;
+    }
+
+    /**
+     * Method counting the result of a played game
+     *
+     * @param game - the game
+     */
+    void add(SelfPlay.PlayedGame game) {
+        switch (game.getFirstScore()) {
+            case 2 -> this.wins++;
+            case 1 -> this.draws++;
+            default -> this.losses++;
+        }
+        this.plies += game.getPlies();
+        this.firstNanos += game.getFirstNanos();
+        this.firstTurns += game.getFirstTurns();
+        this.secondNanos += game.getSecondNanos();
+        this.secondTurns += game.getSecondTurns();
+    }
+
+    /**
+     * Setter giving the time all the games took together
+     * @param nanos - the time, in nanoseconds
+     */
+    void setNanos(long nanos) {
+        this.nanos = nanos;
+    }
+
+    /**
+     * Getter returning the number of games played
+     * @return the number of games
+     */
+    public int getGames() {
+        return this.wins + this.draws + this.losses;
+    }
+
+    /**
+     * Getter returning the number of games won by the first strategy
+     * @return the number of wins
+     */
+    public int getWins() {
+        return this.wins;
+    }
+
+    /**
+     * Getter returning the number of draws
+     * @return the number of draws
+     */
+    public int getDraws() {
+        return this.draws;
+    }
+
+    /**
+     * Getter returning the number of games lost by the first strategy
+     * @return the number of losses
+     */
+    public int getLosses() {
+        return this.losses;
+    }
+
+    /**
+     * Method returning the score of the first strategy, a win counting 1 and a draw 1/2
+     * @return the score per game, between 0 and 1, NaN if no game was played
+     */
+    public double getScore() {
+        return (this.wins + this.draws / 2.0) / getGames();
+    }
+
+    /**
+     * Method returning the Elo difference between the first strategy and the second one
+     * @return the difference, infinite if a strategy won every game
+     */
+    public double getEloDifference() {
+        return elo(getScore());
+    }
+
+    /**
+     * Method returning the margin of error of the Elo difference : the difference is within that margin 95% of the
+     * time
+     * @return the margin, infinite if the interval reaches a score of 0 or 1, NaN if no game was played
+     */
+    public double getEloMargin() {
+        int games = getGames();
+        double score = getScore();
+        double variance = (this.wins * square(1 - score) + this.draws * square(0.5 - score)
+                + this.losses * square(score)) / games;
+        double deviation = CONFIDENCE * Math.sqrt(variance / games);
+        return (elo(Math.min(score + deviation, 1)) - elo(Math.max(score - deviation, 0))) / 2;
+    }
+
+    /**
+     * Method returning the average length of the games
+     * @return the number of plies per game, the random ones of the openings included
+     */
+    public double getAveragePlies() {
+        return (double) this.plies / getGames();
+    }
+
+    /**
+     * Method returning the average time the first strategy took to choose a turn
+     * @return the time per turn in milliseconds, 0 if it didn't choose any turn
+     */
+    public double getFirstAverageMillis() {
+        return (this.firstTurns == 0) ? 0 : this.firstNanos / 1e6 / this.firstTurns;
+    }
+
+    /**
+     * Method returning the average time the second strategy took to choose a turn
+     * @return the time per turn in milliseconds, 0 if it didn't choose any turn
+     */
+    public double getSecondAverageMillis() {
+        return (this.secondTurns == 0) ? 0 : this.secondNanos / 1e6 / this.secondTurns;
+    }
+
+    /**
+     * Method returning the speed of the games
+     * @return the number of games played per second, 0 if they took no measurable time
+     */
+    public double getGamesPerSecond() {
+        return (this.nanos <= 0) ? 0 : getGames() * 1e9 / this.nanos;
+    }
+
+    /**
+     * Method returning the Elo difference whose expected score is the given one
+     *
+     * @param score - the score per game, between 0 and 1
+     * @return the Elo difference, 0 for a score of 1/2
+     */
+    static double elo(double score) {
+        return -400 * Math.log10(1 / score - 1);
+    }
+
+    /**
+     * Private helper method squaring a number
+     * @param x - the number
+     * @return its square
+     */
+    private static double square(double x) {
+        return x * x;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s vs %s on %dx%d : %d games, +%d =%d -%d, score %.1f%%, Elo %+.1f +/- %.1f%n"
+                        + "average length %.1f plies, average turn %s %.2f ms, %s %.2f ms, %.2f games/s",
+                this.first, this.second, this.size, this.size, getGames(), this.wins, this.draws, this.losses,
+                100 * getScore(), getEloDifference(), getEloMargin(), getAveragePlies(), this.first,
+                getFirstAverageMillis(), this.second, getSecondAverageMillis(), getGamesPerSecond());
+    }
+}
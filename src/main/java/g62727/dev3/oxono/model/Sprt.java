@@ -0,0 +1,226 @@
+package g62727.dev3.oxono.model;
+
+/**
+ * Sequential probability ratio test (SPRT) deciding from games played by SelfPlay whether the first strategy is
+ * elo1 stronger than the second one (H1) rather than elo0 stronger (H0), with the given error rates : H1 is accepted
+ * for a change only elo0 strong at most alpha of the time, and H0 for a change elo1 strong at most beta of the time
+ * The games are counted by pairs of games sharing their opening with the colors swapped (pentanomial model) : the
+ * results of a pair, from 0 to 4 half points, vary much less than two independent games, so fewer games are needed
+ * After every pair the log-likelihood ratio (LLR) of the results is compared to the bounds log(beta / (1 - alpha))
+ * and log((1 - beta) / alpha) and the test stops as soon as it crosses one of them
+ * The LLR is the usual approximation of the generalized SPRT : with mu and sigma the mean and the deviation of the
+ * score of a pair and s0 and s1 the scores expected from elo0 and elo1, LLR = N (s1 - s0) (2 mu - s0 - s1) / 2 sigma^2
+ * Every result is counted half a pair more than it happened (a Jeffreys prior), so the first pairs, whose results
+ * barely spread, can't cross a bound on their own and the ratio stays finite while every pair had the same result
+ * Usage : Sprt [first strategy] [second strategy] [elo0] [elo1] [alpha] [beta] [maximum games] [size] [threads]
+ * [platform|virtual] [seed] [opening plies]
+ */
+public final class Sprt {
+    /**
+     * Attributes of the Sprt class
+     */
+    private static final double DEFAULT_ELO0 = 0;
+    private static final double DEFAULT_ELO1 = 10;
+    private static final double DEFAULT_ERROR = 0.05;
+    private static final int DEFAULT_MAX_GAMES = 20_000;
+    private static final int DEFAULT_SIZE = 6;
+    private static final long DEFAULT_SEED = 1;
+    private static final int DEFAULT_OPENING_PLIES = 2;
+    private static final int PAIR_RESULTS = 5;
+    private static final double PRIOR_PAIRS = 0.5;
+    private final double elo0;
+    private final double elo1;
+    private final double alpha;
+    private final double beta;
+    private final long[] pairs;
+
+    /**
+     * Constructor to instantiate a test before any game
+     * @param elo0 - the Elo difference of H0
+     * @param elo1 - the Elo difference of H1
+     * @param alpha - the probability of accepting H1 when H0 is true
+     * @param beta - the probability of accepting H0 when H1 is true
+     * @throws IllegalArgumentException if elo0 isn't below elo1 or an error rate isn't between 0 and 1
+     */
+    Sprt(double elo0, double elo1, double alpha, double beta) {
+        if (!(elo0 < elo1)) {
+            throw new IllegalArgumentException("Invalid Elo bounds : " + elo0 + ", " + elo1);
+        }
+        if (!(alpha > 0 && alpha < 1 && beta > 0 && beta < 1)) {
+            throw new IllegalArgumentException("Invalid error rates : " + alpha + ", " + beta);
+        }
+        this.elo0 = elo0;
+        this.elo1 = elo1;
+        this.alpha = alpha;
+        this.beta = beta;
+        this.pairs = new long[PAIR_RESULTS];
+    }
+
+    /**
+     * Entry point testing a strategy against another one until the test decides or the maximum number of games
+     * is played
+     * @param args - the two strategies, elo0, elo1, alpha, beta, the maximum number of games, the size of the board,
+     *             the number of threads, the kind of threads, the seed and the number of random turns starting every
+     *             game, all optional but the strategies
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage : Sprt <first strategy> <second strategy> [elo0] [elo1] [alpha] [beta]"
+                    + " [maximum games] [size] [threads] [platform|virtual] [seed] [opening plies]");
+            return;
+        }
+        Strategies first = Strategies.valueOf(args[0]);
+        Strategies second = Strategies.valueOf(args[1]);
+        double elo0 = (args.length > 2) ? Double.parseDouble(args[2]) : DEFAULT_ELO0;
+        double elo1 = (args.length > 3) ? Double.parseDouble(args[3]) : DEFAULT_ELO1;
+        double alpha = (args.length > 4) ? Double.parseDouble(args[4]) : DEFAULT_ERROR;
+        double beta = (args.length > 5) ? Double.parseDouble(args[5]) : DEFAULT_ERROR;
+        int maxGames = (args.length > 6) ? Integer.parseInt(args[6]) : DEFAULT_MAX_GAMES;
+        int size = (args.length > 7) ? Integer.parseInt(args[7]) : DEFAULT_SIZE;
+        int threads = (args.length > 8) ? Integer.parseInt(args[8]) : SelfPlay.defaultThreads(first, second);
+        boolean virtualThreads = args.length > 9 && args[9].equals("virtual");
+        long seed = (args.length > 10) ? Long.parseLong(args[10]) : DEFAULT_SEED;
+        int openingPlies = (args.length > 11) ? Integer.parseInt(args[11]) : DEFAULT_OPENING_PLIES;
+        Sprt sprt = new Sprt(elo0, elo1, alpha, beta);
+        SelfPlayResult result = new SelfPlay(size, first, second, openingPlies, seed)
+                .play(sprt, maxGames, threads, virtualThreads);
+        System.out.println(result);
+        System.out.println(sprt);
+    }
+
+    /**
+     * Method counting the result of a pair of games sharing their opening
+     *
+     * @param halfPoints - the number of half points the first strategy scored in both games, from 0 to 4
+     * @throws IllegalArgumentException if the number of half points isn't between 0 and 4
+     */
+    void addPair(int halfPoints) {
+        if (halfPoints < 0 || halfPoints >= PAIR_RESULTS) {
+            throw new IllegalArgumentException("Invalid result of a pair : " + halfPoints);
+        }
+        this.pairs[halfPoints]++;
+    }
+
+    /**
+     * Getter returning the number of pairs of games counted
+     * @return the number of pairs
+     */
+    long getPairs() {
+        long count = 0;
+        for (long pair : this.pairs) {
+            count += pair;
+        }
+        return count;
+    }
+
+    /**
+     * Getter returning the number of pairs of games with the given result
+     * @param halfPoints - the number of half points the first strategy scored in both games, from 0 to 4
+     * @return the number of pairs
+     */
+    long getPairs(int halfPoints) {
+        return this.pairs[halfPoints];
+    }
+
+    /**
+     * Method returning the log-likelihood ratio of the pairs counted so far
+     * @return the ratio, 0 before any pair
+     */
+    double getLlr() {
+        long count = getPairs();
+        if (count == 0) {
+            return 0;
+        }
+        double total = 0;
+        double[] frequencies = new double[PAIR_RESULTS];
+        for (int i = 0; i < PAIR_RESULTS; i++) {
+            frequencies[i] = this.pairs[i] + PRIOR_PAIRS;
+            total += frequencies[i];
+        }
+        double mean = 0;
+        for (int i = 0; i < PAIR_RESULTS; i++) {
+            frequencies[i] /= total;
+            mean += frequencies[i] * score(i);
+        }
+        double variance = 0;
+        for (int i = 0; i < PAIR_RESULTS; i++) {
+            variance += frequencies[i] * (score(i) - mean) * (score(i) - mean);
+        }
+        double score0 = expectedScore(this.elo0);
+        double score1 = expectedScore(this.elo1);
+        return count * (score1 - score0) * (2 * mean - score0 - score1) / (2 * variance);
+    }
+
+    /**
+     * Getter returning the bound of the ratio below which H0 is accepted
+     * @return log(beta / (1 - alpha))
+     */
+    double getLowerBound() {
+        return Math.log(this.beta / (1 - this.alpha));
+    }
+
+    /**
+     * Getter returning the bound of the ratio above which H1 is accepted
+     * @return log((1 - beta) / alpha)
+     */
+    double getUpperBound() {
+        return Math.log((1 - this.beta) / this.alpha);
+    }
+
+    /**
+     * Method returning the decision of the test so far
+     * @return H1 or H0 once the ratio crossed its bound, null while it's between them
+     */
+    Hypothesis getDecision() {
+        double llr = getLlr();
+        if (llr >= getUpperBound()) {
+            return Hypothesis.H1;
+        }
+        if (llr <= getLowerBound()) {
+            return Hypothesis.H0;
+        }
+        return null;
+    }
+
+    /**
+     * Method returning the score per game expected from an Elo difference
+     *
+     * @param elo - the Elo difference
+     * @return the score, between 0 and 1
+     */
+    static double expectedScore(double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+
+    /**
+     * Private helper method returning the score per game of a pair
+     * @param halfPoints - the number of half points of the pair
+     * @return the score, between 0 and 1
+     */
+    private static double score(int halfPoints) {
+        return halfPoints / 4.0;
+    }
+
+    @Override
+    public String toString() {
+        Hypothesis decision = getDecision();
+        return String.format("SPRT elo0 %.1f elo1 %.1f alpha %.3f beta %.3f : LLR %.2f (%.2f, %.2f), pairs %d"
+                        + " [%d %d %d %d %d], %s", this.elo0, this.elo1, this.alpha, this.beta, getLlr(),
+                getLowerBound(), getUpperBound(), getPairs(), this.pairs[0], this.pairs[1], this.pairs[2],
+                this.pairs[3], this.pairs[4], (decision == null) ? "undecided" : decision + " accepted");
+    }
+
+    /**
+     * Enum representing the hypotheses the test decides between
+     */
+    enum Hypothesis {
+        /**
+         * The first strategy is elo0 stronger than the second one
+         */
+        H0,
+        /**
+         * The first strategy is elo1 stronger than the second one
+         */
+        H1
+    }
+}
@@ -2,6 +2,8 @@ package g62727.dev3.oxono.model;
 
 import g62727.dev3.oxono.util.Strategy;
 
+import java.util.concurrent.ThreadLocalRandom;
+
 /**
  * Enum representing different AI strategies for the Oxono game
  */
@@ -18,23 +20,79 @@ public enum Strategies {
      * Represents the minimax strategy at depth 6
      */
     MINIMAX_DEPTH_6,
+    /**
+     * Represents the minimax strategy deepening for 100 milliseconds
+     */
+    MINIMAX_100_MS,
+    /**
+     * Represents the minimax strategy deepening for 1 second
+     */
+    MINIMAX_1_S,
+    /**
+     * Represents the minimax strategy deepening for 5 seconds
+     */
+    MINIMAX_5_S,
+    /**
+     * Represents the minimax strategy deepening for 1 second on every processor (Lazy SMP)
+     */
+    MINIMAX_LAZY_SMP_1_S,
+    /**
+     * Represents the Monte Carlo tree search strategy playing random games for 1 second on every processor
+     */
+    MCTS_1_S,
     /**
      * Represents the win possible strategy
      */
     WIN_POSSIBLE;
 
+    /**
+     * Checks whether the strategy searches on every processor of the machine
+     * @return true if it's the case, false if it searches on the calling thread
+     */
+    boolean isParallel() {
+        return this == MINIMAX_LAZY_SMP_1_S || this == MCTS_1_S;
+    }
+
     /**
      * Creates and returns a Strategy object based on the enum value
-     * @param game - The current Game instance
+     * The minimax strategies play from the opening book of the size of the board when there's one, and ponder on
+     * the time of the opponent
+     * @param oxono - The Rules instance containing game rules
+     * @return A Strategy object corresponding to the enum value
+     */
+    Strategy createStrategy(Oxono oxono) {
+        Strategy strategy = createStrategy(oxono, ThreadLocalRandom.current().nextLong());
+        if (strategy instanceof MiniMaxStrategy miniMax) {
+            miniMax.setPondering(true);
+        }
+        return strategy;
+    }
+
+    /**
+     * Creates and returns a Strategy object based on the enum value, whose random choices are drawn from the given
+     * seed, for the games played without any interface (SelfPlay)
+     * The minimax strategies play from the opening book of the size of the board when there's one, and don't ponder
      * @param oxono - The Rules instance containing game rules
+     * @param seed - the seed of the random choices of the strategy
      * @return A Strategy object corresponding to the enum value
      */
-    Strategy createStrategy(Game game, Oxono oxono) {
-        return switch (this) {
-            case RANDOM -> new RandomStrategy();
-            case WIN_POSSIBLE -> new WinPossibleStrategy(oxono);
-            case MINIMAX_DEPTH_3 -> new MiniMaxStrategy(3, game, oxono);
-            case MINIMAX_DEPTH_6 -> new MiniMaxStrategy(6, game, oxono);
+    Strategy createStrategy(Oxono oxono, long seed) {
+        Strategy strategy = switch (this) {
+            case RANDOM -> new RandomStrategy(seed);
+            case WIN_POSSIBLE -> new WinPossibleStrategy(oxono, seed);
+            case MINIMAX_DEPTH_3 -> new MiniMaxStrategy(3, oxono);
+            case MINIMAX_DEPTH_6 -> new MiniMaxStrategy(6, oxono);
+            case MINIMAX_100_MS -> new MiniMaxStrategy(SearchLimits.millis(100), oxono);
+            case MINIMAX_1_S -> new MiniMaxStrategy(SearchLimits.millis(1_000), oxono);
+            case MINIMAX_5_S -> new MiniMaxStrategy(SearchLimits.millis(5_000), oxono);
+            case MINIMAX_LAZY_SMP_1_S -> new MiniMaxStrategy(SearchLimits.millis(1_000), oxono,
+                    new TranspositionTable(64), Runtime.getRuntime().availableProcessors(), ParallelSearch.LAZY_SMP);
+            case MCTS_1_S -> new MctsStrategy(SearchLimits.millis(1_000), oxono,
+                    Runtime.getRuntime().availableProcessors(), 1 << 20);
         };
+        if (strategy instanceof MiniMaxStrategy miniMax) {
+            miniMax.setOpeningBook(OpeningBook.forSize(oxono.getBoardSize()));
+        }
+        return strategy;
     }
 }
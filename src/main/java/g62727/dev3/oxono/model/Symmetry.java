@@ -0,0 +1,173 @@
+package g62727.dev3.oxono.model;
+
+/**
+ * Holds the 8 symmetries of a square board of a given size : the rotations and the reflections (dihedral group D4)
+ * The rules only look at rows and columns, so a position and its rotated or reflected images have the same value
+ * and their turns correspond one to one. The canonical form of a position is the image with the smallest Zobrist
+ * key, every image of a position having the same canonical key, so the tables storing positions by their
+ * canonical key store up to 8 times fewer positions. A turn found in the canonical form is mapped back to the
+ * actual position with the inverse transform
+ * The transforms are precomputed for every cell, instances are shared by every board of the same size
+ */
+public final class Symmetry {
+    /**
+     * Number of transforms of a square board
+     */
+    static final int TRANSFORMS = 8;
+    /**
+     * Transform leaving the board unchanged
+     */
+    static final int IDENTITY = 0;
+    /**
+     * Attributes of the Symmetry class
+     */
+    private static final int[] INVERSES = {0, 3, 2, 1, 4, 5, 6, 7};
+    private final BoardGeometry geometry;
+    private final int[][] cellMaps;
+
+    /**
+     * Constructor computing the image of every cell of a board of the given geometry under every transform
+     * The transforms are, in order : the identity, the rotations by 90, 180 and 270 degrees clockwise, the
+     * reflections across the vertical axis and the horizontal axis, across the main diagonal and across the
+     * anti-diagonal
+     *
+     * @param geometry - the geometry of the board
+     */
+    Symmetry(BoardGeometry geometry) {
+        this.geometry = geometry;
+        int cells = geometry.getCells();
+        int last = geometry.getSize() - 1;
+        this.cellMaps = new int[TRANSFORMS][cells];
+        for (int cell = 0; cell < cells; cell++) {
+            int row = geometry.rowOf(cell);
+            int col = geometry.colOf(cell);
+            this.cellMaps[0][cell] = geometry.cellOf(row, col);
+            this.cellMaps[1][cell] = geometry.cellOf(col, last - row);
+            this.cellMaps[2][cell] = geometry.cellOf(last - row, last - col);
+            this.cellMaps[3][cell] = geometry.cellOf(last - col, row);
+            this.cellMaps[4][cell] = geometry.cellOf(row, last - col);
+            this.cellMaps[5][cell] = geometry.cellOf(last - row, col);
+            this.cellMaps[6][cell] = geometry.cellOf(col, row);
+            this.cellMaps[7][cell] = geometry.cellOf(last - col, last - row);
+        }
+    }
+
+    /**
+     * Method returning the transform undoing the given one
+     *
+     * @param transform - the index of the transform
+     * @return the index of its inverse
+     */
+    static int inverse(int transform) {
+        return INVERSES[transform];
+    }
+
+    /**
+     * Method returning the image of a cell under a transform
+     *
+     * @param transform - the index of the transform
+     * @param cell      - the index of the cell
+     * @return the index of the image of the cell
+     */
+    int cell(int transform, int cell) {
+        return this.cellMaps[transform][cell];
+    }
+
+    /**
+     * Method returning the image of a turn under a transform : the same totem, moved to the image of its
+     * destination, and the same token, inserted on the image of its cell
+     *
+     * @param transform - the index of the transform
+     * @param move      - the turn encoded as PackedMove
+     * @return the image of the turn encoded as PackedMove, PackedMove.NONE for PackedMove.NONE
+     */
+    int move(int transform, int move) {
+        if (move == PackedMove.NONE) {
+            return PackedMove.NONE;
+        }
+        int[] map = this.cellMaps[transform];
+        return PackedMove.pack(PackedMove.getSymbol(move), map[PackedMove.getDestination(move)],
+                map[PackedMove.getInsert(move)]);
+    }
+
+    /**
+     * Method returning the transform giving the canonical form of the current position : the image with the
+     * smallest Zobrist key, the first transform winning a tie
+     *
+     * @param oxono  - the game
+     * @param toPlay - the color of the player to play
+     * @return the index of the transform
+     */
+    int canonicalTransform(Oxono oxono, Color toPlay) {
+        long[] keys = imageKeys(oxono, toPlay);
+        int best = IDENTITY;
+        for (int transform = 1; transform < TRANSFORMS; transform++) {
+            if (keys[transform] < keys[best]) {
+                best = transform;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Method returning the Zobrist key of the canonical form of the current position, the same for every image of
+     * the position
+     *
+     * @param oxono  - the game
+     * @param toPlay - the color of the player to play
+     * @return the canonical key
+     */
+    long canonicalKey(Oxono oxono, Color toPlay) {
+        long[] keys = imageKeys(oxono, toPlay);
+        long best = keys[IDENTITY];
+        for (int transform = 1; transform < TRANSFORMS; transform++) {
+            best = Math.min(best, keys[transform]);
+        }
+        return best;
+    }
+
+    /**
+     * Method returning the Zobrist key of the image of the current position under a transform
+     *
+     * @param oxono     - the game
+     * @param toPlay    - the color of the player to play
+     * @param transform - the index of the transform
+     * @return the key of the image
+     */
+    long key(Oxono oxono, Color toPlay, int transform) {
+        return imageKeys(oxono, toPlay)[transform];
+    }
+
+    /**
+     * Private helper method computing the Zobrist keys of the 8 images of the position in a single pass on the
+     * board : the keys of the tokens and the totems are those of their images, the keys of the tokens left and of
+     * the player to play don't change
+     * @param oxono - the game
+     * @param toPlay - the color of the player to play
+     * @return the keys of the images, indexed by transform
+     */
+    private long[] imageKeys(Oxono oxono, Color toPlay) {
+        Zobrist zobrist = this.geometry.getZobrist();
+        long[] keys = new long[TRANSFORMS];
+        for (int cell = 0; cell < this.geometry.getCells(); cell++) {
+            if (oxono.isTokenCell(cell)) {
+                Color color = oxono.getColorAt(cell);
+                Symbol symbol = oxono.getSymbolAt(cell);
+                for (int transform = 0; transform < TRANSFORMS; transform++) {
+                    keys[transform] ^= zobrist.token(color, symbol, this.cellMaps[transform][cell]);
+                }
+            }
+        }
+        int totemO = oxono.getTotemCell(Symbol.O);
+        int totemX = oxono.getTotemCell(Symbol.X);
+        for (int transform = 0; transform < TRANSFORMS; transform++) {
+            keys[transform] ^= zobrist.totem(Symbol.O, this.cellMaps[transform][totemO])
+                    ^ zobrist.totem(Symbol.X, this.cellMaps[transform][totemX]);
+        }
+        long rest = oxono.getZobristKey(toPlay) ^ keys[IDENTITY];
+        for (int transform = 0; transform < TRANSFORMS; transform++) {
+            keys[transform] ^= rest;
+        }
+        return keys;
+    }
+}
@@ -42,7 +42,7 @@ public class Token extends Pawn {
 
     /**
      * Setter modifying the winning value of a token
-     * Usually only the 4 winning tokens are set to true in the checkForWinner Rules method
+     * Usually only the 4 winning tokens are set to true by the markWinningLine Rules method
      * @param winning - the new winning value of the token
      */
     void setWinning(boolean winning) {
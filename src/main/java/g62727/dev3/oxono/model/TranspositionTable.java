@@ -0,0 +1,183 @@
+package g62727.dev3.oxono.model;
+
+import java.util.Arrays;
+
+/**
+ * Represents a fixed-size table remembering the results of the positions already searched, keyed by their
+ * Zobrist key, so a position reached through another order of turns isn't searched again
+ * Every entry is made of two longs : the key XOR the data, then the data. An entry is only trusted if both
+ * longs match, so several search threads can probe and store at the same time without any lock : an entry
+ * half written by another thread simply looks like a miss
+ * Deeper results are preferred, except for entries left by a previous search which are always replaced
+ */
+public final class TranspositionTable {
+    /**
+     * The score is exact
+     */
+    static final int EXACT = 0;
+    /**
+     * The score is a lower bound (the search failed high)
+     */
+    static final int LOWER = 1;
+    /**
+     * The score is an upper bound (the search failed low)
+     */
+    static final int UPPER = 2;
+    /**
+     * Value returned by probe when the position isn't in the table
+     */
+    static final long MISS = 0;
+    private static final int MOVE_BITS = 26;
+    private static final int SCORE_SHIFT = MOVE_BITS;
+    private static final int SCORE_BITS = 24;
+    private static final int SCORE_OFFSET = 1 << (SCORE_BITS - 1);
+    private static final int DEPTH_SHIFT = SCORE_SHIFT + SCORE_BITS;
+    private static final int BOUND_SHIFT = DEPTH_SHIFT + 8;
+    private static final int AGE_SHIFT = BOUND_SHIFT + 2;
+    private static final int ENTRY_BYTES = 2 * Long.BYTES;
+    private final long[] slots;
+    private final int mask;
+    private volatile int age;
+
+    /**
+     * Constructor to instantiate a table using at most the given amount of memory
+     *
+     * @param megabytes - the size of the table in megabytes
+     * @throws IllegalArgumentException if the size is not strictly positive
+     */
+    TranspositionTable(int megabytes) {
+        if (megabytes <= 0) {
+            throw new IllegalArgumentException("Invalid transposition table size : " + megabytes);
+        }
+        int entries = Integer.highestOneBit((int) Math.min(1 << 30, ((long) megabytes << 20) / ENTRY_BYTES));
+        this.slots = new long[2 * entries];
+        this.mask = entries - 1;
+    }
+
+    /**
+     * Getter returning the number of entries of the table
+     *
+     * @return the number of entries
+     */
+    int getEntries() {
+        return this.mask + 1;
+    }
+
+    /**
+     * Method marking the beginning of a new search, the entries of the previous ones become replaceable
+     */
+    void newSearch() {
+        this.age = (this.age + 1) & 0xF;
+    }
+
+    /**
+     * Method emptying the whole table, which is then as a new one
+     */
+    void clear() {
+        Arrays.fill(this.slots, 0);
+        this.age = 0;
+    }
+
+    /**
+     * Method looking for a position in the table
+     *
+     * @param key - the Zobrist key of the position
+     * @return the data of the entry, to read with the static getters, MISS if the position isn't in the table
+     */
+    long probe(long key) {
+        int index = index(key);
+        long data = this.slots[index + 1];
+        if ((this.slots[index] ^ data) != key || data == MISS) {
+            return MISS;
+        }
+        return data;
+    }
+
+    /**
+     * Method storing the result of the search of a position
+     * A deeper result of the current search is never replaced by a shallower one
+     *
+     * @param key   - the Zobrist key of the position
+     * @param depth - the depth the position was searched to
+     * @param bound - EXACT, LOWER or UPPER
+     * @param score - the score of the position
+     * @param move  - the best turn found, PackedMove.NONE if there's none
+     */
+    void store(long key, int depth, int bound, int score, int move) {
+        int index = index(key);
+        int currentAge = this.age;
+        long old = this.slots[index + 1];
+        boolean sameKey = (this.slots[index] ^ old) == key;
+        if (old != MISS && !sameKey && ageOf(old) == currentAge && depthOf(old) > depth) {
+            return;
+        }
+        if (move == PackedMove.NONE && sameKey) {
+            move = moveOf(old);
+        }
+        long data = ((long) (move + 1))
+                | ((long) (score + SCORE_OFFSET) << SCORE_SHIFT)
+                | ((long) depth << DEPTH_SHIFT)
+                | ((long) bound << BOUND_SHIFT)
+                | ((long) currentAge << AGE_SHIFT);
+        this.slots[index] = key ^ data;
+        this.slots[index + 1] = data;
+    }
+
+    /**
+     * Private helper method returning the index of the first long of the entry of a key
+     * @param key - the Zobrist key of the position
+     * @return the index of the entry in the slots
+     */
+    private int index(long key) {
+        return ((int) (key ^ (key >>> 32)) & this.mask) << 1;
+    }
+
+    /**
+     * Method decoding the best turn of an entry
+     *
+     * @param data - the data returned by probe
+     * @return the best turn, PackedMove.NONE if there's none
+     */
+    static int moveOf(long data) {
+        return (int) (data & ((1L << MOVE_BITS) - 1)) - 1;
+    }
+
+    /**
+     * Method decoding the score of an entry
+     *
+     * @param data - the data returned by probe
+     * @return the score
+     */
+    static int scoreOf(long data) {
+        return (int) ((data >>> SCORE_SHIFT) & ((1L << SCORE_BITS) - 1)) - SCORE_OFFSET;
+    }
+
+    /**
+     * Method decoding the depth of an entry
+     *
+     * @param data - the data returned by probe
+     * @return the depth the position was searched to
+     */
+    static int depthOf(long data) {
+        return (int) ((data >>> DEPTH_SHIFT) & 0xFF);
+    }
+
+    /**
+     * Method decoding the kind of score of an entry
+     *
+     * @param data - the data returned by probe
+     * @return EXACT, LOWER or UPPER
+     */
+    static int boundOf(long data) {
+        return (int) ((data >>> BOUND_SHIFT) & 0x3);
+    }
+
+    /**
+     * Private helper method decoding the search an entry was stored by
+     * @param data - the data of the entry
+     * @return the age of the entry
+     */
+    private static int ageOf(long data) {
+        return (int) ((data >>> AGE_SHIFT) & 0xF);
+    }
+}
@@ -8,6 +8,7 @@ import java.util.Random;
 /**
  * Implements a strategy for the Oxono game that prioritizes winning moves.
  * This strategy checks if a winning move is possible before making random moves.
+ * The moves are simulated on a copy of the game, the game itself is never touched.
  */
 public class WinPossibleStrategy implements Strategy {
     /**
@@ -15,9 +16,11 @@ public class WinPossibleStrategy implements Strategy {
      */
     private Random random;
     private Oxono oxono;
+    private final Oxono position;
     private Totem chosenTotem;
     private Position posTotem;
     private Position posToken;
+    private Color color;
     private boolean won;
     private int row;
     private int col;
@@ -27,8 +30,40 @@ public class WinPossibleStrategy implements Strategy {
      * @param oxono The game rules
      */
     public WinPossibleStrategy(Oxono oxono) {
-        this.random = new Random();
+        this(oxono, new Random());
+    }
+
+    /**
+     * Constructs a new WinPossibleStrategy whose random choices are drawn from the given seed, so they can be replayed.
+     * @param oxono The game rules
+     * @param seed The seed of the random choices
+     */
+    WinPossibleStrategy(Oxono oxono, long seed) {
+        this(oxono, new Random(seed));
+    }
+
+    /**
+     * Private constructor drawing the random choices from the given generator.
+     * @param oxono The game rules
+     * @param random The generator of the random choices
+     */
+    private WinPossibleStrategy(Oxono oxono, Random random) {
+        this.random = random;
         this.oxono = oxono;
+        this.position = oxono.copy();
+        this.won = false;
+        this.chosenTotem = null;
+        this.posTotem = null;
+        this.posToken = null;
+    }
+
+    /**
+     * Forgets the win found in the previous game and draws the random choices of the next game from the given seed.
+     * @param seed The seed of the random choices of the new game
+     */
+    @Override
+    public void newGame(long seed) {
+        this.random = new Random(seed);
         this.won = false;
         this.chosenTotem = null;
         this.posTotem = null;
@@ -44,6 +79,8 @@ public class WinPossibleStrategy implements Strategy {
     public Totem chooseTotem(Oxono oxono) {
         Totem totemO = (Totem) this.oxono.getPawnAt(this.oxono.totem_O_Pos());
         Totem totemX = (Totem) this.oxono.getPawnAt(this.oxono.totem_X_Pos());
+        this.position.copyPosition(this.oxono);
+        this.color = oxono.getToPlay().getColor();
         for (Totem totem : new Totem[]{totemO, totemX}) {
             if (!won) {
                 canWinWithTotem(totem);
@@ -68,7 +105,7 @@ public class WinPossibleStrategy implements Strategy {
         if (won) {
             return this.posTotem;
         }
-        List<Position> validMoves = oxono.getValidMoves(totem);
+        List<Position> validMoves = this.position.getValidMoves(totem);
         Position pos = validMoves.get(random.nextInt(validMoves.size()));
         this.row = pos.getRow();
         this.col = pos.getCol();
@@ -92,16 +129,19 @@ public class WinPossibleStrategy implements Strategy {
 
     /**
      * Checks if moving a specific totem can lead to a win.
+     * The totem is skipped when the player to play has no token of its symbol left to insert.
      * @param totem The totem to check
      */
     private void canWinWithTotem(Totem totem) {
-        List<Position> validMoves = oxono.getValidMoves(totem);
-        if (!won) {
-            int oldPosRow = (totem.getSymbol() == Symbol.O) ? this.oxono.totem_O_Pos().getRow() : this.oxono.totem_X_Pos().getRow();
-            int oldPosCol = (totem.getSymbol() == Symbol.O) ? this.oxono.totem_O_Pos().getCol() : this.oxono.totem_X_Pos().getCol();
+        Player player = (this.color == Color.PINK) ? this.position.getPink() : this.position.getBlack();
+        int tokensLeft = (totem.getSymbol() == Symbol.O) ? player.getTokensO() : player.getTokensX();
+        List<Position> validMoves = this.position.getValidMoves(totem);
+        if (!won && tokensLeft > 0) {
+            int oldPosRow = (totem.getSymbol() == Symbol.O) ? this.position.totem_O_Pos().getRow() : this.position.totem_X_Pos().getRow();
+            int oldPosCol = (totem.getSymbol() == Symbol.O) ? this.position.totem_O_Pos().getCol() : this.position.totem_X_Pos().getCol();
             Position oldPos = new Position(oldPosRow, oldPosCol);
             for (Position move : validMoves) {
-                leadsToWin(this.oxono, totem, move, oldPos);
+                leadsToWin(this.position, totem, move, oldPos);
             }
         }
     }
@@ -117,14 +157,15 @@ public class WinPossibleStrategy implements Strategy {
         simulateMove(move, totem);
         List<Position> validInserts = oxono.getValidInsert(move.getRow(), move.getCol());
         for (Position insert : validInserts) {
-            simulateInsert(insert, totem.getSymbol());
-            if (this.oxono.checkForWinner()) {
+            int cell = oxono.cellOf(insert.getRow(), insert.getCol());
+            simulateInsert(cell, totem.getSymbol());
+            if (this.position.findWinningLine(cell) != PackedLine.NONE) {
                 this.chosenTotem = totem;
                 this.posTotem = move;
                 this.posToken = insert;
                 this.won = true;
             }
-            undoInsert(insert);
+            undoInsert(cell);
         }
         undoMove(totem, oldPos);
     }
@@ -135,16 +176,16 @@ public class WinPossibleStrategy implements Strategy {
      * @param totem The totem to move
      */
     private void simulateMove(Position position, Totem totem) {
-        oxono.move(totem, position);
+        this.position.moveTotem(totem.getSymbol(), this.position.cellOf(position.getRow(), position.getCol()));
     }
 
     /**
-     * Simulates inserting a token at a given position.
-     * @param position The position to insert the token
+     * Simulates inserting a token at a given cell, directly in the board masks.
+     * @param cell The index of the cell to insert the token on
      * @param symbol The symbol of the token
      */
-    private void simulateInsert(Position position, Symbol symbol) {
-        oxono.insert(new Token(symbol, Color.BLACK), position);
+    private void simulateInsert(int cell, Symbol symbol) {
+        this.position.insertToken(symbol, this.color, cell);
     }
 
     /**
@@ -153,14 +194,14 @@ public class WinPossibleStrategy implements Strategy {
      * @param posTotem The original position of the totem
      */
     private void undoMove(Totem totem, Position posTotem) {
-        oxono.move(totem, posTotem);
+        this.position.moveTotem(totem.getSymbol(), this.position.cellOf(posTotem.getRow(), posTotem.getCol()));
     }
 
     /**
      * Undoes a simulated token insertion.
-     * @param posToken The position of the inserted token
+     * @param cell The index of the cell of the inserted token
      */
-    private void undoInsert(Position posToken) {
-        oxono.removePawn(posToken);
+    private void undoInsert(int cell) {
+        this.position.removeToken(cell);
     }
 }
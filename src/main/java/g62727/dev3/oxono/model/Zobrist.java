@@ -0,0 +1,95 @@
+package g62727.dev3.oxono.model;
+
+import java.util.SplittableRandom;
+
+/**
+ * Holds the random 64 bits keys used to hash the positions of a board of a given size (Zobrist hashing)
+ * The key of a position is the XOR of the keys of everything it contains, so playing or undoing anything only
+ * costs one or two XOR
+ * The keys are generated from a fixed seed so a position always has the same key, from one run to another
+ */
+public final class Zobrist {
+    /**
+     * Attributes of the Zobrist class
+     */
+    private static final long SEED = 0x6F786F6E6FL;
+    private static final int MAX_TOKEN_COUNT = 64;
+    private final long[] tokenKeys;
+    private final long[] totemKeys;
+    private final long[] tokenCountKeys;
+    private final long blackToPlayKey;
+    private final int cells;
+
+    /**
+     * Constructor generating the keys of a board of the given number of cells
+     *
+     * @param cells - the number of cells of the board
+     */
+    Zobrist(int cells) {
+        SplittableRandom random = new SplittableRandom(SEED ^ cells);
+        this.cells = cells;
+        this.tokenKeys = randomKeys(random, 4 * cells);
+        this.totemKeys = randomKeys(random, 2 * cells);
+        this.tokenCountKeys = randomKeys(random, 4 * MAX_TOKEN_COUNT);
+        this.blackToPlayKey = random.nextLong();
+    }
+
+    /**
+     * Private helper method generating an array of random keys
+     * @param random - the generator to draw the keys from
+     * @param length - the number of keys
+     * @return the keys
+     */
+    private static long[] randomKeys(SplittableRandom random, int length) {
+        long[] keys = new long[length];
+        for (int i = 0; i < length; i++) {
+            keys[i] = random.nextLong();
+        }
+        return keys;
+    }
+
+    /**
+     * Method returning the key of a token lying on a cell
+     *
+     * @param color  - the color of the token
+     * @param symbol - the symbol of the token
+     * @param cell   - the index of the cell
+     * @return the key of the token
+     */
+    long token(Color color, Symbol symbol, int cell) {
+        return this.tokenKeys[((color.ordinal() << 1) | symbol.ordinal()) * this.cells + cell];
+    }
+
+    /**
+     * Method returning the key of a totem standing on a cell
+     *
+     * @param symbol - the symbol of the totem
+     * @param cell   - the index of the cell
+     * @return the key of the totem
+     */
+    long totem(Symbol symbol, int cell) {
+        return this.totemKeys[symbol.ordinal() * this.cells + cell];
+    }
+
+    /**
+     * Method returning the key of the number of tokens of a symbol a player still has
+     *
+     * @param color  - the color of the player
+     * @param symbol - the symbol of the tokens
+     * @param count  - the number of tokens left
+     * @return the key of that number of tokens
+     */
+    long tokenCount(Color color, Symbol symbol, int count) {
+        return this.tokenCountKeys[((color.ordinal() << 1) | symbol.ordinal()) * MAX_TOKEN_COUNT
+                + (count & (MAX_TOKEN_COUNT - 1))];
+    }
+
+    /**
+     * Method returning the key added when the black player is the one to play
+     *
+     * @return the key of the side to move
+     */
+    long blackToPlay() {
+        return this.blackToPlayKey;
+    }
+}
@@ -4,6 +4,8 @@ import g62727.dev3.oxono.model.Position;
 import g62727.dev3.oxono.model.Oxono;
 import g62727.dev3.oxono.model.Totem;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 /**
  * Interface writing the contract to create a strategy used by the CPU
  */
@@ -33,4 +35,39 @@ public interface Strategy {
      * @return the position where the token will be inserted
      */
     Position chooseTokenInsert(Oxono oxono, Totem totem);
+
+    /**
+     * Stops whatever the strategy keeps thinking about in the background between its turns, if anything
+     * Called when the game goes back in time, ends or is replaced
+     */
+    default void stopThinking() {
+    }
+
+    /**
+     * Gives the strategy the token cancelling its next turns : once set, a search in progress stops as soon as
+     * it reads it and returns whatever it found so far, which the game then ignores
+     * The strategies choosing their turn at once don't need to read it
+     *
+     * @param cancelled - the token, set to true to cancel the turn
+     */
+    default void setCancelToken(AtomicBoolean cancelled) {
+    }
+
+    /**
+     * Prepares the strategy for a new game on the board it was created with : it forgets what it learned during
+     * the previous games and draws the random choices of the new game from the given seed, so a strategy reused
+     * from game to game plays as a new one would
+     * The strategies keeping nothing from game to game don't need to do anything
+     *
+     * @param seed - the seed of the random choices of the new game
+     */
+    default void newGame(long seed) {
+    }
+
+    /**
+     * Releases the threads the strategy searches with, the strategy can't be used anymore
+     * The strategies searching on the calling thread don't need to do anything
+     */
+    default void close() {
+    }
 }
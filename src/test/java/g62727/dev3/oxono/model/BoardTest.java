@@ -29,9 +29,13 @@ class BoardTest {
     }
 
     @Test
-    void testSetBoardSize() {
-        board.setBoardSize(8);
-        assertEquals(8, Board.BOARD_SIZE);
+    void testBoardSizeIsPerInstance() {
+        Board other = new Board(8);
+        assertEquals(8, other.getBoardSize());
+        assertEquals(6, board.getBoardSize());
+        assertSame(BoardGeometry.of(6), board.getGeometry());
+        assertThrows(IllegalArgumentException.class, () -> board.getPawnAt(new Position(7, 7)));
+        assertNull(other.getPawnAt(new Position(7, 7)));
     }
 
     @Test
@@ -108,8 +112,8 @@ class BoardTest {
     void testIsFull() {
         assertFalse(board.isFull());
 
-        for (int i = 0; i < Board.BOARD_SIZE; i++) {
-            for (int j = 0; j < Board.BOARD_SIZE; j++) {
+        for (int i = 0; i < board.getBoardSize(); i++) {
+            for (int j = 0; j < board.getBoardSize(); j++) {
                 if (board.isEmpty(new Position(i, j))) {
                     board.insert(new Token(Symbol.O, Color.PINK), new Position(i, j));
                 }
@@ -182,8 +186,8 @@ class BoardTest {
 
     @Test
     void testIsFullWithAlmostFullBoard() {
-        for (int i = 0; i < Board.BOARD_SIZE; i++) {
-            for (int j = 0; j < Board.BOARD_SIZE; j++) {
+        for (int i = 0; i < board.getBoardSize(); i++) {
+            for (int j = 0; j < board.getBoardSize(); j++) {
                 if (board.isEmpty(new Position(i, j))) {
                     board.insert(new Token(Symbol.O, Color.PINK), new Position(i, j));
                 }
@@ -198,4 +202,62 @@ class BoardTest {
         Totem totemO = board.findTotem(Symbol.O);
         assertThrows(IllegalArgumentException.class, () -> board.move(totemO, new Position(6, 6)));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testInsertTokenWithoutObjectIsMaterialized() {
+        int cell = board.cellOf(4, 1);
+        board.insertToken(Symbol.X, Color.BLACK, cell);
+        assertFalse(board.isEmptyCell(cell));
+        assertTrue(board.hasColor(cell, Color.BLACK));
+        assertTrue(board.hasSymbol(cell, Symbol.X));
+        Pawn pawn = board.getPawnAt(new Position(4, 1));
+        assertInstanceOf(Token.class, pawn);
+        assertEquals(Color.BLACK, ((Token) pawn).getColor());
+        assertSame(pawn, board.getPawnAt(new Position(4, 1)));
+        board.removeToken(cell);
+        assertTrue(board.isEmptyCell(cell));
+        assertNull(board.getPawnAt(new Position(4, 1)));
+    }
+
+    @Test
+    void testMultiWordMasksOnLargeBoard() {
+        Board large = new Board(12);
+        assertEquals(142, large.freeCasesLeft());
+        Position last = new Position(11, 11);
+        large.insert(new Token(Symbol.O, Color.PINK), last);
+        large.insert(new Token(Symbol.X, Color.BLACK), new Position(5, 4));
+        assertFalse(large.isEmpty(last));
+        assertTrue(large.isEmpty(new Position(11, 10)));
+        assertEquals(140, large.freeCasesLeft());
+        large.move(large.findTotem(Symbol.X), new Position(10, 11));
+        assertEquals(new Position(10, 11), large.getTotemX());
+        assertTrue(large.isEmpty(new Position(6, 6)));
+        large.removePawn(last);
+        assertEquals(141, large.freeCasesLeft());
+    }
+
+    @Test
+    void testZobristKeyFollowsMovesAndInserts() {
+        long initial = board.getZobristKey();
+        assertEquals(initial, new Board(6).getZobristKey());
+        assertNotEquals(initial, new Board(7).getZobristKey());
+
+        board.move(board.findTotem(Symbol.O), new Position(0, 2));
+        long moved = board.getZobristKey();
+        assertNotEquals(initial, moved);
+        board.insert(new Token(Symbol.O, Color.PINK), new Position(0, 3));
+        long inserted = board.getZobristKey();
+        assertNotEquals(moved, inserted);
+
+        board.removePawn(new Position(0, 3));
+        assertEquals(moved, board.getZobristKey());
+        board.move(board.findTotem(Symbol.O), new Position(2, 2));
+        assertEquals(initial, board.getZobristKey());
+
+        board.insertToken(Symbol.O, Color.BLACK, board.cellOf(0, 3));
+        assertNotEquals(inserted, board.getZobristKey());
+        board.insertToken(Symbol.O, Color.PINK, board.cellOf(0, 3));
+        board.move(board.findTotem(Symbol.O), new Position(0, 2));
+        assertEquals(inserted, board.getZobristKey());
+    }
+}
@@ -0,0 +1,106 @@
+package g62727.dev3.oxono.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentGamesTest {
+    private static final int[] SIZES = {4, 5, 6, 7, 8, 10, 12};
+    private static final int GAMES = 140;
+
+    @Test
+    void testMixedSizeGamesInParallel() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < GAMES; i++) {
+                int size = SIZES[i % SIZES.length];
+                long seed = i;
+                results.add(pool.submit(() -> playGame(size, seed)));
+            }
+            for (int i = 0; i < GAMES; i++) {
+                assertEquals(SIZES[i % SIZES.length], results.get(i).get(60, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Plays a whole game : random moves for the pink player, the win possible strategy for the black one
+     * Checks after every turn that the board kept its own size and that the masks stay consistent
+     * @return the size of the board at the end of the game
+     */
+    private int playGame(int size, long seed) {
+        Random random = new Random(seed);
+        Game game = new Game(size);
+        game.setComputerStrategy(game.createWinPossibleStrategy());
+        while (game.isRunning()) {
+            if (game.getToPlay().getColor() == Color.PINK) {
+                playRandomTurn(game, random);
+            } else {
+                assertTrue(game.computerTurn());
+            }
+            assertEquals(size, game.getBoardSize());
+            int tokensLeft = game.getPink().getTokensO() + game.getPink().getTokensX()
+                    + game.getBlack().getTokensO() + game.getBlack().getTokensX();
+            assertEquals(size * size - 2 - (32 - tokensLeft), game.freeCasesLeft());
+            assertNotNull(totemPosition(game, Symbol.O));
+            assertNotNull(totemPosition(game, Symbol.X));
+            if (!game.win()) {
+                game.isDraw();
+            }
+        }
+        return game.getBoardSize();
+    }
+
+    private void playRandomTurn(Game game, Random random) {
+        Symbol symbol = random.nextBoolean() ? Symbol.O : Symbol.X;
+        if (!game.enoughToMoveTotem(symbol)) {
+            symbol = (symbol == Symbol.O) ? Symbol.X : Symbol.O;
+            assertTrue(game.enoughToMoveTotem(symbol));
+        }
+        Totem totem = game.findTotem(symbol);
+        List<Position> moves = new ArrayList<>();
+        List<Position> inserts = new ArrayList<>();
+        int size = game.getBoardSize();
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                if (game.isValidMove(totem, new Position(row, col))) {
+                    moves.add(new Position(row, col));
+                }
+            }
+        }
+        Position move = moves.get(random.nextInt(moves.size()));
+        assertTrue(game.moveTotem(totem, move.getRow(), move.getCol()));
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                if (game.isValidInsert(new Position(row, col))) {
+                    inserts.add(new Position(row, col));
+                }
+            }
+        }
+        Position insert = inserts.get(random.nextInt(inserts.size()));
+        assertTrue(game.insertToken(insert.getRow(), insert.getCol()));
+    }
+
+    private Position totemPosition(Game game, Symbol symbol) {
+        int size = game.getBoardSize();
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                if (game.getPawnAt(new Position(row, col)) == game.findTotem(symbol)) {
+                    return new Position(row, col);
+                }
+            }
+        }
+        return null;
+    }
+}
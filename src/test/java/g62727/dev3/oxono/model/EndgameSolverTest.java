@@ -0,0 +1,111 @@
+package g62727.dev3.oxono.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EndgameSolverTest {
+
+    private static int bruteForce(Oxono oxono, Color color) {
+        int[] moves = new int[4096];
+        int count = oxono.generateMoves(color, moves);
+        if (count == 0) {
+            return EndgameSolver.DRAW;
+        }
+        Color opponent = (color == Color.PINK) ? Color.BLACK : Color.PINK;
+        int best = EndgameSolver.LOSS;
+        for (int i = 0; i < count && best < EndgameSolver.WIN; i++) {
+            oxono.setToPlay(color);
+            oxono.makeMove(moves[i]);
+            int score;
+            if (oxono.lastMoveWins()) {
+                score = EndgameSolver.WIN;
+            } else if (oxono.isDraw()) {
+                score = EndgameSolver.DRAW;
+            } else {
+                score = -bruteForce(oxono, opponent);
+            }
+            oxono.unmakeMove();
+            best = Math.max(best, score);
+        }
+        return best;
+    }
+
+    @Test
+    void testSolverMatchesBruteForce() {
+        int[] values = new int[3];
+        for (long seed = 0; seed < 20; seed++) {
+            Oxono oxono = Positions.randomPosition(5, 12, seed);
+            oxono.getPink().setTokens(1, 1);
+            oxono.getBlack().setTokens(1, 1);
+            Color color = oxono.getToPlay().getColor();
+            long key = oxono.getZobristKey();
+            int expected = bruteForce(oxono, color);
+            EndgameSolver solver = new EndgameSolver(oxono, new TranspositionTable(1), 4);
+            int move = solver.solve(color, Long.MAX_VALUE, Long.MAX_VALUE);
+            assertFalse(solver.isAborted());
+            assertEquals(expected, solver.getValue(), "seed " + seed);
+            assertNotEquals(PackedMove.NONE, move);
+            assertEquals(key, oxono.getZobristKey());
+            values[expected + 1]++;
+        }
+        assertTrue(values[0] > 0 && values[2] > 0, "only trivial positions ");
+    }
+
+    @Test
+    void testSolverStopsAtItsNodeLimit() {
+        long seed = 0;
+        Oxono oxono;
+        EndgameSolver solver;
+        do {
+            oxono = Positions.randomPosition(6, 10, seed++);
+            oxono.getPink().setTokens(3, 2);
+            oxono.getBlack().setTokens(2, 3);
+            solver = new EndgameSolver(oxono, new TranspositionTable(1), 10);
+            solver.solve(oxono.getToPlay().getColor(), Long.MAX_VALUE, 1_000);
+        } while (!solver.isAborted());
+        assertEquals(PackedMove.NONE, solver.solve(oxono.getToPlay().getColor(), Long.MAX_VALUE, 100));
+        assertTrue(solver.isAborted());
+        assertTrue(solver.getNodes() <= 100);
+    }
+
+    @Test
+    void testMiniMaxSwitchesToTheSolver() {
+        Oxono oxono = Positions.randomPosition(6, 10, 5);
+        oxono.getPink().setTokens(1, 1);
+        oxono.getBlack().setTokens(1, 1);
+        assertEquals(4, EndgameSolver.remainingPlies(oxono));
+        MiniMaxStrategy strategy = new MiniMaxStrategy(2, oxono);
+        assertNotEquals(PackedMove.NONE, strategy.findBestMove(oxono.getToPlay().getColor()));
+        assertEquals(4, strategy.getCompletedDepth());
+    }
+
+    @Test
+    void testCancelTokenOfTheNextTurnStopsTheSolver() throws InterruptedException {
+        Oxono oxono = new Oxono(6);
+        oxono.getPink().setTokens(1, 1);
+        oxono.getBlack().setTokens(1, 1);
+        MiniMaxStrategy strategy = new MiniMaxStrategy(SearchLimits.depth(SearchLimits.MAX_DEPTH), oxono);
+        strategy.setCancelToken(new AtomicBoolean());
+        assertNotEquals(PackedMove.NONE, strategy.findBestMove(Color.PINK));
+        oxono.getPink().setTokens(3, 3);
+        oxono.getBlack().setTokens(3, 3);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        strategy.setCancelToken(cancelled);
+        Thread canceller = Thread.ofPlatform().start(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            cancelled.set(true);
+        });
+        long start = System.nanoTime();
+        assertNotEquals(PackedMove.NONE, strategy.findBestMove(Color.PINK));
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        canceller.join();
+        assertTrue(elapsed < 2_000, "search took " + elapsed + " ms");
+    }
+}
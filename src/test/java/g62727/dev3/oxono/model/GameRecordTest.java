@@ -0,0 +1,155 @@
+package g62727.dev3.oxono.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameRecordTest {
+    @TempDir
+    Path directory;
+
+    private static Map<Integer, RecordedGame> readAll(List<Path> paths, int bufferBytes) throws IOException {
+        Map<Integer, RecordedGame> games = new HashMap<>();
+        for (Path path : paths) {
+            try (GameRecordReader reader = GameRecordReader.open(path, bufferBytes)) {
+                while (reader.next()) {
+                    RecordedGame game = reader.getGame();
+                    assertEquals(game.getPlies(), reader.getPlies());
+                    assertEquals(game.getWinner(), reader.getWinner());
+                    for (int ply = 0; ply < game.getPlies(); ply++) {
+                        assertEquals(game.getMove(ply), reader.getMove(ply));
+                    }
+                    assertNull(games.put(game.getIndex(), game));
+                }
+            }
+        }
+        return games;
+    }
+
+    private static int[] moves(RecordedGame game) {
+        int[] moves = new int[game.getPlies()];
+        for (int ply = 0; ply < moves.length; ply++) {
+            moves[ply] = game.getMove(ply);
+        }
+        return moves;
+    }
+
+    @Test
+    void testTurnsTakeTwoToThreeBytes() {
+        assertEquals(2, RecordedGame.moveBytes(4));
+        assertEquals(2, RecordedGame.moveBytes(6));
+        assertEquals(2, RecordedGame.moveBytes(11));
+        assertEquals(3, RecordedGame.moveBytes(12));
+        assertEquals(3, RecordedGame.moveBytes(16));
+        assertEquals(3, RecordedGame.moveBytes(45));
+        assertEquals(4, RecordedGame.moveBytes(64));
+    }
+
+    @Test
+    void testTurnsArePackedAndUnpacked() {
+        for (int size : new int[]{4, 6, 11, 16, 64}) {
+            int bits = RecordedGame.cellBits(size);
+            int last = size * size - 1;
+            for (int move : new int[]{PackedMove.pack(Symbol.O, 0, last), PackedMove.pack(Symbol.X, last, 1)}) {
+                int packed = RecordedGame.packMove(move, bits);
+                assertEquals(0, packed >>> (1 + 2 * bits));
+                assertEquals(move, RecordedGame.unpackMove(packed, bits));
+            }
+        }
+    }
+
+    @Test
+    void testGameIsWrittenAndReadBack() throws IOException {
+        RecordedGame game = new RecordedGame(16, Strategies.MINIMAX_DEPTH_3, null, Color.BLACK, -42, 7,
+                new int[]{PackedMove.pack(Symbol.X, 255, 254), PackedMove.pack(Symbol.O, 3, 19)});
+        ByteBuffer buffer = ByteBuffer.allocate(game.recordBytes() + 3);
+        buffer.position(3);
+        game.writeTo(buffer);
+        assertEquals(RecordedGame.HEADER_BYTES + 2 * 3, game.recordBytes());
+        RecordedGame read = RecordedGame.readFrom(buffer, 3);
+        assertEquals(16, read.getSize());
+        assertEquals(8, read.getTokens());
+        assertEquals(4, read.getWinLength());
+        assertEquals(Strategies.MINIMAX_DEPTH_3, read.getPink());
+        assertNull(read.getBlack());
+        assertEquals(Color.BLACK, read.getWinner());
+        assertEquals(-42, read.getSeed());
+        assertEquals(7, read.getIndex());
+        assertArrayEquals(moves(game), moves(read));
+    }
+
+    @Test
+    void testSelfPlayGamesAreRecordedInShardsFromManyThreads() throws IOException {
+        SelfPlay selfPlay = new SelfPlay(6, Strategies.RANDOM, Strategies.WIN_POSSIBLE, 2, 9);
+        try (GameRecordWriter writer = new GameRecordWriter(this.directory, "games", 3)) {
+            selfPlay.setRecordWriter(writer);
+            selfPlay.play(300, 4, true);
+        }
+        List<Path> shards = GameRecordWriter.shards(this.directory, "games");
+        assertEquals(3, shards.size());
+        Map<Integer, RecordedGame> games = readAll(shards, 128);
+        assertEquals(300, games.size());
+        selfPlay.setRecordWriter(null);
+        for (int index : new int[]{0, 1, 150, 299}) {
+            SelfPlay.PlayedGame played = selfPlay.playGame(index);
+            RecordedGame game = games.get(index);
+            assertArrayEquals(moves(selfPlay.toRecord(played)), moves(game));
+            assertEquals(played.getWinner(), game.getWinner());
+            assertEquals(9, game.getSeed());
+            assertEquals(played.isFirstPink() ? Strategies.RANDOM : Strategies.WIN_POSSIBLE, game.getPink());
+        }
+    }
+
+    @Test
+    void testRecordsAreAppendedToExistingShards() throws IOException {
+        int[] moves = {PackedMove.pack(Symbol.O, 1, 2)};
+        for (int index = 0; index < 2; index++) {
+            try (GameRecordWriter writer = new GameRecordWriter(this.directory, "games", 1)) {
+                writer.write(new RecordedGame(6, null, null, null, 1, index, moves));
+            }
+        }
+        assertEquals(2, readAll(GameRecordWriter.shards(this.directory, "games"), 1 << 10).size());
+    }
+
+    @Test
+    void testHeaderIsWrittenWhenTheShardIsCreated() throws IOException {
+        int[] moves = {PackedMove.pack(Symbol.O, 1, 2)};
+        try (GameRecordWriter first = new GameRecordWriter(this.directory, "games", 1)) {
+            Path shard = GameRecordWriter.shards(this.directory, "games").get(0);
+            assertEquals(RecordedGame.FILE_HEADER_BYTES, Files.size(shard));
+            assertTrue(GameRecordReader.isGameRecords(shard));
+            try (GameRecordWriter second = new GameRecordWriter(this.directory, "games", 1)) {
+                first.write(new RecordedGame(6, null, null, null, 1, 0, moves));
+                second.write(new RecordedGame(6, null, null, null, 1, 1, moves));
+            }
+        }
+        assertEquals(2, readAll(GameRecordWriter.shards(this.directory, "games"), 1 << 10).size());
+    }
+
+    @Test
+    void testOtherAndTruncatedFilesAreRejected() throws IOException {
+        Path other = this.directory.resolve("other-000" + GameRecordWriter.EXTENSION);
+        Files.write(other, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9});
+        assertThrows(IllegalArgumentException.class, () -> GameRecordReader.open(other));
+        assertThrows(IOException.class, () -> new GameRecordWriter(this.directory, "other", 1));
+        try (GameRecordWriter writer = new GameRecordWriter(this.directory, "games", 1)) {
+            writer.write(new RecordedGame(6, null, null, null, 1, 0, new int[]{PackedMove.pack(Symbol.O, 1, 2)}));
+        }
+        Path shard = GameRecordWriter.shards(this.directory, "games").get(0);
+        byte[] bytes = Files.readAllBytes(shard);
+        Files.write(shard, Arrays.copyOf(bytes, bytes.length - 1));
+        try (GameRecordReader reader = GameRecordReader.open(shard)) {
+            assertThrows(IllegalArgumentException.class, reader::next);
+        }
+    }
+}
@@ -4,6 +4,8 @@ import g62727.dev3.oxono.util.Strategy;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class GameTest {
@@ -25,6 +27,14 @@ class GameTest {
         assertEquals(8, game.getPink().getTokensX());
     }
 
+    @Test
+    void testEnoughToMoveTotemHasNoSideEffect() {
+        assertTrue(game.enoughToMoveTotem(Symbol.X));
+        assertNull(game.getToInsert());
+        assertTrue(game.selectTotem(Symbol.X));
+        assertEquals(Symbol.X, game.getToInsert());
+    }
+
     @Test
     void testGetBoardSize() {
         assertEquals(6, game.getBoardSize());
@@ -78,7 +88,7 @@ class GameTest {
     @Test
     void testInsertToken() {
         game.setGameState(GameState.INSERT);
-        game.enoughToMoveTotem(Symbol.O);
+        assertTrue(game.selectTotem(Symbol.O));
         assertNull(game.getPawnAt(new Position(2, 3)));
         assertTrue(game.insertToken(2, 3));
         assertEquals(GameState.MOVE, game.getGameState());
@@ -242,6 +252,26 @@ class GameTest {
         assertNotNull(game.getPawnAt(new Position(0, 1)));
     }
 
+    @Test
+    void testReplacedStrategyIsClosed() {
+        AtomicInteger closed = new AtomicInteger();
+        Strategy strategy = new RandomStrategy() {
+            @Override
+            public void close() {
+                closed.incrementAndGet();
+            }
+        };
+        game.setComputerStrategy(strategy);
+        game.setComputerStrategy(strategy);
+        assertEquals(0, closed.get());
+        game.setComputerStrategy(game.createRandomStrategy());
+        assertEquals(1, closed.get());
+        game.setComputerStrategy(strategy);
+        game.revengeGame();
+        assertEquals(2, closed.get());
+        assertInstanceOf(RandomStrategy.class, game.getBlack().getStrategy());
+    }
+
     /*@Test
     void testRegisterObserver() {
         TestObserver observer = new TestObserver();
@@ -0,0 +1,119 @@
+package g62727.dev3.oxono.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MctsStrategyTest {
+    private Oxono oxono;
+
+    private static boolean isLegal(Oxono oxono, Color color, int move) {
+        return Arrays.stream(Positions.moves(oxono, color)).anyMatch(legal -> legal == move);
+    }
+
+    @BeforeEach
+    void setUp() {
+        this.oxono = new Oxono(6);
+        oxono.insertToken(Symbol.O, Color.PINK, oxono.cellOf(0, 0));
+        oxono.insertToken(Symbol.X, Color.PINK, oxono.cellOf(0, 1));
+        oxono.insertToken(Symbol.O, Color.PINK, oxono.cellOf(0, 2));
+    }
+
+    @Test
+    void testFindsImmediateWinAndLeavesGameUntouched() {
+        long key = oxono.getZobristKey();
+        MctsStrategy strategy = new MctsStrategy(SearchLimits.nodes(5_000), oxono);
+        int move = strategy.findBestMove(Color.PINK);
+        assertEquals(oxono.cellOf(0, 3), PackedMove.getInsert(move));
+        assertEquals(5_000, strategy.getPlayouts());
+        assertEquals(key, oxono.getZobristKey());
+        assertEquals(8, oxono.getPink().getTokensO());
+    }
+
+    @Test
+    void testSharedTreeFindsWinWithSeveralThreads() {
+        MctsStrategy strategy = new MctsStrategy(SearchLimits.nodes(20_000), oxono, 4, 1 << 16);
+        for (int i = 0; i < 2; i++) {
+            int move = strategy.findBestMove(Color.PINK);
+            assertEquals(oxono.cellOf(0, 3), PackedMove.getInsert(move));
+        }
+        assertTrue(strategy.getPlayouts() >= 40_000);
+        assertThrows(IllegalArgumentException.class, () -> new MctsStrategy(SearchLimits.nodes(1), oxono, 0, 16));
+    }
+
+    @Test
+    void testFullTreeKeepsPlaying() {
+        MctsStrategy strategy = new MctsStrategy(SearchLimits.nodes(2_000), oxono, 1, 1_000);
+        assertNotEquals(PackedMove.NONE, strategy.findBestMove(Color.BLACK));
+    }
+
+    @Test
+    void testPlayoutsDoNotAllocate() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        MctsStrategy strategy = new MctsStrategy(SearchLimits.nodes(20_000), new Oxono(6));
+        strategy.findBestMove(Color.PINK);
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        strategy.findBestMove(Color.PINK);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        assertTrue(allocated < 1_024, "allocated " + allocated + " bytes for 20000 random games");
+    }
+
+    @Test
+    void testCancelTokenStopsTheSearch() {
+        MctsStrategy strategy = new MctsStrategy(SearchLimits.millis(60_000), new Oxono(6));
+        AtomicBoolean cancelled = new AtomicBoolean(true);
+        strategy.setCancelToken(cancelled);
+        long start = System.nanoTime();
+        int move = strategy.findBestMove(Color.PINK);
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 1_000);
+        assertEquals(1, strategy.getPlayouts());
+        assertTrue(isLegal(new Oxono(6), Color.PINK, move), "move " + move);
+    }
+
+    @Test
+    void testSearchStoppedEarlyReturnsLegalTurn() {
+        assertTrue(isLegal(oxono, Color.BLACK, new MctsStrategy(SearchLimits.nodes(1), oxono).findBestMove(Color.BLACK)));
+        assertTrue(isLegal(oxono, Color.BLACK,
+                new MctsStrategy(SearchLimits.nodes(100), oxono, 1, 1).findBestMove(Color.BLACK)));
+        MctsStrategy strategy = new MctsStrategy(SearchLimits.millis(60_000), oxono);
+        strategy.setCancelToken(new AtomicBoolean(true));
+        Totem totem = strategy.chooseTotem(oxono);
+        Position destination = strategy.chooseTotemMove(oxono, totem);
+        Position insert = strategy.chooseTokenInsert(oxono, totem);
+        int move = PackedMove.pack(totem.getSymbol(), oxono.cellOf(destination.getRow(), destination.getCol()),
+                oxono.cellOf(insert.getRow(), insert.getCol()));
+        assertTrue(isLegal(oxono, oxono.getToPlay().getColor(), move), "move " + move);
+    }
+
+    @Test
+    void testNewGameSeedsTheSearch() {
+        MctsStrategy strategy = new MctsStrategy(SearchLimits.nodes(50), new Oxono(6));
+        Set<Integer> moves = new HashSet<>();
+        for (long seed = 0; seed < 8; seed++) {
+            strategy.newGame(seed);
+            int move = strategy.findBestMove(Color.PINK);
+            MctsStrategy fresh = new MctsStrategy(SearchLimits.nodes(50), new Oxono(6));
+            fresh.newGame(seed);
+            assertEquals(move, fresh.findBestMove(Color.PINK));
+            moves.add(move);
+        }
+        assertTrue(moves.size() > 1, "moves " + moves);
+    }
+
+    @Test
+    void testTimeLimitAndRegistration() {
+        MctsStrategy strategy = new MctsStrategy(SearchLimits.millis(100), new Oxono(10));
+        long start = System.nanoTime();
+        assertNotEquals(PackedMove.NONE, strategy.findBestMove(Color.PINK));
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 1_000);
+        assertTrue(strategy.getPlayouts() > 0);
+        assertInstanceOf(MctsStrategy.class, new Game(6).createMctsStrategy1s());
+    }
+}
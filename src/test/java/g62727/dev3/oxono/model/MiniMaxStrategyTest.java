@@ -0,0 +1,352 @@
+package g62727.dev3.oxono.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MiniMaxStrategyTest {
+    private Oxono oxono;
+
+    @BeforeEach
+    void setUp() {
+        this.oxono = new Oxono(6);
+    }
+
+    @Test
+    void testGenerateMovesMatchesValidMovesAndInserts() {
+        Set<Integer> expected = new HashSet<>();
+        for (Symbol symbol : Symbol.values()) {
+            Totem totem = oxono.findTotem(symbol);
+            int from = oxono.getTotemCell(symbol);
+            for (Position move : oxono.getValidMoves(totem)) {
+                int destination = oxono.cellOf(move.getRow(), move.getCol());
+                oxono.moveTotem(symbol, destination);
+                for (Position insert : oxono.getValidInsert(move.getRow(), move.getCol())) {
+                    expected.add(PackedMove.pack(symbol, destination, oxono.cellOf(insert.getRow(), insert.getCol())));
+                }
+                oxono.moveTotem(symbol, from);
+            }
+        }
+        int[] buffer = new int[4];
+        int count = oxono.generateMoves(Color.PINK, buffer);
+        assertEquals(expected.size(), count);
+        buffer = new int[count];
+        assertEquals(count, oxono.generateMoves(Color.PINK, buffer));
+        Set<Integer> generated = new HashSet<>();
+        for (int move : buffer) {
+            generated.add(move);
+        }
+        assertEquals(expected, generated);
+    }
+
+    @Test
+    void testGenerateMovesSkipsTotemWithoutTokens() {
+        Player pink = oxono.getPink();
+        for (int i = 0; i < 8; i++) {
+            pink.drawO();
+        }
+        int[] buffer = new int[256];
+        int count = oxono.generateMoves(Color.PINK, buffer);
+        assertTrue(count > 0);
+        for (int i = 0; i < count; i++) {
+            assertEquals(Symbol.X, PackedMove.getSymbol(buffer[i]));
+        }
+    }
+
+    @Test
+    void testPackedMoveRoundTrip() {
+        int move = PackedMove.pack(Symbol.X, 4095, 17);
+        assertEquals(Symbol.X, PackedMove.getSymbol(move));
+        assertEquals(4095, PackedMove.getDestination(move));
+        assertEquals(17, PackedMove.getInsert(move));
+        Move decoded = PackedMove.toMove(PackedMove.pack(Symbol.O, oxono.cellOf(1, 2), oxono.cellOf(0, 2)), oxono);
+        assertEquals(Symbol.O, decoded.getTotem().getSymbol());
+        assertEquals(new Position(1, 2), decoded.getTotemPos());
+        assertEquals(new Position(0, 2), decoded.getTokenPos());
+    }
+
+    @Test
+    void testFindsImmediateWin() {
+        oxono.insertToken(Symbol.O, Color.PINK, oxono.cellOf(0, 0));
+        oxono.insertToken(Symbol.X, Color.PINK, oxono.cellOf(0, 1));
+        oxono.insertToken(Symbol.O, Color.PINK, oxono.cellOf(0, 2));
+        MiniMaxStrategy strategy = new MiniMaxStrategy(3, oxono);
+        int move = strategy.findBestMove(Color.PINK);
+        assertEquals(oxono.cellOf(0, 3), PackedMove.getInsert(move));
+        assertFalse(oxono.checkForWinner());
+    }
+
+    @Test
+    void testBlocksImmediateWinOfOpponent() {
+        oxono.insertToken(Symbol.O, Color.PINK, oxono.cellOf(0, 0));
+        oxono.insertToken(Symbol.X, Color.PINK, oxono.cellOf(0, 1));
+        oxono.insertToken(Symbol.O, Color.PINK, oxono.cellOf(0, 2));
+        MiniMaxStrategy strategy = new MiniMaxStrategy(2, oxono);
+        int move = strategy.findBestMove(Color.BLACK);
+        assertEquals(oxono.cellOf(0, 3), PackedMove.getInsert(move));
+    }
+
+    @Test
+    void testSearchLeavesGameUntouched() {
+        oxono.insert(new Token(Symbol.O, Color.PINK), new Position(0, 0));
+        oxono.insert(new Token(Symbol.X, Color.PINK), new Position(0, 1));
+        oxono.insert(new Token(Symbol.O, Color.PINK), new Position(0, 2));
+        int freeCases = oxono.freeCasesLeft();
+        Position totemO = oxono.totem_O_Pos();
+        Position totemX = oxono.totem_X_Pos();
+        MiniMaxStrategy strategy = new MiniMaxStrategy(3, oxono);
+        assertNotEquals(PackedMove.NONE, strategy.findBestMove(Color.BLACK));
+        assertTrue(strategy.getNodes() > 0);
+        assertEquals(freeCases, oxono.freeCasesLeft());
+        assertEquals(totemO, oxono.totem_O_Pos());
+        assertEquals(totemX, oxono.totem_X_Pos());
+        assertEquals(8, oxono.getBlack().getTokensO());
+        assertEquals(8, oxono.getPink().getTokensX());
+        assertEquals(GameState.MOVE, oxono.getGameState());
+        assertEquals(List.of(), winningTokens());
+    }
+
+    @Test
+    void testSearchDoesNotAllocatePerNode() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        TranspositionTable table = new TranspositionTable(1);
+        MiniMaxStrategy strategy = new MiniMaxStrategy(SearchLimits.depth(5), oxono, table);
+        for (int i = 0; i < 3; i++) {
+            table.clear();
+            strategy.findBestMove(Color.PINK);
+        }
+        table.clear();
+        long nodesBefore = strategy.getNodes();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        strategy.findBestMove(Color.PINK);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        long nodes = strategy.getNodes() - nodesBefore;
+        assertTrue(nodes > 10_000, "nodes " + nodes);
+        assertTrue(allocated < 1_024, "allocated " + allocated + " bytes for " + nodes + " nodes");
+    }
+
+    @Test
+    void testParallelSearchBlocksAndLeavesGameUntouched() {
+        oxono.insertToken(Symbol.O, Color.PINK, oxono.cellOf(0, 0));
+        oxono.insertToken(Symbol.X, Color.PINK, oxono.cellOf(0, 1));
+        oxono.insertToken(Symbol.O, Color.PINK, oxono.cellOf(0, 2));
+        long key = oxono.getZobristKey();
+        MiniMaxStrategy strategy = new MiniMaxStrategy(SearchLimits.depth(4), oxono, new TranspositionTable(1), 4);
+        for (int i = 0; i < 2; i++) {
+            int move = strategy.findBestMove(Color.BLACK);
+            assertEquals(oxono.cellOf(0, 3), PackedMove.getInsert(move));
+            assertEquals(key, oxono.getZobristKey());
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> new MiniMaxStrategy(SearchLimits.depth(4), oxono, new TranspositionTable(1), 0));
+    }
+
+    @Test
+    void testParallelSearchRespectsNodeLimit() {
+        MiniMaxStrategy strategy = new MiniMaxStrategy(SearchLimits.nodes(5_000), oxono, new TranspositionTable(1), 4);
+        assertNotEquals(PackedMove.NONE, strategy.findBestMove(Color.PINK));
+        assertTrue(strategy.getNodes() <= 5_000, "nodes " + strategy.getNodes());
+        assertTrue(strategy.getCompletedDepth() < SearchLimits.MAX_DEPTH);
+    }
+
+    @Test
+    void testLazySmpSearchBlocksAndLeavesGameUntouched() {
+        oxono.insertToken(Symbol.O, Color.PINK, oxono.cellOf(0, 0));
+        oxono.insertToken(Symbol.X, Color.PINK, oxono.cellOf(0, 1));
+        oxono.insertToken(Symbol.O, Color.PINK, oxono.cellOf(0, 2));
+        long key = oxono.getZobristKey();
+        MiniMaxStrategy strategy = new MiniMaxStrategy(SearchLimits.depth(4), oxono, new TranspositionTable(1), 4,
+                ParallelSearch.LAZY_SMP);
+        for (int i = 0; i < 2; i++) {
+            int move = strategy.findBestMove(Color.BLACK);
+            assertEquals(oxono.cellOf(0, 3), PackedMove.getInsert(move));
+            assertEquals(key, oxono.getZobristKey());
+        }
+        MiniMaxStrategy timed = new MiniMaxStrategy(SearchLimits.millis(100), new Oxono(6), new TranspositionTable(1),
+                4, ParallelSearch.LAZY_SMP);
+        long start = System.nanoTime();
+        assertNotEquals(PackedMove.NONE, timed.findBestMove(Color.PINK));
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 1_000);
+        assertTrue(timed.getCompletedDepth() > 0);
+    }
+
+    @Test
+    void testDepthLimitCompletesEveryIteration() {
+        MiniMaxStrategy strategy = new MiniMaxStrategy(3, oxono);
+        assertNotEquals(PackedMove.NONE, strategy.findBestMove(Color.PINK));
+        assertEquals(3, strategy.getCompletedDepth());
+    }
+
+    @Test
+    void testNodeLimitStopsTheSearch() {
+        MiniMaxStrategy strategy = new MiniMaxStrategy(SearchLimits.nodes(500), oxono);
+        int move = strategy.findBestMove(Color.PINK);
+        assertNotEquals(PackedMove.NONE, move);
+        assertTrue(strategy.getNodes() <= 500);
+        assertTrue(strategy.getCompletedDepth() < SearchLimits.MAX_DEPTH);
+        assertEquals(oxono.totem_O_Pos(), new Position(2, 2));
+    }
+
+    @Test
+    void testTimeLimitOnLargeBoard() {
+        Oxono large = new Oxono(48);
+        MiniMaxStrategy strategy = new MiniMaxStrategy(SearchLimits.millis(100), large);
+        long start = System.nanoTime();
+        int move = strategy.findBestMove(Color.PINK);
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        assertNotEquals(PackedMove.NONE, move);
+        assertTrue(elapsed < 1_000, "search took " + elapsed + " ms");
+        assertEquals(48 * 48 - 2, large.freeCasesLeft());
+    }
+
+    @Test
+    void testTimeLimitStopsEarlyWhenTheGameEndIsInSight() {
+        Oxono small = new Oxono(2);
+        MiniMaxStrategy strategy = new MiniMaxStrategy(SearchLimits.millis(5_000), small);
+        long start = System.nanoTime();
+        assertNotEquals(PackedMove.NONE, strategy.findBestMove(Color.PINK));
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 1_000);
+        assertTrue(strategy.getCompletedDepth() <= 2);
+    }
+
+    @Test
+    void testPonderedTurnIsPlayedWhenTheExpectedReplyIsPlayed() {
+        MiniMaxStrategy strategy = new MiniMaxStrategy(3, oxono);
+        strategy.setPondering(true);
+        oxono.makeMove(chosenMove(strategy));
+        int reply = strategy.getExpectedReply();
+        assertNotEquals(PackedMove.NONE, reply);
+        oxono.makeMove(reply);
+        long nodes = strategy.getNodes();
+        int move = strategy.findBestMove(Color.PINK);
+        assertEquals(nodes, strategy.getNodes());
+        assertEquals(3, strategy.getCompletedDepth());
+        assertTrue(isLegal(move, Color.PINK));
+    }
+
+    @Test
+    void testOtherReplyIsSearchedAfterPondering() {
+        MiniMaxStrategy strategy = new MiniMaxStrategy(3, oxono);
+        strategy.setPondering(true);
+        oxono.makeMove(chosenMove(strategy));
+        int reply = strategy.getExpectedReply();
+        int[] moves = new int[4096];
+        int count = oxono.generateMoves(Color.BLACK, moves);
+        int other = (moves[0] == reply) ? moves[1] : moves[0];
+        strategy.stopThinking();
+        oxono.makeMove(other);
+        long nodes = strategy.getNodes();
+        int move = strategy.findBestMove(Color.PINK);
+        assertTrue(strategy.getNodes() > nodes);
+        assertTrue(isLegal(move, Color.PINK));
+    }
+
+    @Test
+    void testNewGameSearchesAsANewStrategy() {
+        MiniMaxStrategy strategy = new MiniMaxStrategy(4, oxono);
+        int move = strategy.findBestMove(Color.PINK);
+        long nodes = strategy.getNodes();
+        strategy.newGame(0);
+        assertEquals(move, strategy.findBestMove(Color.PINK));
+        assertEquals(2 * nodes, strategy.getNodes());
+    }
+
+    @Test
+    void testCancelledTurnIsNotPondered() throws InterruptedException {
+        MiniMaxStrategy strategy = new MiniMaxStrategy(SearchLimits.depth(SearchLimits.MAX_DEPTH), oxono);
+        strategy.setPondering(true);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        strategy.setCancelToken(cancelled);
+        Thread canceller = Thread.ofPlatform().start(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            cancelled.set(true);
+        });
+        strategy.chooseTotem(oxono);
+        canceller.join();
+        assertFalse(strategy.isPondering());
+    }
+
+    @Test
+    void testStopThinkingEndsThePondering() {
+        MiniMaxStrategy strategy = new MiniMaxStrategy(
+                new SearchLimits(SearchLimits.MAX_DEPTH, 100, SearchLimits.UNLIMITED), oxono);
+        strategy.setPondering(true);
+        strategy.chooseTotem(oxono);
+        assertTrue(strategy.isPondering());
+        strategy.stopThinking();
+        assertFalse(strategy.isPondering());
+    }
+
+    @Test
+    void testCancelTokenStopsTheSearch() throws InterruptedException {
+        MiniMaxStrategy strategy = new MiniMaxStrategy(SearchLimits.depth(SearchLimits.MAX_DEPTH), new Oxono(10));
+        AtomicBoolean cancelled = new AtomicBoolean();
+        strategy.setCancelToken(cancelled);
+        Thread canceller = Thread.ofPlatform().start(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            cancelled.set(true);
+        });
+        long start = System.nanoTime();
+        assertNotEquals(PackedMove.NONE, strategy.findBestMove(Color.PINK));
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        canceller.join();
+        assertTrue(elapsed < 2_000, "search took " + elapsed + " ms");
+        assertTrue(strategy.getCompletedDepth() < SearchLimits.MAX_DEPTH);
+    }
+
+    @Test
+    void testTimedStrategiesAreRegistered() {
+        Game game = new Game(6);
+        assertInstanceOf(MiniMaxStrategy.class, game.createMiniMaxStrategy100ms());
+        assertInstanceOf(MiniMaxStrategy.class, game.createMiniMaxStrategy1s());
+        assertInstanceOf(MiniMaxStrategy.class, game.createMiniMaxStrategy5s());
+        assertInstanceOf(MiniMaxStrategy.class, game.createMiniMaxStrategyLazySmp1s());
+    }
+
+    private int chosenMove(MiniMaxStrategy strategy) {
+        Totem totem = strategy.chooseTotem(oxono);
+        Position destination = strategy.chooseTotemMove(oxono, totem);
+        Position insert = strategy.chooseTokenInsert(oxono, totem);
+        return PackedMove.pack(totem.getSymbol(), oxono.cellOf(destination.getRow(), destination.getCol()),
+                oxono.cellOf(insert.getRow(), insert.getCol()));
+    }
+
+    private boolean isLegal(int move, Color color) {
+        int[] moves = new int[4096];
+        int count = oxono.generateMoves(color, moves);
+        for (int i = 0; i < count; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<Position> winningTokens() {
+        List<Position> winning = new ArrayList<>();
+        for (int row = 0; row < oxono.getBoardSize(); row++) {
+            for (int col = 0; col < oxono.getBoardSize(); col++) {
+                if (oxono.getPawnAt(new Position(row, col)) instanceof Token token && token.isWinning()) {
+                    winning.add(new Position(row, col));
+                }
+            }
+        }
+        return winning;
+    }
+}
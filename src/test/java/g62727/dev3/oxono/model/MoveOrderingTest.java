@@ -0,0 +1,61 @@
+package g62727.dev3.oxono.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveOrderingTest {
+    private Oxono oxono;
+    private MoveOrdering ordering;
+
+    @BeforeEach
+    void setUp() {
+        this.oxono = new Oxono(6);
+        this.ordering = new MoveOrdering(oxono, 4);
+        oxono.insertToken(Symbol.O, Color.PINK, oxono.cellOf(0, 0));
+        oxono.insertToken(Symbol.O, Color.PINK, oxono.cellOf(0, 1));
+        oxono.insertToken(Symbol.O, Color.PINK, oxono.cellOf(0, 2));
+        oxono.insertToken(Symbol.O, Color.BLACK, oxono.cellOf(5, 0));
+        oxono.insertToken(Symbol.X, Color.BLACK, oxono.cellOf(5, 1));
+        oxono.insertToken(Symbol.O, Color.BLACK, oxono.cellOf(5, 2));
+    }
+
+    @Test
+    void testHashThenWinThenBlockThenKillerThenHistory() {
+        int quiet = PackedMove.pack(Symbol.O, oxono.cellOf(3, 2), oxono.cellOf(3, 1));
+        int history = PackedMove.pack(Symbol.O, oxono.cellOf(3, 2), oxono.cellOf(4, 2));
+        int killer = PackedMove.pack(Symbol.O, oxono.cellOf(2, 1), oxono.cellOf(2, 0));
+        int block = PackedMove.pack(Symbol.X, oxono.cellOf(4, 3), oxono.cellOf(5, 3));
+        int win = PackedMove.pack(Symbol.O, oxono.cellOf(1, 3), oxono.cellOf(0, 3));
+        int hash = PackedMove.pack(Symbol.X, oxono.cellOf(3, 4), oxono.cellOf(3, 5));
+
+        int[] moves = {history, killer, quiet, win, block, hash};
+        ordering.score(Color.PINK, 1, moves, moves.length, PackedMove.NONE);
+        ordering.cutoff(1, 1, killer, 1);
+        ordering.score(Color.PINK, 2, moves, moves.length, PackedMove.NONE);
+        ordering.cutoff(2, 0, history, 3);
+
+        moves = new int[]{quiet, history, killer, block, hash, win};
+        ordering.score(Color.PINK, 1, moves, moves.length, hash);
+        int[] expected = {hash, win, block, killer, history, quiet};
+        for (int i = 0; i < moves.length; i++) {
+            assertEquals(expected[i], ordering.next(1, moves, i, moves.length), "index " + i);
+            assertEquals(i >= 4, ordering.isQuiet(1, i), "index " + i);
+        }
+    }
+
+    @Test
+    void testNewSearchForgetsKillers() {
+        int killer = PackedMove.pack(Symbol.O, oxono.cellOf(2, 1), oxono.cellOf(2, 0));
+        int quiet = PackedMove.pack(Symbol.O, oxono.cellOf(3, 2), oxono.cellOf(3, 1));
+        int[] moves = {quiet, killer};
+        ordering.score(Color.PINK, 0, moves, moves.length, PackedMove.NONE);
+        ordering.next(0, moves, 0, moves.length);
+        ordering.cutoff(0, 1, killer, 1);
+        ordering.newSearch();
+        moves = new int[]{quiet, killer};
+        ordering.score(Color.PINK, 0, moves, moves.length, PackedMove.NONE);
+        assertEquals(quiet, ordering.next(0, moves, 0, moves.length));
+    }
+}
@@ -0,0 +1,108 @@
+package g62727.dev3.oxono.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpeningBookTest {
+    @TempDir
+    Path directory;
+
+    private static int[] canonicalMoves(Oxono oxono, Color color, int... moves) {
+        Symmetry symmetry = oxono.getGeometry().getSymmetry();
+        int transform = symmetry.canonicalTransform(oxono, color);
+        int[] result = new int[moves.length];
+        for (int i = 0; i < moves.length; i++) {
+            result[i] = symmetry.move(transform, moves[i]);
+        }
+        return result;
+    }
+
+    @Test
+    void testProbeReturnsTheMostPlayedTurn() throws IOException {
+        Oxono oxono = new Oxono(6);
+        int[] moves = Positions.moves(oxono, Color.PINK);
+        long key = oxono.getGeometry().getSymmetry().canonicalKey(oxono, Color.PINK);
+        Path path = directory.resolve("book");
+        OpeningBook.write(path, 6,
+                new long[]{key + 1, key, key, key - 1, key},
+                canonicalMoves(oxono, Color.PINK, moves[0], moves[1], moves[2], moves[3], moves[4]),
+                new short[]{0, 500, -200, 0, 900},
+                new int[]{10, 3, 7, 10, 7});
+        OpeningBook book = OpeningBook.open(path);
+        assertEquals(6, book.getSize());
+        assertEquals(5, book.getEntries());
+        assertEquals(moves[4], book.probe(oxono, Color.PINK, moves, moves.length));
+        assertEquals(PackedMove.NONE, book.probe(oxono, Color.BLACK, moves, moves.length));
+    }
+
+    @Test
+    void testProbeIgnoresIllegalTurns() throws IOException {
+        Oxono oxono = new Oxono(6);
+        int[] moves = Positions.moves(oxono, Color.PINK);
+        Path path = directory.resolve("book");
+        long key = oxono.getGeometry().getSymmetry().canonicalKey(oxono, Color.PINK);
+        OpeningBook.write(path, 6, new long[]{key}, new int[]{PackedMove.NONE},
+                new short[]{0}, new int[]{1});
+        assertEquals(PackedMove.NONE, OpeningBook.open(path).probe(oxono, Color.PINK, moves, moves.length));
+    }
+
+    @Test
+    void testOpenRejectsOtherFiles() throws IOException {
+        Path path = directory.resolve("book");
+        Files.write(path, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+        assertThrows(IllegalArgumentException.class, () -> OpeningBook.open(path));
+    }
+
+    @Test
+    void testMiniMaxPlaysTheBookTurnWithoutSearching() throws IOException {
+        Oxono oxono = new Oxono(6);
+        int[] moves = Positions.moves(oxono, Color.PINK);
+        Path path = directory.resolve("book");
+        long key = oxono.getGeometry().getSymmetry().canonicalKey(oxono, Color.PINK);
+        OpeningBook.write(path, 6, new long[]{key}, canonicalMoves(oxono, Color.PINK, moves[7]),
+                new short[]{0}, new int[]{1});
+        MiniMaxStrategy strategy = new MiniMaxStrategy(3, oxono);
+        strategy.setOpeningBook(OpeningBook.open(path));
+        assertEquals(moves[7], strategy.findBestMove(Color.PINK));
+        assertEquals(0, strategy.getNodes());
+    }
+
+    @Test
+    void testGeneratorBuildsABookOfTheFirstPlies() throws IOException {
+        Path path = directory.resolve("book");
+        int entries = OpeningBookGenerator.generate(4, 2, 8, 2, SearchLimits.nodes(2_000), 1, path);
+        OpeningBook book = OpeningBook.open(path);
+        assertEquals(4, book.getSize());
+        assertEquals(entries, book.getEntries());
+        Oxono oxono = new Oxono(4);
+        Color color = oxono.getToPlay().getColor();
+        int[] moves = Positions.moves(oxono, color);
+        assertNotEquals(PackedMove.NONE, book.probe(oxono, color, moves, moves.length));
+    }
+
+    @Test
+    void testProbeFindsTheRotatedPositions() throws IOException {
+        Oxono oxono = new Oxono(6);
+        oxono.moveTotem(Symbol.O, oxono.cellOf(1, 2));
+        oxono.insertToken(Symbol.O, Color.PINK, oxono.cellOf(0, 2));
+        oxono.getPink().drawO();
+        int[] moves = Positions.moves(oxono, Color.BLACK);
+        Path path = directory.resolve("book");
+        OpeningBook.write(path, 6, new long[]{oxono.getGeometry().getSymmetry().canonicalKey(oxono, Color.BLACK)},
+                canonicalMoves(oxono, Color.BLACK, moves[5]), new short[]{0}, new int[]{1});
+        OpeningBook book = OpeningBook.open(path);
+        Symmetry symmetry = oxono.getGeometry().getSymmetry();
+        for (int transform = 0; transform < Symmetry.TRANSFORMS; transform++) {
+            Oxono image = new Oxono(6);
+            image.copyPosition(oxono, transform);
+            int[] imageMoves = Positions.moves(image, Color.BLACK);
+            assertEquals(symmetry.move(transform, moves[5]), book.probe(image, Color.BLACK, imageMoves, imageMoves.length));
+        }
+    }
+}
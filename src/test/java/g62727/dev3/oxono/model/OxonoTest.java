@@ -4,6 +4,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.SplittableRandom;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -230,4 +231,159 @@ class OxonoTest {
 
         assertFalse(oxono.checkForWinner());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFindWinningLine_LastInsertedCell() {
+        oxono.insert(new Token(Symbol.O, Color.PINK), new Position(0, 1));
+        oxono.insert(new Token(Symbol.X, Color.PINK), new Position(0, 2));
+        oxono.insert(new Token(Symbol.O, Color.PINK), new Position(0, 4));
+        assertEquals(PackedLine.NONE, oxono.findWinningLine(oxono.cellOf(0, 4)));
+
+        oxono.insert(new Token(Symbol.X, Color.PINK), new Position(0, 3));
+        int line = oxono.findWinningLine(oxono.cellOf(0, 3));
+        assertEquals(oxono.findWinningLine(), line);
+        assertEquals(oxono.cellOf(0, 1), PackedLine.getStart(line));
+        assertFalse(PackedLine.isVertical(line));
+    }
+
+    @Test
+    void testFindWinningLine_Column_Symbol() {
+        oxono.insert(new Token(Symbol.X, Color.PINK), new Position(0, 5));
+        oxono.insert(new Token(Symbol.X, Color.BLACK), new Position(1, 5));
+        oxono.insert(new Token(Symbol.X, Color.BLACK), new Position(3, 5));
+        oxono.insert(new Token(Symbol.X, Color.PINK), new Position(2, 5));
+        int line = oxono.findWinningLine(oxono.cellOf(2, 5));
+        assertEquals(oxono.cellOf(0, 5), PackedLine.getStart(line));
+        assertTrue(PackedLine.isVertical(line));
+        assertEquals(PackedLine.NONE, oxono.findWinningLine(oxono.cellOf(5, 5)));
+    }
+
+    @Test
+    void testCheckForWinner_DoesNotMarkTokens() {
+        Token[] tokens = new Token[4];
+        for (int col = 0; col < tokens.length; col++) {
+            tokens[col] = new Token(Symbol.O, Color.BLACK);
+            oxono.insert(tokens[col], new Position(5, col));
+        }
+        assertTrue(oxono.checkForWinner());
+        for (Token token : tokens) {
+            assertFalse(token.isWinning());
+        }
+        oxono.markWinningLine(oxono.findWinningLine(oxono.cellOf(5, 2)));
+        for (Token token : tokens) {
+            assertTrue(token.isWinning());
+        }
+    }
+
+    @Test
+    void testZobristKeyCoversSideToMoveAndTokenCounts() {
+        long initial = oxono.getZobristKey();
+        oxono.setToPlay(oxono.getBlack());
+        assertNotEquals(initial, oxono.getZobristKey());
+        oxono.setToPlay(oxono.getPink());
+        assertEquals(initial, oxono.getZobristKey());
+
+        oxono.getPink().drawO();
+        long drawn = oxono.getZobristKey();
+        assertNotEquals(initial, drawn);
+        oxono.getPink().addO();
+        oxono.getBlack().drawO();
+        assertNotEquals(drawn, oxono.getZobristKey());
+        oxono.getBlack().addO();
+        assertEquals(initial, oxono.getZobristKey());
+    }
+
+    @Test
+    void testZobristKeyThroughCommandUndoRedo() {
+        Game game = new Game(6);
+        Player pink = oxono.getPink();
+        long initial = oxono.getZobristKey();
+        CommandManager manager = new CommandManager();
+        manager.doIt(new MoveTotemCommand(game, oxono, oxono.findTotem(Symbol.O), new Position(0, 2), 2, 2));
+        manager.doIt(new InsertTokenCommand(game, oxono, new Token(Symbol.O, Color.PINK), new Position(0, 3), pink));
+        long played = oxono.getZobristKey();
+        assertNotEquals(initial, played);
+        manager.undo();
+        manager.undo();
+        assertEquals(initial, oxono.getZobristKey());
+        manager.redo();
+        manager.redo();
+        assertEquals(played, oxono.getZobristKey());
+    }
+
+    @Test
+    void testCopyPositionSwapsTotemsAndCopiesTokens() {
+        Oxono copy = new Oxono(6);
+        copy.insertToken(Symbol.X, Color.BLACK, copy.cellOf(5, 5));
+        int totemO = oxono.getTotemCell(Symbol.O);
+        int totemX = oxono.getTotemCell(Symbol.X);
+        oxono.moveTotem(Symbol.O, oxono.cellOf(0, 0));
+        oxono.moveTotem(Symbol.X, totemO);
+        oxono.moveTotem(Symbol.O, totemX);
+        oxono.insertToken(Symbol.O, Color.PINK, oxono.cellOf(1, 1));
+        oxono.getPink().drawO();
+        oxono.setToPlay(oxono.getBlack());
+        copy.copyPosition(oxono);
+        assertEquals(oxono.getZobristKey(), copy.getZobristKey());
+        assertEquals(oxono.freeCasesLeft(), copy.freeCasesLeft());
+        assertEquals(totemX, copy.getTotemCell(Symbol.O));
+        assertEquals(totemO, copy.getTotemCell(Symbol.X));
+        assertEquals(7, copy.getPink().getTokensO());
+        assertEquals(Color.BLACK, copy.getToPlay().getColor());
+        assertThrows(IllegalArgumentException.class, () -> copy.copyPosition(new Oxono(8)));
+    }
+
+    @Test
+    void testMakeAndUnmakeMoveRestoreThePosition() {
+        SplittableRandom random = new SplittableRandom(3);
+        int[] moves = new int[4096];
+        long[] keys = new long[20];
+        int plies = 0;
+        for (; plies < keys.length; plies++) {
+            keys[plies] = oxono.getZobristKey();
+            int count = oxono.generateMoves(oxono.getToPlay().getColor(), moves);
+            int move = moves[random.nextInt(count)];
+            Color mover = oxono.getToPlay().getColor();
+            oxono.makeMove(move);
+            assertNotEquals(mover, oxono.getToPlay().getColor());
+            if (oxono.lastMoveWins() || oxono.isDraw()) {
+                plies++;
+                break;
+            }
+        }
+        for (int ply = plies - 1; ply >= 0; ply--) {
+            oxono.unmakeMove();
+            assertEquals(keys[ply], oxono.getZobristKey());
+        }
+        assertEquals(Color.PINK, oxono.getToPlay().getColor());
+        assertEquals(8, oxono.getPink().getTokensO());
+        assertEquals(8, oxono.getBlack().getTokensX());
+        assertEquals(GameState.MOVE, oxono.getGameState());
+        assertNull(oxono.getToInsert());
+    }
+
+    @Test
+    void testLastMoveWinsWithoutSideEffect() {
+        assertFalse(oxono.lastMoveWins());
+        for (int col = 0; col < 3; col++) {
+            oxono.insertToken(Symbol.O, Color.PINK, oxono.cellOf(0, col));
+        }
+        oxono.makeMove(PackedMove.pack(Symbol.O, oxono.cellOf(1, 2), oxono.cellOf(0, 3)));
+        assertTrue(oxono.lastMoveWins());
+        assertEquals(GameState.MOVE, oxono.getGameState());
+        assertEquals(0, oxono.getScore(Color.PINK));
+        oxono.unmakeMove();
+        assertFalse(oxono.lastMoveWins());
+    }
+
+    @Test
+    void testCopyIsIndependent() {
+        oxono.makeMove(PackedMove.pack(Symbol.X, oxono.cellOf(3, 4), oxono.cellOf(3, 5)));
+        Oxono copy = oxono.copy();
+        assertEquals(oxono.getZobristKey(), copy.getZobristKey());
+        copy.makeMove(PackedMove.pack(Symbol.O, oxono.cellOf(2, 1), oxono.cellOf(2, 0)));
+        assertNotEquals(oxono.getZobristKey(), copy.getZobristKey());
+        assertEquals(oxono.cellOf(2, 2), oxono.getTotemCell(Symbol.O));
+        assertFalse(oxono.isTokenCell(oxono.cellOf(2, 0)));
+    }
+}
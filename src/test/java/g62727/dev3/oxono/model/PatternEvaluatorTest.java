@@ -0,0 +1,86 @@
+package g62727.dev3.oxono.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PatternEvaluatorTest {
+    private Oxono oxono;
+    private PatternEvaluator evaluator;
+
+    @BeforeEach
+    void setUp() {
+        this.oxono = new Oxono(6);
+        this.evaluator = new PatternEvaluator(oxono.getGeometry());
+        evaluator.reset(oxono);
+    }
+
+    private void insert(Symbol symbol, Color color, int row, int col) {
+        int cell = oxono.cellOf(row, col);
+        oxono.insertToken(symbol, color, cell);
+        evaluator.insert(cell, color, symbol);
+    }
+
+    @Test
+    void testEmptyBoardIsEven() {
+        assertEquals(0, evaluator.score(Color.PINK));
+        assertEquals(0, evaluator.score(Color.BLACK));
+    }
+
+    @Test
+    void testOpenRunsFavourTheirOwner() {
+        insert(Symbol.O, Color.PINK, 0, 0);
+        insert(Symbol.X, Color.PINK, 0, 1);
+        int two = evaluator.score(Color.PINK);
+        assertTrue(two > 0);
+        assertEquals(-two, evaluator.score(Color.BLACK));
+        insert(Symbol.O, Color.PINK, 0, 2);
+        assertTrue(evaluator.score(Color.PINK) > two);
+    }
+
+    @Test
+    void testBlockedRunsAreWorthNothing() {
+        insert(Symbol.O, Color.PINK, 0, 1);
+        insert(Symbol.X, Color.PINK, 0, 2);
+        insert(Symbol.X, Color.BLACK, 0, 0);
+        insert(Symbol.O, Color.BLACK, 0, 3);
+        assertEquals(0, evaluator.score(Color.PINK));
+    }
+
+    @Test
+    void testSymbolRunCountsForTheMajority() {
+        insert(Symbol.X, Color.PINK, 5, 0);
+        insert(Symbol.X, Color.PINK, 5, 1);
+        insert(Symbol.X, Color.BLACK, 5, 2);
+        assertTrue(evaluator.score(Color.PINK) > 0);
+    }
+
+    @Test
+    void testIncrementalMatchesRecomputation() {
+        SplittableRandom random = new SplittableRandom(9);
+        List<Integer> inserted = new ArrayList<>();
+        PatternEvaluator fresh = new PatternEvaluator(oxono.getGeometry());
+        for (int step = 0; step < 2000; step++) {
+            int cell = random.nextInt(oxono.getGeometry().getCells());
+            if (!inserted.isEmpty() && (random.nextBoolean() || !oxono.isTokenCell(cell) && inserted.size() > 20)) {
+                int removed = inserted.remove(random.nextInt(inserted.size()));
+                evaluator.remove(removed, oxono.getColorAt(removed), oxono.getSymbolAt(removed));
+                oxono.removeToken(removed);
+            } else if (!oxono.isTokenCell(cell) && cell != oxono.getTotemCell(Symbol.O)
+                    && cell != oxono.getTotemCell(Symbol.X)) {
+                Color color = random.nextBoolean() ? Color.PINK : Color.BLACK;
+                Symbol symbol = random.nextBoolean() ? Symbol.O : Symbol.X;
+                oxono.insertToken(symbol, color, cell);
+                evaluator.insert(cell, color, symbol);
+                inserted.add(cell);
+            }
+            fresh.reset(oxono);
+            assertEquals(fresh.score(Color.PINK), evaluator.score(Color.PINK));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package g62727.dev3.oxono.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerftTest {
+
+    // The totem O is surrounded by tokens : it can only jump over them
+    private static Oxono jumpPosition() {
+        Oxono oxono = new Oxono(6);
+        oxono.moveTotem(Symbol.O, oxono.cellOf(2, 2));
+        Positions.place(oxono, Symbol.X, Color.PINK, 1, 2);
+        Positions.place(oxono, Symbol.O, Color.BLACK, 3, 2);
+        Positions.place(oxono, Symbol.O, Color.PINK, 2, 1);
+        Positions.place(oxono, Symbol.X, Color.BLACK, 2, 3);
+        return oxono;
+    }
+
+    // The totem X is in a corner whose row and column are full : it can go anywhere, even to the free cell (2,2)
+    // surrounded by tokens, where its token can then be inserted anywhere
+    private static Oxono anywherePosition() {
+        Oxono oxono = new Oxono(6);
+        oxono.moveTotem(Symbol.X, oxono.cellOf(0, 0));
+        Symbol[] symbols = {Symbol.X, Symbol.O, Symbol.O, Symbol.X, Symbol.O};
+        for (int i = 1; i < 6; i++) {
+            Positions.place(oxono, symbols[i - 1], (i % 2 == 0) ? Color.PINK : Color.BLACK, 0, i);
+            Positions.place(oxono, symbols[i - 1], (i % 2 == 0) ? Color.BLACK : Color.PINK, i, 0);
+        }
+        Positions.place(oxono, Symbol.X, Color.PINK, 1, 2);
+        Positions.place(oxono, Symbol.O, Color.BLACK, 3, 2);
+        Positions.place(oxono, Symbol.X, Color.BLACK, 2, 1);
+        Positions.place(oxono, Symbol.O, Color.PINK, 2, 3);
+        return oxono;
+    }
+
+    @Test
+    void testCountsFromTheStart() {
+        assertEquals(1, Perft.perft(new Oxono(6), 0));
+        assertArrayEquals(new long[]{36, 904, 18_460, 308_024},
+                new long[]{Perft.perft(new Oxono(4), 1), Perft.perft(new Oxono(4), 2),
+                        Perft.perft(new Oxono(4), 3), Perft.perft(new Oxono(4), 4)});
+        assertArrayEquals(new long[]{68, 3_612, 162_680},
+                new long[]{Perft.perft(new Oxono(6), 1), Perft.perft(new Oxono(6), 2), Perft.perft(new Oxono(6), 3)});
+        assertArrayEquals(new long[]{100, 8_092},
+                new long[]{Perft.perft(new Oxono(8), 1), Perft.perft(new Oxono(8), 2)});
+        assertEquals(132, Perft.perft(new Oxono(10), 1));
+        assertEquals(228, Perft.perft(new Oxono(16), 1));
+    }
+
+    @Test
+    void testCountsOfTheJumpingTotem() {
+        Oxono oxono = jumpPosition();
+        assertEquals(24, Perft.perft(oxono, 1));
+        assertEquals(562, Perft.perft(oxono, 2));
+        assertEquals(12_548, Perft.perft(oxono, 3));
+    }
+
+    @Test
+    void testCountsOfTheTotemGoingAnywhere() {
+        Oxono oxono = anywherePosition();
+        assertEquals(78, Perft.perft(oxono, 1));
+        assertEquals(1_680, Perft.perft(oxono, 2));
+        assertEquals(35_716, Perft.perft(oxono, 3));
+    }
+
+    @Test
+    void testBulkCountsMatchThePlayedLeaves() {
+        for (Oxono oxono : new Oxono[]{new Oxono(5), jumpPosition(), anywherePosition()}) {
+            for (int depth = 1; depth <= 3; depth++) {
+                assertEquals(Perft.perft(oxono, depth, false), Perft.perft(oxono, depth, true));
+            }
+        }
+    }
+
+    @Test
+    void testDivideSumsToTheCount() {
+        Oxono oxono = anywherePosition();
+        Map<Integer, Long> counts = Perft.divide(oxono, 3);
+        assertEquals(78, counts.size());
+        assertEquals(35_716, counts.values().stream().mapToLong(Long::longValue).sum());
+        int[] moves = new int[4096];
+        int count = oxono.generateMoves(Color.PINK, moves);
+        for (int i = 0; i < count; i++) {
+            Oxono child = oxono.copy();
+            child.makeMove(moves[i]);
+            long expected = child.lastMoveWins() ? 0 : Perft.perft(child, 2);
+            assertEquals(expected, counts.get(moves[i]));
+        }
+    }
+
+    @Test
+    void testPositionIsLeftUntouched() {
+        Oxono oxono = jumpPosition();
+        long key = oxono.getZobristKey(Color.PINK);
+        Perft.perft(oxono, 3, false);
+        Perft.divide(oxono, 2);
+        assertEquals(key, oxono.getZobristKey(Color.PINK));
+        assertEquals(Color.PINK, oxono.getToPlay().getColor());
+        assertEquals(7, oxono.getPink().getTokensO());
+    }
+
+    @Test
+    void testDescribeShowsTheTotemAndTheCells() {
+        Oxono oxono = new Oxono(6);
+        BoardGeometry geometry = oxono.getGeometry();
+        int move = PackedMove.pack(Symbol.O, oxono.cellOf(2, 3), oxono.cellOf(2, 4));
+        assertEquals("O 2,3 2,4", Perft.describe(move, geometry));
+    }
+
+    @Test
+    void testNegativeDepthIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> Perft.perft(new Oxono(6), -1));
+        assertThrows(IllegalArgumentException.class, () -> Perft.divide(new Oxono(6), 0));
+    }
+}
@@ -0,0 +1,70 @@
+package g62727.dev3.oxono.model;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Builds the positions the tests of the searches, the solver, the symmetries and the opening book start from
+ */
+final class Positions {
+    private Positions() {
+    }
+
+    /**
+     * Plays random turns from the start, every turn that would win the game being skipped, so the game is never over
+     * @param size - the size of the board
+     * @param plies - the number of turns drawn, skipped ones included
+     * @param seed - the seed of the turns
+     * @return the game, with the player whose turn it is to play
+     */
+    static Oxono randomPosition(int size, int plies, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Oxono oxono = new Oxono(size);
+        int[] moves = new int[4096];
+        Color color = Color.PINK;
+        for (int ply = 0; ply < plies; ply++) {
+            int count = oxono.generateMoves(color, moves);
+            if (count == 0) {
+                break;
+            }
+            oxono.setToPlay(color);
+            oxono.makeMove(moves[random.nextInt(count)]);
+            if (oxono.lastMoveWins()) {
+                oxono.unmakeMove();
+                continue;
+            }
+            color = (color == Color.PINK) ? Color.BLACK : Color.PINK;
+        }
+        oxono.setToPlay(color);
+        return oxono;
+    }
+
+    /**
+     * Returns the legal turns of a player, in the order they are generated
+     * @param oxono - the game
+     * @param color - the color of the player
+     * @return the turns encoded as PackedMove
+     */
+    static int[] moves(Oxono oxono, Color color) {
+        int[] moves = new int[4096];
+        return Arrays.copyOf(moves, oxono.generateMoves(color, moves));
+    }
+
+    /**
+     * Inserts a token of a player on a cell without moving any totem, drawing it from the player
+     * @param oxono - the game
+     * @param symbol - the symbol of the token
+     * @param color - the color of the token
+     * @param row - the row of the cell
+     * @param col - the column of the cell
+     */
+    static void place(Oxono oxono, Symbol symbol, Color color, int row, int col) {
+        oxono.insertToken(symbol, color, oxono.cellOf(row, col));
+        Player player = (color == Color.PINK) ? oxono.getPink() : oxono.getBlack();
+        if (symbol == Symbol.O) {
+            player.drawO();
+        } else {
+            player.drawX();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package g62727.dev3.oxono.model;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchStatisticsTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void testListenerReceivesTheStatisticsOfEverySearch() {
+        MiniMaxStrategy strategy = new MiniMaxStrategy(4, new Oxono(6));
+        List<SearchStatistics> received = new ArrayList<>();
+        strategy.addSearchListener(received::add);
+        int move = strategy.findBestMove(Color.PINK);
+        assertEquals(1, received.size());
+        SearchStatistics statistics = received.get(0);
+        assertEquals(move, statistics.getBestMove());
+        assertEquals(strategy.getNodes(), statistics.getNodes());
+        assertEquals(4, statistics.getCompletedDepth());
+        assertEquals(strategy.getTableHits(), statistics.getTableHits());
+        long iterations = 0;
+        for (int depth = 1; depth <= 4; depth++) {
+            assertTrue(depth == 1 || statistics.getIterationNodes(depth) > 0);
+            assertTrue(statistics.getIterationNanos(depth) > 0);
+            iterations += statistics.getIterationNodes(depth);
+        }
+        assertEquals(statistics.getNodes(), iterations);
+        assertTrue(statistics.getCutoffs() > 0);
+        assertTrue(statistics.getFirstMoveCutoffRate() > 0 && statistics.getFirstMoveCutoffRate() <= 1);
+        assertTrue(statistics.getBranchingFactor() > 1);
+        assertTrue(statistics.getNodesPerSecond() > 0);
+        strategy.findBestMove(Color.PINK);
+        assertEquals(2, received.size());
+        assertEquals(strategy.getNodes(), statistics.getNodes() + received.get(1).getNodes());
+    }
+
+    @Test
+    void testParallelSearchCountsTheCutoffsOfEveryThread() {
+        MiniMaxStrategy strategy = new MiniMaxStrategy(SearchLimits.depth(4), new Oxono(6), new TranspositionTable(4), 3);
+        List<SearchStatistics> received = new ArrayList<>();
+        strategy.addSearchListener(received::add);
+        strategy.findBestMove(Color.PINK);
+        SearchStatistics statistics = received.get(0);
+        assertEquals(strategy.getNodes(), statistics.getNodes());
+        long cutoffs = 0;
+        for (int ply = 0; ply < statistics.getPlies(); ply++) {
+            cutoffs += statistics.getCutoffs(ply);
+        }
+        assertEquals(statistics.getCutoffs(), cutoffs);
+        assertTrue(cutoffs > 0);
+    }
+
+    @Test
+    void testSearchesAreRecordedByTheFlightRecorder() throws IOException {
+        Path path = directory.resolve("search.jfr");
+        MiniMaxStrategy strategy = new MiniMaxStrategy(3, new Oxono(6));
+        try (Recording recording = new Recording()) {
+            recording.enable("g62727.dev3.oxono.Search");
+            recording.enable("g62727.dev3.oxono.SearchIteration");
+            recording.start();
+            strategy.findBestMove(Color.PINK);
+            recording.stop();
+            recording.dump(path);
+        }
+        List<RecordedEvent> searches = new ArrayList<>();
+        int iterations = 0;
+        for (RecordedEvent event : RecordingFile.readAllEvents(path)) {
+            String name = event.getEventType().getName();
+            if (name.equals("g62727.dev3.oxono.Search")) {
+                searches.add(event);
+            } else if (name.equals("g62727.dev3.oxono.SearchIteration")) {
+                iterations++;
+            }
+        }
+        assertEquals(1, searches.size());
+        assertEquals(strategy.getNodes(), searches.get(0).getLong("nodes"));
+        assertEquals(3, searches.get(0).getInt("completedDepth"));
+        assertEquals(3, iterations);
+    }
+}
@@ -0,0 +1,133 @@
+package g62727.dev3.oxono.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SelfPlayTest {
+
+    private static int[] moves(SelfPlay.PlayedGame game) {
+        int[] moves = new int[game.getPlies()];
+        for (int ply = 0; ply < moves.length; ply++) {
+            moves[ply] = game.getMove(ply);
+        }
+        return moves;
+    }
+
+    @Test
+    void testSameSeedReplaysTheSameGames() {
+        SelfPlay selfPlay = new SelfPlay(6, Strategies.RANDOM, Strategies.WIN_POSSIBLE, 2, 7);
+        for (int index = 0; index < 10; index++) {
+            assertArrayEquals(moves(selfPlay.playGame(index)), moves(selfPlay.playGame(index)));
+        }
+        SelfPlayResult platform = selfPlay.play(40, 3, false);
+        SelfPlayResult virtual = selfPlay.play(40, 5, true);
+        assertEquals(40, platform.getGames());
+        assertEquals(platform.getWins(), virtual.getWins());
+        assertEquals(platform.getDraws(), virtual.getDraws());
+        assertEquals(platform.getAveragePlies(), virtual.getAveragePlies());
+    }
+
+    @Test
+    void testReusedStrategiesPlayAsNewOnes() {
+        SelfPlay selfPlay = new SelfPlay(6, Strategies.MINIMAX_DEPTH_3, Strategies.WIN_POSSIBLE, 2, 5);
+        SelfPlayResult fresh = new SelfPlayResult(6, Strategies.MINIMAX_DEPTH_3, Strategies.WIN_POSSIBLE);
+        for (int index = 0; index < 12; index++) {
+            fresh.add(selfPlay.playGame(index));
+        }
+        for (int threads : new int[]{1, 2}) {
+            SelfPlayResult reused = selfPlay.play(12, threads, false);
+            assertEquals(fresh.getWins(), reused.getWins());
+            assertEquals(fresh.getDraws(), reused.getDraws());
+            assertEquals(fresh.getAveragePlies(), reused.getAveragePlies());
+        }
+    }
+
+    @Test
+    void testGamesOfAPairShareTheirOpeningWithColorsSwapped() {
+        SelfPlay selfPlay = new SelfPlay(6, Strategies.MINIMAX_DEPTH_3, Strategies.RANDOM, 4, 3);
+        SelfPlay.PlayedGame even = selfPlay.playGame(6);
+        SelfPlay.PlayedGame odd = selfPlay.playGame(7);
+        assertTrue(even.isFirstPink());
+        assertFalse(odd.isFirstPink());
+        for (int ply = 0; ply < 4; ply++) {
+            assertEquals(even.getMove(ply), odd.getMove(ply));
+        }
+    }
+
+    @Test
+    void testPlayedGamesAreLegalAndOver() {
+        SelfPlay selfPlay = new SelfPlay(6, Strategies.WIN_POSSIBLE, Strategies.MINIMAX_DEPTH_3, 2, 11);
+        for (int index = 0; index < 6; index++) {
+            SelfPlay.PlayedGame game = selfPlay.playGame(index);
+            Oxono oxono = new Oxono(6);
+            int[] buffer = new int[4096];
+            for (int ply = 0; ply < game.getPlies(); ply++) {
+                int count = oxono.generateMoves(oxono.getToPlay().getColor(), buffer);
+                int move = game.getMove(ply);
+                assertTrue(IntStream.range(0, count).anyMatch(i -> buffer[i] == move));
+                oxono.makeMove(move);
+            }
+            if (game.getWinner() == null) {
+                assertTrue(oxono.isDraw());
+            } else {
+                assertTrue(oxono.lastMoveWins());
+            }
+        }
+    }
+
+    @Test
+    void testCancelledGameIsDroppedAtOnce() throws InterruptedException {
+        SelfPlay selfPlay = new SelfPlay(6, Strategies.MINIMAX_5_S, Strategies.MINIMAX_5_S, 2, 1);
+        assertThrows(CancellationException.class, () -> selfPlay.playGame(0, new AtomicBoolean(true)));
+        assertThrows(CancellationException.class, () -> new SelfPlay(6, Strategies.MCTS_1_S, Strategies.RANDOM, 0, 1)
+                .playGame(0, new AtomicBoolean(true)));
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Thread canceller = Thread.ofPlatform().start(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            cancelled.set(true);
+        });
+        long start = System.nanoTime();
+        assertThrows(CancellationException.class, () -> selfPlay.playGame(1, cancelled));
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        canceller.join();
+        assertTrue(elapsed < 2_000, "game took " + elapsed + " ms");
+    }
+
+    @Test
+    void testStrongerStrategyHasAPositiveElo() {
+        SelfPlayResult result = new SelfPlay(6, Strategies.MINIMAX_DEPTH_3, Strategies.RANDOM, 2, 1)
+                .play(20, 2, false);
+        assertEquals(20, result.getGames());
+        assertTrue(result.getWins() > result.getLosses());
+        assertTrue(result.getEloDifference() > 0);
+        assertTrue(result.getAveragePlies() > 0);
+        assertTrue(result.getFirstAverageMillis() > 0);
+        assertTrue(result.getGamesPerSecond() > 0);
+    }
+
+    @Test
+    void testEloOfTheScores() {
+        assertEquals(0, SelfPlayResult.elo(0.5), 1e-9);
+        assertEquals(190.85, SelfPlayResult.elo(0.75), 0.01);
+        assertEquals(-190.85, SelfPlayResult.elo(0.25), 0.01);
+    }
+
+    @Test
+    void testInvalidArgumentsAreRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SelfPlay(6, Strategies.RANDOM, Strategies.RANDOM, -1, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SelfPlay(6, Strategies.RANDOM, Strategies.RANDOM, 2, 1).play(2, 0, false));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SelfPlay(6, Strategies.MCTS_1_S, Strategies.RANDOM, 2, 1).play(2, 2, false));
+    }
+}
@@ -0,0 +1,89 @@
+package g62727.dev3.oxono.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SprtTest {
+
+    private static void addPairs(Sprt sprt, int halfPoints, int count) {
+        for (int i = 0; i < count; i++) {
+            sprt.addPair(halfPoints);
+        }
+    }
+
+    @Test
+    void testBoundsComeFromTheErrorRates() {
+        Sprt sprt = new Sprt(0, 10, 0.05, 0.05);
+        assertEquals(-Math.log(19), sprt.getLowerBound(), 1e-9);
+        assertEquals(Math.log(19), sprt.getUpperBound(), 1e-9);
+        assertEquals(0, sprt.getLlr());
+        assertNull(sprt.getDecision());
+    }
+
+    @Test
+    void testLlrOfAnEvenMatch() {
+        Sprt sprt = new Sprt(0, 10, 0.05, 0.05);
+        addPairs(sprt, 0, 10);
+        addPairs(sprt, 1, 20);
+        addPairs(sprt, 2, 40);
+        addPairs(sprt, 3, 20);
+        addPairs(sprt, 4, 10);
+        double score1 = Sprt.expectedScore(10);
+        double variance = (10.5 * 0.25 + 20.5 * 0.0625 + 20.5 * 0.0625 + 10.5 * 0.25) / 102.5;
+        double expected = 100 * (score1 - 0.5) * (1 - 0.5 - score1) / (2 * variance);
+        assertEquals(expected, sprt.getLlr(), 1e-9);
+        assertEquals(100, sprt.getPairs());
+        assertEquals(40, sprt.getPairs(2));
+    }
+
+    @Test
+    void testBetterResultsAcceptH1AndWorseAcceptH0() {
+        Sprt better = new Sprt(0, 10, 0.05, 0.05);
+        Sprt worse = new Sprt(0, 10, 0.05, 0.05);
+        int[] results = {1, 2, 3, 2, 2, 3, 4, 2, 3, 1};
+        for (int i = 0; i < 2_000 && better.getDecision() == null; i++) {
+            better.addPair(results[i % results.length]);
+        }
+        for (int i = 0; i < 2_000 && worse.getDecision() == null; i++) {
+            worse.addPair(4 - results[i % results.length]);
+        }
+        assertEquals(Sprt.Hypothesis.H1, better.getDecision());
+        assertEquals(Sprt.Hypothesis.H0, worse.getDecision());
+    }
+
+    @Test
+    void testIdenticalPairsStillDecide() {
+        Sprt sprt = new Sprt(0, 10, 0.05, 0.05);
+        addPairs(sprt, 4, 20);
+        assertTrue(Double.isFinite(sprt.getLlr()));
+        assertEquals(Sprt.Hypothesis.H1, sprt.getDecision());
+    }
+
+    @Test
+    void testSelfPlayStopsOnceTheTestDecides() {
+        Sprt sprt = new Sprt(0, 50, 0.05, 0.05);
+        SelfPlayResult result = new SelfPlay(6, Strategies.MINIMAX_DEPTH_3, Strategies.RANDOM, 2, 5)
+                .play(sprt, 1_000, 2, true);
+        assertEquals(Sprt.Hypothesis.H1, sprt.getDecision());
+        assertEquals(2 * sprt.getPairs(), result.getGames());
+        assertTrue(result.getGames() < 1_000);
+    }
+
+    @Test
+    void testSelfPlayStopsAtTheMaximumNumberOfGames() {
+        Sprt sprt = new Sprt(-5, 5, 0.001, 0.001);
+        SelfPlayResult result = new SelfPlay(6, Strategies.RANDOM, Strategies.RANDOM, 2, 5)
+                .play(sprt, 21, 3, false);
+        assertEquals(20, result.getGames());
+        assertEquals(10, sprt.getPairs());
+    }
+
+    @Test
+    void testInvalidBoundsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new Sprt(10, 0, 0.05, 0.05));
+        assertThrows(IllegalArgumentException.class, () -> new Sprt(0, 10, 0, 0.05));
+        assertThrows(IllegalArgumentException.class, () -> new Sprt(0, 10, 0.05, 1));
+        assertThrows(IllegalArgumentException.class, () -> new Sprt(0, 10, 0.05, 0.05).addPair(5));
+    }
+}
@@ -0,0 +1,70 @@
+package g62727.dev3.oxono.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SymmetryTest {
+
+    private static int[] sortedMoves(Oxono oxono, Color color) {
+        int[] moves = Positions.moves(oxono, color);
+        Arrays.sort(moves);
+        return moves;
+    }
+
+    @Test
+    void testTransformsAreBijectionsUndoneByTheirInverse() {
+        for (int size : new int[]{4, 5, 6}) {
+            Symmetry symmetry = BoardGeometry.of(size).getSymmetry();
+            for (int transform = 0; transform < Symmetry.TRANSFORMS; transform++) {
+                boolean[] seen = new boolean[size * size];
+                for (int cell = 0; cell < size * size; cell++) {
+                    int image = symmetry.cell(transform, cell);
+                    assertFalse(seen[image]);
+                    seen[image] = true;
+                    assertEquals(cell, symmetry.cell(Symmetry.inverse(transform), image));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testImageKeysMatchTheTransformedBoards() {
+        for (long seed = 0; seed < 20; seed++) {
+            Oxono oxono = Positions.randomPosition(6, 10, seed);
+            Symmetry symmetry = oxono.getGeometry().getSymmetry();
+            long canonical = symmetry.canonicalKey(oxono, Color.PINK);
+            assertEquals(oxono.getZobristKey(Color.PINK), symmetry.key(oxono, Color.PINK, Symmetry.IDENTITY));
+            for (int transform = 0; transform < Symmetry.TRANSFORMS; transform++) {
+                Oxono image = new Oxono(6);
+                image.copyPosition(oxono, transform);
+                assertEquals(image.getZobristKey(Color.PINK), symmetry.key(oxono, Color.PINK, transform));
+                assertEquals(canonical, symmetry.canonicalKey(image, Color.PINK));
+            }
+            int transform = symmetry.canonicalTransform(oxono, Color.PINK);
+            assertEquals(canonical, symmetry.key(oxono, Color.PINK, transform));
+        }
+    }
+
+    @Test
+    void testTurnsOfTheImagesAreTheImagesOfTheTurns() {
+        for (long seed = 0; seed < 20; seed++) {
+            Oxono oxono = Positions.randomPosition(5, 8, seed);
+            Symmetry symmetry = oxono.getGeometry().getSymmetry();
+            int[] moves = sortedMoves(oxono, Color.BLACK);
+            for (int transform = 0; transform < Symmetry.TRANSFORMS; transform++) {
+                Oxono image = new Oxono(5);
+                image.copyPosition(oxono, transform);
+                int[] expected = new int[moves.length];
+                for (int i = 0; i < moves.length; i++) {
+                    expected[i] = symmetry.move(transform, moves[i]);
+                    assertEquals(moves[i], symmetry.move(Symmetry.inverse(transform), expected[i]));
+                }
+                Arrays.sort(expected);
+                assertArrayEquals(expected, sortedMoves(image, Color.BLACK));
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package g62727.dev3.oxono.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranspositionTableTest {
+    private TranspositionTable table;
+
+    @BeforeEach
+    void setUp() {
+        this.table = new TranspositionTable(1);
+    }
+
+    @Test
+    void testSizeInMegabytes() {
+        assertEquals(1 << 16, table.getEntries());
+        assertEquals(1 << 18, new TranspositionTable(4).getEntries());
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+    }
+
+    @Test
+    void testStoreAndProbe() {
+        long key = 0x123456789ABCDEFL;
+        assertEquals(TranspositionTable.MISS, table.probe(key));
+        int move = PackedMove.pack(Symbol.X, 4095, 4095);
+        table.store(key, 7, TranspositionTable.LOWER, -409_500, move);
+        long entry = table.probe(key);
+        assertEquals(7, TranspositionTable.depthOf(entry));
+        assertEquals(TranspositionTable.LOWER, TranspositionTable.boundOf(entry));
+        assertEquals(-409_500, TranspositionTable.scoreOf(entry));
+        assertEquals(move, TranspositionTable.moveOf(entry));
+        assertEquals(TranspositionTable.MISS, table.probe(key ^ 1L << 40));
+
+        table.store(key, 8, TranspositionTable.EXACT, 0, PackedMove.NONE);
+        entry = table.probe(key);
+        assertEquals(move, TranspositionTable.moveOf(entry));
+        assertEquals(TranspositionTable.EXACT, TranspositionTable.boundOf(entry));
+    }
+
+    @Test
+    void testDepthPreferredReplacement() {
+        long deep = 42;
+        long shallow = deep + ((long) table.getEntries() << 32);
+        table.store(deep, 6, TranspositionTable.EXACT, 10, PackedMove.NONE);
+        table.store(shallow, 2, TranspositionTable.EXACT, 20, PackedMove.NONE);
+        assertEquals(TranspositionTable.MISS, table.probe(shallow));
+        assertEquals(10, TranspositionTable.scoreOf(table.probe(deep)));
+
+        table.newSearch();
+        table.store(shallow, 2, TranspositionTable.EXACT, 20, PackedMove.NONE);
+        assertEquals(20, TranspositionTable.scoreOf(table.probe(shallow)));
+        assertEquals(TranspositionTable.MISS, table.probe(deep));
+    }
+
+    @Test
+    void testConcurrentStoresNeverReturnMixedEntries() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                long seed = t;
+                results.add(pool.submit(() -> {
+                    SplittableRandom random = new SplittableRandom(seed);
+                    for (int i = 0; i < 200_000; i++) {
+                        long value = 1 + random.nextLong(1000);
+                        table.store((value << 32) | value, 1, TranspositionTable.EXACT, (int) value, (int) value);
+                        long probed = 1 + random.nextLong(1000);
+                        long entry = table.probe((probed << 32) | probed);
+                        if (entry != TranspositionTable.MISS) {
+                            assertEquals(probed, TranspositionTable.scoreOf(entry));
+                            assertEquals(probed, TranspositionTable.moveOf(entry));
+                        }
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}